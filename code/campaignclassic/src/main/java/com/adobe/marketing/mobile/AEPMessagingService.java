@@ -28,6 +28,22 @@ import java.util.Map;
 public class AEPMessagingService {
     static final String SELF_TAG = "AEPMessagingService";
 
+    private static volatile boolean progressiveCarouselRendering = false;
+
+    /**
+     * Enables or disables progressive rendering of carousel notifications. When enabled, a basic
+     * notification is displayed as soon as a carousel push message is received and it is silently
+     * replaced by the carousel as the carousel images are downloaded. When disabled, the carousel
+     * notification is displayed once all of its images are downloaded. Progressive rendering is
+     * disabled by default.
+     *
+     * @param enabled {@code boolean} signaling if carousel notifications are rendered
+     *     progressively
+     */
+    public static void setProgressiveCarouselRendering(final boolean enabled) {
+        progressiveCarouselRendering = enabled;
+    }
+
     /**
      * Builds an {@link AEPPushPayload} then constructs a {@link Notification} using the {@code
      * RemoteMessage} payload. The built notification is then passed to the {@link
@@ -53,9 +69,7 @@ public class AEPMessagingService {
                     !StringUtils.isNullOrEmpty(payload.getTag())
                             ? payload.getTag()
                             : payload.getMessageId();
-            final Notification notification =
-                    AEPPushNotificationBuilder.buildPushNotification(payload, context);
-            notificationManager.notify(tag.hashCode(), notification);
+            displayNotification(context, notificationManager, payload, tag.hashCode());
         } catch (final IllegalArgumentException exception) {
             Log.error(
                     CampaignPushConstants.LOG_TAG,
@@ -108,9 +122,7 @@ public class AEPMessagingService {
                     !StringUtils.isNullOrEmpty(payload.getTag())
                             ? payload.getTag()
                             : payload.getMessageId();
-            final Notification notification =
-                    AEPPushNotificationBuilder.buildPushNotification(payload, context);
-            notificationManager.notify(tag.hashCode(), notification);
+            displayNotification(context, notificationManager, payload, tag.hashCode());
         } catch (final IllegalArgumentException exception) {
             Log.error(
                     CampaignPushConstants.LOG_TAG,
@@ -135,6 +147,30 @@ public class AEPMessagingService {
         return true;
     }
 
+    private static void displayNotification(
+            final Context context,
+            final NotificationManagerCompat notificationManager,
+            final AEPPushPayload payload,
+            final int notificationId)
+            throws IllegalArgumentException, NotificationConstructionFailedException {
+        final String templateType =
+                payload.getMessageData().get(CampaignPushConstants.PushPayloadKeys.TEMPLATE_TYPE);
+        if (progressiveCarouselRendering
+                && templateType != null
+                && PushTemplateType.fromString(templateType) == PushTemplateType.CAROUSEL) {
+            ProgressiveCarouselNotifier.display(
+                    context,
+                    notificationManager,
+                    notificationId,
+                    new CarouselPushTemplate(payload.getMessageData()));
+            return;
+        }
+
+        final Notification notification =
+                AEPPushNotificationBuilder.buildPushNotification(payload, context);
+        notificationManager.notify(notificationId, notification);
+    }
+
     private static void trackNotificationReceive(final AEPPushPayload payload) {
         Log.trace(
                 CampaignPushConstants.LOG_TAG,
@@ -18,7 +18,6 @@ import android.app.TaskStackBuilder;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.media.RingtoneManager;
 import android.os.Build;
 import android.widget.RemoteViews;
@@ -28,6 +27,7 @@ import androidx.core.app.NotificationCompat;
 import com.adobe.marketing.mobile.campaignclassic.R;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -113,25 +113,30 @@ class AEPPushNotificationBuilder {
             return channelId == null ? DEFAULT_CHANNEL_ID : channelId;
         } else {
             // For Android versions O and above, create a channel if it does not exist and return
-            // the channel ID.
+            // the channel ID. channel existence is answered by the channel registry and missing
+            // channels are created in a single batch.
             final NotificationManager notificationManager =
                     (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
             final String channelIdFromPayload = channelId;
+            final List<NotificationChannel> missingChannels = new ArrayList<>();
 
             // setup a silent channel for notification carousel item change
-            setupSilentNotificationChannel(context, notificationManager, importance);
+            setupSilentNotificationChannel(
+                    context, notificationManager, importance, missingChannels);
 
             // if a channel from the payload is not null and if a channel exists for the channel ID
             // from the payload, use the same channel ID.
+            final String resolvedChannelId;
             if (channelIdFromPayload != null
-                    && notificationManager.getNotificationChannel(channelIdFromPayload) != null) {
+                    && NotificationChannelRegistry.exists(
+                            notificationManager, channelIdFromPayload)) {
                 Log.debug(
                         CampaignPushConstants.LOG_TAG,
                         SELF_TAG,
                         "Channel exists for channel ID: "
                                 + channelIdFromPayload
                                 + ". Using the same for push notification.");
-                return channelIdFromPayload;
+                resolvedChannelId = channelIdFromPayload;
             } else if (channelIdFromPayload != null) {
                 Log.debug(
                         CampaignPushConstants.LOG_TAG,
@@ -148,52 +153,55 @@ class AEPPushNotificationBuilder {
                 // set a custom sound on the channel
                 setSound(context, channel, customSound, false);
 
-                // add the channel to the notification manager
-                notificationManager.createNotificationChannel(channel);
-
-                return channelIdFromPayload;
+                missingChannels.add(channel);
+                resolvedChannelId = channelIdFromPayload;
             } else {
                 Log.debug(
                         CampaignPushConstants.LOG_TAG,
                         SELF_TAG,
                         "No channel ID obtained from payload. Using the Campaign Classic"
                                 + " Extension's default channel.");
-            }
 
-            // Use the default channel ID if the channel ID from the payload is null or if a channel
-            // does not exist for the channel ID from the payload.
-            if (notificationManager.getNotificationChannel(DEFAULT_CHANNEL_ID) != null) {
-                Log.debug(
-                        CampaignPushConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Channel already exists for the default channel ID: " + DEFAULT_CHANNEL_ID);
-            } else {
-                Log.debug(
-                        CampaignPushConstants.LOG_TAG,
-                        SELF_TAG,
-                        "Creating a new channel for the default channel ID: "
-                                + DEFAULT_CHANNEL_ID
-                                + ".");
-                final NotificationChannel channel =
-                        new NotificationChannel(
-                                DEFAULT_CHANNEL_ID, DEFAULT_CHANNEL_NAME, importance);
-                notificationManager.createNotificationChannel(channel);
+                // Use the default channel ID if the channel ID from the payload is null
+                if (NotificationChannelRegistry.exists(notificationManager, DEFAULT_CHANNEL_ID)) {
+                    Log.debug(
+                            CampaignPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Channel already exists for the default channel ID: "
+                                    + DEFAULT_CHANNEL_ID);
+                } else {
+                    Log.debug(
+                            CampaignPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Creating a new channel for the default channel ID: "
+                                    + DEFAULT_CHANNEL_ID
+                                    + ".");
+                    missingChannels.add(
+                            new NotificationChannel(
+                                    DEFAULT_CHANNEL_ID, DEFAULT_CHANNEL_NAME, importance));
+                }
+                resolvedChannelId = DEFAULT_CHANNEL_ID;
             }
-            return DEFAULT_CHANNEL_ID;
+
+            // add the missing channels to the notification manager
+            NotificationChannelRegistry.create(notificationManager, missingChannels);
+            return resolvedChannelId;
         }
     }
 
+    @RequiresApi(api = Build.VERSION_CODES.O)
     private static void setupSilentNotificationChannel(
             final Context context,
             final NotificationManager notificationManager,
-            final int importance) {
+            final int importance,
+            final List<NotificationChannel> missingChannels) {
         if (Build.VERSION.SDK_INT <= Build.VERSION_CODES.O) {
             return;
         }
 
-        if (notificationManager.getNotificationChannel(
-                        CampaignPushConstants.DefaultValues.SILENT_NOTIFICATION_CHANNEL_ID)
-                != null) {
+        if (NotificationChannelRegistry.exists(
+                notificationManager,
+                CampaignPushConstants.DefaultValues.SILENT_NOTIFICATION_CHANNEL_ID)) {
             Log.trace(
                     CampaignPushConstants.LOG_TAG,
                     SELF_TAG,
@@ -212,8 +220,7 @@ class AEPPushNotificationBuilder {
         // set no sound on the silent channel
         setSound(context, silentChannel, null, true);
 
-        // add the silent channel to the notification manager
-        notificationManager.createNotificationChannel(silentChannel);
+        missingChannels.add(silentChannel);
     }
 
     /**
@@ -224,14 +231,14 @@ class AEPPushNotificationBuilder {
      *
      * @param context the application {@link Context}
      * @param smallIcon {@code String} containing the small icon to use
-     * @param smallIconColor {@code String} containing the small icon color to use
+     * @param style the {@link PushTemplateStyle} containing the small icon color to use
      * @param builder the notification builder
      */
     static void setSmallIcon(
             final Context context,
             final NotificationCompat.Builder builder,
             final String smallIcon,
-            final String smallIconColor) {
+            final PushTemplateStyle style) {
         final int iconFromPayload =
                 CampaignPushUtils.getSmallIconWithResourceName(smallIcon, context);
         final int iconFromMobileCore = MobileCore.getSmallIconResourceID();
@@ -254,33 +261,23 @@ class AEPPushNotificationBuilder {
             }
         }
 
-        final String iconColorHex = smallIconColor;
-        setSmallIconColor(builder, iconColorHex);
+        setSmallIconColor(builder, style.getSmallIconColor());
 
         builder.setSmallIcon(iconResourceId);
     }
+
     /**
      * Sets a custom color to the notification's small icon.
      *
      * @param builder the notification builder
-     * @param iconColorHex {@code String} containing a color code to be used in customizing the
-     *     small icon color
+     * @param iconColor {@code int} containing the color to be used in customizing the small icon
+     *     color, or {@link PushTemplateStyle#NO_COLOR}
      */
     private static void setSmallIconColor(
-            final NotificationCompat.Builder builder, final String iconColorHex) {
-
-        try {
-            // sets the icon color if provided
-            if (!StringUtils.isNullOrEmpty(iconColorHex)) {
-                final String smallIconColor = "#" + iconColorHex;
-                builder.setColorized(true).setColor(Color.parseColor(smallIconColor));
-            }
-        } catch (final IllegalArgumentException exception) {
-            Log.trace(
-                    CampaignPushConstants.LOG_TAG,
-                    SELF_TAG,
-                    "Unrecognized hex string passed to Color.parseColor(), custom color will not"
-                            + " be applied to the notification icon.");
+            final NotificationCompat.Builder builder, final int iconColor) {
+        // sets the icon color if provided
+        if (iconColor != PushTemplateStyle.NO_COLOR) {
+            builder.setColorized(true).setColor(iconColor);
         }
     }
 
@@ -384,7 +381,8 @@ class AEPPushNotificationBuilder {
             final String bodyText) {
         // Quick bail out if there is no image url
         if (StringUtils.isNullOrEmpty(imageUrl)) return;
-        Bitmap bitmap = CampaignPushUtils.download(imageUrl);
+        Bitmap bitmap =
+                CampaignPushUtils.download(imageUrl, PushImageSizePolicy.Slot.BASIC_EXPANDED);
 
         // Bail out if the download fails
         if (bitmap == null) return;
@@ -635,111 +633,53 @@ class AEPPushNotificationBuilder {
     /**
      * Sets custom colors to UI elements present in the specified {@code RemoteViews} object.
      *
-     * @param backgroundColor {@code String} containing the hex color code for the notification
-     *     background
-     * @param titleTextColor {@code String} containing the hex color code for the notification title
-     *     text
-     * @param expandedBodyTextColor {@code String} containing the hex color code for the expanded
-     *     notification body text
+     * @param style the {@link PushTemplateStyle} containing the parsed notification colors
      * @param smallLayout {@link RemoteViews} object for a collapsed custom notification
      * @param expandedLayout {@code RemoteViews} object for an expanded custom notification
      * @param containerViewId {@code int} containing the resource id of the layout container
      */
     static void setCustomNotificationColors(
-            final String backgroundColor,
-            final String titleTextColor,
-            final String expandedBodyTextColor,
+            final PushTemplateStyle style,
             final RemoteViews smallLayout,
             final RemoteViews expandedLayout,
             final int containerViewId) {
-        // get custom color from hex string and set it the notification background
-        if (!StringUtils.isNullOrEmpty(backgroundColor)) {
-            setElementColor(
-                    smallLayout,
+        // set the custom color to the notification background
+        final int backgroundColor = style.getNotificationBackgroundColor();
+        if (backgroundColor != PushTemplateStyle.NO_COLOR) {
+            smallLayout.setInt(
                     R.id.basic_small_layout,
-                    "#" + backgroundColor,
                     CampaignPushConstants.MethodNames.SET_BACKGROUND_COLOR,
-                    CampaignPushConstants.FriendlyViewNames.NOTIFICATION_BACKGROUND);
-            setElementColor(
-                    expandedLayout,
+                    backgroundColor);
+            expandedLayout.setInt(
                     containerViewId,
-                    "#" + backgroundColor,
                     CampaignPushConstants.MethodNames.SET_BACKGROUND_COLOR,
-                    CampaignPushConstants.FriendlyViewNames.NOTIFICATION_BACKGROUND);
+                    backgroundColor);
         }
 
-        // get custom color from hex string and set it the notification title
-        if (!StringUtils.isNullOrEmpty(titleTextColor)) {
-            setElementColor(
-                    smallLayout,
+        // set the custom color to the notification title
+        final int titleTextColor = style.getTitleTextColor();
+        if (titleTextColor != PushTemplateStyle.NO_COLOR) {
+            smallLayout.setInt(
                     R.id.notification_title,
-                    "#" + titleTextColor,
                     CampaignPushConstants.MethodNames.SET_TEXT_COLOR,
-                    CampaignPushConstants.FriendlyViewNames.NOTIFICATION_TITLE);
-            setElementColor(
-                    expandedLayout,
+                    titleTextColor);
+            expandedLayout.setInt(
                     R.id.notification_title,
-                    "#" + titleTextColor,
                     CampaignPushConstants.MethodNames.SET_TEXT_COLOR,
-                    CampaignPushConstants.FriendlyViewNames.NOTIFICATION_TITLE);
+                    titleTextColor);
         }
 
-        // get custom color from hex string and set it the notification body text
-        if (!StringUtils.isNullOrEmpty(expandedBodyTextColor)) {
-            setElementColor(
-                    smallLayout,
+        // set the custom color to the notification body text
+        final int expandedBodyTextColor = style.getExpandedBodyTextColor();
+        if (expandedBodyTextColor != PushTemplateStyle.NO_COLOR) {
+            smallLayout.setInt(
                     R.id.notification_body,
-                    "#" + expandedBodyTextColor,
                     CampaignPushConstants.MethodNames.SET_TEXT_COLOR,
-                    CampaignPushConstants.FriendlyViewNames.NOTIFICATION_BODY_TEXT);
-            setElementColor(
-                    expandedLayout,
+                    expandedBodyTextColor);
+            expandedLayout.setInt(
                     R.id.notification_body_expanded,
-                    "#" + expandedBodyTextColor,
                     CampaignPushConstants.MethodNames.SET_TEXT_COLOR,
-                    CampaignPushConstants.FriendlyViewNames.NOTIFICATION_BODY_TEXT);
-        }
-    }
-
-    /**
-     * Sets a provided color hex string to a UI element contained in a specified {@code RemoteViews}
-     * view.
-     *
-     * @param remoteView {@link RemoteViews} object containing a UI element to be updated
-     * @param elementId {@code int} containing the resource id of the UI element
-     * @param colorHex {@code String} containing the color hex string
-     * @param methodName {@code String} containing the method to be called on the UI element to
-     *     update the color
-     * @param viewFriendlyName {@code String} containing the friendly name of the view to be used
-     *     for logging purposes
-     */
-    private static void setElementColor(
-            final RemoteViews remoteView,
-            final int elementId,
-            final String colorHex,
-            final String methodName,
-            final String viewFriendlyName) {
-        if (StringUtils.isNullOrEmpty(methodName)) {
-            Log.trace(
-                    CampaignPushConstants.LOG_TAG,
-                    SELF_TAG,
-                    "Null or empty method name provided, custom color will not"
-                            + " be applied to"
-                            + viewFriendlyName);
-            return;
-        }
-
-        try {
-            if (!StringUtils.isNullOrEmpty(colorHex)) {
-                remoteView.setInt(elementId, methodName, Color.parseColor(colorHex));
-            }
-        } catch (final IllegalArgumentException exception) {
-            Log.trace(
-                    CampaignPushConstants.LOG_TAG,
-                    SELF_TAG,
-                    "Unrecognized hex string passed to Color.parseColor(), custom color will not"
-                            + " be applied to"
-                            + viewFriendlyName);
+                    expandedBodyTextColor);
         }
     }
 }
@@ -136,6 +136,8 @@ class AEPPushTemplate {
     // Optional, Color for the notification's background. Represented as six character hex, e.g.
     // 00FF00
     private final String notificationBackgroundColor;
+    // Not part of the payload, the colors above parsed once when the template is created
+    private final PushTemplateStyle style;
     // Optional, If present, show a "remind later" button using the value provided as its label
     private final String remindLaterText;
     // Optional, If present, schedule this notification to be re-delivered at this epoch timestamp
@@ -262,6 +264,12 @@ class AEPPushTemplate {
                         data,
                         CampaignPushConstants.PushPayloadKeys.NOTIFICATION_BACKGROUND_COLOR,
                         null);
+        this.style =
+                PushTemplateStyle.parse(
+                        notificationBackgroundColor,
+                        titleTextColor,
+                        expandedBodyTextColor,
+                        smallIconColor);
         this.remindLaterText =
                 DataReader.optString(
                         messageData, CampaignPushConstants.PushPayloadKeys.REMIND_LATER_TEXT, "");
@@ -385,6 +393,10 @@ class AEPPushTemplate {
         return notificationBackgroundColor;
     }
 
+    @NonNull PushTemplateStyle getStyle() {
+        return style;
+    }
+
     @Nullable String getRemindLaterText() {
         return remindLaterText;
     }
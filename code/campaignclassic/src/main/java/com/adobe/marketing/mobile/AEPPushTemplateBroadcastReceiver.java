@@ -16,7 +16,11 @@ import android.content.Intent;
 import android.os.Build;
 import com.adobe.marketing.mobile.util.StringUtils;
 
-/** Broadcast receiver for handling custom push template notification interactions. */
+/**
+ * Broadcast receiver for handling custom push template notification interactions. Interactions
+ * which redraw or display a notification are handled off the main thread by the {@link
+ * PushTemplateIntentWorker}.
+ */
 public class AEPPushTemplateBroadcastReceiver extends BroadcastReceiver {
 
     @Override
@@ -26,14 +30,26 @@ public class AEPPushTemplateBroadcastReceiver extends BroadcastReceiver {
             return;
         }
 
+        // the handlers can outlive this receiver, they use the application context
+        final Context appContext = context.getApplicationContext();
         switch (action) {
             case CampaignPushConstants.IntentActions.FILMSTRIP_LEFT_CLICKED:
             case CampaignPushConstants.IntentActions.FILMSTRIP_RIGHT_CLICKED:
-                FilmstripCarouselTemplateNotificationBuilder.handleIntent(context, intent);
+                PushTemplateIntentWorker.enqueue(
+                        goAsync(),
+                        getCarouselKey(intent),
+                        () ->
+                                FilmstripCarouselTemplateNotificationBuilder.handleIntent(
+                                        appContext, intent));
                 break;
             case CampaignPushConstants.IntentActions.MANUAL_CAROUSEL_LEFT_CLICKED:
             case CampaignPushConstants.IntentActions.MANUAL_CAROUSEL_RIGHT_CLICKED:
-                ManualCarouselTemplateNotificationBuilder.handleIntent(context, intent);
+                PushTemplateIntentWorker.enqueue(
+                        goAsync(),
+                        getCarouselKey(intent),
+                        () ->
+                                ManualCarouselTemplateNotificationBuilder.handleIntent(
+                                        appContext, intent));
                 break;
             case CampaignPushConstants.IntentActions.REMIND_LATER_CLICKED:
                 if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
@@ -41,8 +57,24 @@ public class AEPPushTemplateBroadcastReceiver extends BroadcastReceiver {
                 }
                 break;
             case CampaignPushConstants.IntentActions.SCHEDULED_NOTIFICATION_BROADCAST:
-                BasicTemplateNotificationBuilder.handleScheduledIntent(context, intent);
+                PushTemplateIntentWorker.enqueue(
+                        goAsync(),
+                        null,
+                        () ->
+                                BasicTemplateNotificationBuilder.handleScheduledIntent(
+                                        appContext, intent));
                 break;
         }
     }
+
+    private static String getCarouselKey(final Intent intent) {
+        // navigation taps are coalesced per carousel notification
+        final String sessionKey =
+                intent.getStringExtra(CampaignPushConstants.IntentKeys.SESSION_KEY);
+        return StringUtils.isNullOrEmpty(sessionKey)
+                ? CarouselSessionStore.getSessionKey(
+                        intent.getStringExtra(CampaignPushConstants.IntentKeys.TAG),
+                        intent.getStringExtra(CampaignPushConstants.IntentKeys.MESSAGE_ID))
+                : sessionKey;
+    }
 }
@@ -71,9 +71,7 @@ class AutoCarouselTemplateNotificationBuilder {
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                pushTemplate.getNotificationBackgroundColor(),
-                pushTemplate.getTitleTextColor(),
-                pushTemplate.getExpandedBodyTextColor(),
+                pushTemplate.getStyle(),
                 smallLayout,
                 expandedLayout,
                 R.id.carousel_container_layout);
@@ -88,7 +86,7 @@ class AutoCarouselTemplateNotificationBuilder {
 
         // small Icon must be present, otherwise the notification will not be displayed.
         AEPPushNotificationBuilder.setSmallIcon(
-                context, builder, pushTemplate.getIcon(), pushTemplate.getSmallIconColor());
+                context, builder, pushTemplate.getIcon(), pushTemplate.getStyle());
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             AEPPushNotificationBuilder.setVisibility(
                     builder, pushTemplate.getNotificationVisibility());
@@ -120,17 +118,27 @@ class AutoCarouselTemplateNotificationBuilder {
         final long imageProcessingStartTime = System.currentTimeMillis();
         final ArrayList<String> downloadedImageUris = new ArrayList<>();
 
-        for (final CarouselPushTemplate.CarouselItem item : items) {
-
+        // retrieve all carousel images in parallel
+        final CarouselImageFetcher.Result fetchedImages =
+                CarouselImageFetcher.fetch(
+                        cacheService, pushTemplate, PushImageSizePolicy.Slot.CAROUSEL_ITEM);
+        // keep the bitmaps attached to the notification within the parcel size budget
+        final CarouselImageFetcher.Result fetchResult =
+                NotificationBitmapBudget.fit(
+                        fetchedImages,
+                        CampaignPushConstants.DefaultValues.CAROUSEL_MINIMUM_IMAGE_COUNT);
+
+        for (int i = 0; i < items.size(); i++) {
+            final CarouselPushTemplate.CarouselItem item = items.get(i);
             final String imageUri = item.getImageUri();
-            final Bitmap pushImage = CampaignPushUtils.downloadImage(cacheService, imageUri);
+            final Bitmap pushImage = fetchResult.getImage(i);
             if (pushImage == null) {
                 Log.trace(
                         CampaignPushConstants.LOG_TAG,
                         SELF_TAG,
                         "Failed to retrieve an image from %s, will not create a new carousel item.",
                         imageUri);
-                break;
+                continue;
             }
             final RemoteViews carouselItem =
                     new RemoteViews(packageName, R.layout.push_template_carousel_item);
@@ -81,7 +81,9 @@ class BasicTemplateNotificationBuilder {
 
         // get push payload data
         final String imageUri = pushTemplate.getImageUrl();
-        final Bitmap pushImage = CampaignPushUtils.downloadImage(cacheService, imageUri);
+        final Bitmap pushImage =
+                CampaignPushUtils.downloadImage(
+                        cacheService, imageUri, PushImageSizePolicy.Slot.BASIC_EXPANDED);
         if (pushImage != null) {
             expandedLayout.setImageViewBitmap(R.id.expanded_template_image, pushImage);
         }
@@ -94,9 +96,7 @@ class BasicTemplateNotificationBuilder {
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                pushTemplate.getNotificationBackgroundColor(),
-                pushTemplate.getTitleTextColor(),
-                pushTemplate.getExpandedBodyTextColor(),
+                pushTemplate.getStyle(),
                 smallLayout,
                 expandedLayout,
                 R.id.basic_expanded_layout);
@@ -112,7 +112,7 @@ class BasicTemplateNotificationBuilder {
 
         // small Icon must be present, otherwise the notification will not be displayed.
         AEPPushNotificationBuilder.setSmallIcon(
-                context, builder, pushTemplate.getIcon(), pushTemplate.getSmallIconColor());
+                context, builder, pushTemplate.getIcon(), pushTemplate.getStyle());
 
         // set notification visibility
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
@@ -196,7 +196,9 @@ class BasicTemplateNotificationBuilder {
         final String expandedBodyText =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT);
         final String imageUri = intentExtras.getString(CampaignPushConstants.IntentKeys.IMAGE_URI);
-        final Bitmap pushImage = CampaignPushUtils.downloadImage(cacheService, imageUri);
+        final Bitmap pushImage =
+                CampaignPushUtils.downloadImage(
+                        cacheService, imageUri, PushImageSizePolicy.Slot.BASIC_EXPANDED);
 
         final RemoteViews smallLayout =
                 new RemoteViews(packageName, R.layout.push_template_collapsed);
@@ -227,17 +229,9 @@ class BasicTemplateNotificationBuilder {
         final int importance = intentExtras.getInt(CampaignPushConstants.IntentKeys.IMPORTANCE);
         final String channelId =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.CHANNEL_ID);
-        final String notificationBackgroundColor =
-                intentExtras.getString(
-                        CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR);
-        final String titleTextColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR);
-        final String expandedBodyTextColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR);
         final String smallIcon =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON);
-        final String smallIconColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR);
+        final PushTemplateStyle style = PushTemplateStyle.fromExtras(intentExtras);
         final String customSound =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.CUSTOM_SOUND);
         final String actionButtonsString =
@@ -252,9 +246,7 @@ class BasicTemplateNotificationBuilder {
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                notificationBackgroundColor,
-                titleTextColor,
-                expandedBodyTextColor,
+                style,
                 smallLayout,
                 expandedLayout,
                 R.id.basic_expanded_layout);
@@ -269,7 +261,7 @@ class BasicTemplateNotificationBuilder {
                         .setCustomBigContentView(expandedLayout);
 
         // small Icon must be present, otherwise the notification will not be displayed.
-        AEPPushNotificationBuilder.setSmallIcon(context, builder, smallIcon, smallIconColor);
+        AEPPushNotificationBuilder.setSmallIcon(context, builder, smallIcon, style);
 
         // set notification visibility
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
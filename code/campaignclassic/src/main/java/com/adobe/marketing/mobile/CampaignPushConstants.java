@@ -21,6 +21,7 @@ final class CampaignPushConstants {
     static final String LOG_TAG = "CampaignClassicExtension";
     static final String CACHE_BASE_DIR = "campaignclassic";
     static final String PUSH_IMAGE_CACHE = "pushimagecache";
+    static final String PUSH_DATASTORE_NAME = "ADOBEMOBILE_CAMPAIGNCLASSIC_PUSH";
 
     static final class NotificationAction {
         static final String DISMISSED = "Notification Dismissed";
@@ -46,18 +47,53 @@ final class CampaignPushConstants {
     static final class DefaultValues {
         static final String SILENT_NOTIFICATION_CHANNEL_ID = "silent";
         static final String LEGACY_PAYLOAD_VERSION_STRING = "0";
-        static final int CAROUSEL_MAX_BITMAP_WIDTH = 300;
-        static final int CAROUSEL_MAX_BITMAP_HEIGHT = 200;
         static final String AUTO_CAROUSEL_MODE = "auto";
         static final String MANUAL_CAROUSEL_MODE = "manual";
         static final String FILMSTRIP_CAROUSEL_MODE = "filmstrip";
         static final int CAROUSEL_MINIMUM_IMAGE_COUNT = 3;
+        static final int CAROUSEL_MAX_PARALLEL_DOWNLOADS = 4;
+        static final long CAROUSEL_DOWNLOAD_DEADLINE_IN_MILLISECONDS =
+                10000; // all carousel images must be retrieved within 10 seconds
+        static final long NOTIFICATION_BITMAP_BUDGET_IN_BYTES =
+                768 * 1024; // stay well below the 1 MB binder transaction buffer
+        static final long PROGRESSIVE_CAROUSEL_UPDATE_INTERVAL_IN_MILLISECONDS =
+                200; // minimum time between two progressive carousel notification updates
+        // push template broadcasts are handled on a worker thread and must be finished before the
+        // 10 second broadcast receiver timeout
+        static final long PUSH_TEMPLATE_INTENT_DEADLINE_IN_MILLISECONDS = 8000;
+        static final int PUSH_TEMPLATE_INTENT_QUEUE_CAPACITY = 10;
+        // notification channels are looked up again after this time in case they were deleted
+        static final long NOTIFICATION_CHANNEL_REGISTRY_TTL_IN_MILLISECONDS = 60000; // 1 minute
+        static final int IMAGE_DOWNLOAD_CONNECT_TIMEOUT_IN_MILLISECONDS = 5000;
+        static final int IMAGE_DOWNLOAD_READ_TIMEOUT_IN_MILLISECONDS = 5000;
+        static final long IMAGE_DOWNLOAD_MAX_DURATION_IN_MILLISECONDS =
+                15000; // downloads still running after 15 seconds are disconnected
+        static final int IMAGE_DOWNLOAD_MAX_RETRIES = 2;
+        static final long IMAGE_DOWNLOAD_RETRY_BASE_DELAY_IN_MILLISECONDS = 500;
+        // larger images are not downloaded, they would only be sampled down when decoded
+        static final long IMAGE_DOWNLOAD_MAX_SIZE_IN_BYTES = 5 * 1024 * 1024; // 5 MB
+        // images which failed to download are not requested again until their failure expires
+        static final long IMAGE_FAILURE_TTL_IN_MILLISECONDS = 3600000; // 1 hour
+        static final long IMAGE_TRANSIENT_FAILURE_TTL_IN_MILLISECONDS = 300000; // 5 minutes
+        static final long IMAGE_HOST_FAILURE_TTL_IN_MILLISECONDS = 120000; // 2 minutes
         static final int CENTER_INDEX = 1;
         static final int ACTION_BUTTON_CAPACITY = 3;
         // TODO: revisit this value. should cache time be configurable rather than have a static
         // value?
         static final long PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS =
                 259200000; // 3 days
+        // cached images with http validators are kept after they are no longer fresh so they can
+        // be revalidated with a conditional request instead of being downloaded again
+        static final long PUSH_NOTIFICATION_IMAGE_CACHE_MAX_AGE_IN_MILLISECONDS =
+                2592000000L; // 30 days
+        // when enabled, a lossy WebP copy of the scaled image is cached next to the original
+        // encoded image so that later reads do not need to decode and scale the original
+        static final boolean CACHE_SCALED_IMAGE_VARIANT = false;
+        static final int SCALED_IMAGE_VARIANT_QUALITY = 80;
+        // least recently used push images are evicted once the cache exceeds this size
+        static final long PUSH_IMAGE_CACHE_MAX_SIZE_IN_BYTES = 50 * 1024 * 1024; // 50 MB
+        // low priority asset prefetching stops once this many bytes were written to the cache
+        static final long PREFETCH_STORAGE_BUDGET_IN_BYTES = 10 * 1024 * 1024; // 10 MB
         static final long DEFAULT_REMIND_LATER_TIMESTAMP =
                 -1L; // -1L means that no remind later timestamp was found in the action button
         // payload
@@ -65,6 +101,14 @@ final class CampaignPushConstants {
         private DefaultValues() {}
     }
 
+    static final class ImageCacheMetadataKeys {
+        static final String ENTITY_TAG = "etag";
+        static final String LAST_MODIFIED = "lastModified";
+        static final String FRESH_UNTIL = "freshUntil";
+
+        private ImageCacheMetadataKeys() {}
+    }
+
     static final class IntentActions {
         static final String FILMSTRIP_LEFT_CLICKED = "filmstrip_left";
         static final String FILMSTRIP_RIGHT_CLICKED = "filmstrip_right";
@@ -104,6 +148,11 @@ final class CampaignPushConstants {
         static final String STICKY = "sticky";
         static final String TAG = "tag";
         static final String TICKER = "ticker";
+        static final String SESSION_KEY = "sessionKey";
+        static final String STYLE_BACKGROUND_COLOR = "styleBackgroundColor";
+        static final String STYLE_TITLE_TEXT_COLOR = "styleTitleTextColor";
+        static final String STYLE_BODY_TEXT_COLOR = "styleBodyTextColor";
+        static final String STYLE_SMALL_ICON_COLOR = "styleSmallIconColor";
 
         private IntentKeys() {}
     }
@@ -115,14 +164,6 @@ final class CampaignPushConstants {
         private MethodNames() {}
     }
 
-    static final class FriendlyViewNames {
-        static final String NOTIFICATION_BACKGROUND = "notification background";
-        static final String NOTIFICATION_TITLE = "notification title";
-        static final String NOTIFICATION_BODY_TEXT = "notification body text";
-
-        private FriendlyViewNames() {}
-    }
-
     static final class PushPayloadKeys {
         public static final String TEMPLATE_TYPE = "adb_template_type";
         public static final String TITLE = "adb_title";
@@ -158,6 +199,7 @@ final class CampaignPushConstants {
         public static final String INPUT_FIELD_TEXT = "adb_input_txt";
         public static final String FEEDBACK_RECEIVED_TEXT = "adb_feedback_txt";
         public static final String FEEDBACK_RECEIVED_IMAGE = "adb_feedback_img";
+        public static final String PREFETCH_ASSETS = "adb_prefetch";
 
         private PushPayloadKeys() {}
     }
@@ -17,33 +17,42 @@ import android.content.pm.PackageManager;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Matrix;
-import android.graphics.RectF;
 import android.net.Uri;
+import android.os.Build;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import com.adobe.marketing.mobile.services.DeviceInforming;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
-import com.adobe.marketing.mobile.services.caching.CacheEntry;
-import com.adobe.marketing.mobile.services.caching.CacheExpiry;
 import com.adobe.marketing.mobile.services.caching.CacheResult;
 import com.adobe.marketing.mobile.services.caching.CacheService;
 import com.adobe.marketing.mobile.util.StringUtils;
 import com.adobe.marketing.mobile.util.UrlUtils;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Utility class for building push notifications.
@@ -54,77 +63,456 @@ import java.util.concurrent.TimeUnit;
  */
 class CampaignPushUtils {
     private static final String SELF_TAG = "CampaignPushUtils";
-    private static final int FULL_BITMAP_QUALITY = 100;
     private static final int DOWNLOAD_TIMEOUT = 10;
     private static final int MINIMUM_FILMSTRIP_SIZE = 3;
+    private static final int DOWNLOAD_BUFFER_SIZE = 8192;
+    private static final String SCALED_VARIANT_KEY_SUFFIX = "#scaled_";
+    private static final String IN_FLIGHT_KEY_SEPARATOR = "|";
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_LAST_MODIFIED = "Last-Modified";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final String HEADER_IF_MODIFIED_SINCE = "If-Modified-Since";
 
     private static class ExecutorHolder {
         static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor();
     }
 
+    // image loads which are in progress, keyed by normalized image url
+    private static final ConcurrentHashMap<String, FutureTask<Bitmap>> inFlightImages =
+            new ConcurrentHashMap<>();
+
     private static ExecutorService getExecutor() {
         return CampaignPushUtils.ExecutorHolder.INSTANCE;
     }
 
+    /** Holds the result of an image request made by {@link #requestImage(String, Map, long)}. */
+    private static class ImageResponse {
+        final int responseCode;
+        final byte[] imageData;
+        final String entityTag;
+        final String lastModified;
+
+        ImageResponse(
+                final int responseCode,
+                final byte[] imageData,
+                final String entityTag,
+                final String lastModified) {
+            this.responseCode = responseCode;
+            this.imageData = imageData;
+            this.entityTag = entityTag;
+            this.lastModified = lastModified;
+        }
+
+        boolean isNotModified() {
+            return responseCode == HttpURLConnection.HTTP_NOT_MODIFIED;
+        }
+
+        boolean isSuccessful() {
+            return isNotModified()
+                    || (responseCode >= HttpURLConnection.HTTP_OK
+                            && responseCode < HttpURLConnection.HTTP_MULT_CHOICE);
+        }
+    }
+
     private static class DownloadImageCallable implements Callable<Bitmap> {
         final String url;
+        final PushImageSizePolicy.Slot slot;
 
-        DownloadImageCallable(final String url) {
+        DownloadImageCallable(final String url, final PushImageSizePolicy.Slot slot) {
             this.url = url;
+            this.slot = slot;
         }
 
         @Override
         public Bitmap call() {
-            Bitmap bitmap = null;
-            HttpURLConnection connection = null;
-            InputStream inputStream = null;
+            final ImageResponse response =
+                    requestImage(
+                            url,
+                            null,
+                            CampaignPushConstants.DefaultValues.IMAGE_DOWNLOAD_MAX_SIZE_IN_BYTES);
+            final byte[] imageData = response == null ? null : response.imageData;
+            if (imageData == null) {
+                return null;
+            }
 
-            try {
-                final URL imageUrl = new URL(url);
-                connection = (HttpURLConnection) imageUrl.openConnection();
-                inputStream = connection.getInputStream();
-                bitmap = BitmapFactory.decodeStream(inputStream);
-            } catch (final IOException e) {
+            // decode straight to the size of the slot rather than decoding the full resolution
+            // image and scaling it down afterwards
+            final Bitmap bitmap = decodePushImage(imageData, slot);
+
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Downloaded push notification image from url (%s)",
+                    url);
+            return bitmap;
+        }
+    }
+
+    /**
+     * Downloads the encoded image found at the provided url into memory. The image is read into a
+     * buffer so that it can be read more than once when decoding, the size of the buffer is
+     * proportional to the size of the encoded image rather than the decoded bitmap. When the
+     * response has a content length the buffer is allocated once with the exact size. Images
+     * larger than {@code maxSizeInBytes} are not read, or stop being read once the limit is
+     * exceeded when the content length is unknown.
+     *
+     * <p>If the metadata of a previously cached copy of the image is provided, its validators are
+     * sent with the request so that an unchanged image is answered with a 304 response and no
+     * image data.
+     *
+     * @param url {@code String} containing the image url
+     * @param cachedMetadata {@code Map<String, String>} containing the metadata of a previously
+     *     cached copy of the image, or null
+     * @param maxSizeInBytes {@code long} containing the maximum size of the encoded image
+     * @return {@link ImageResponse} containing the result of the request, its response code is
+     *     one of the {@link ImageFailureCache} error codes if no response was received or the
+     *     image is too large
+     */
+    @NonNull private static ImageResponse requestImage(
+            final String url, final Map<String, String> cachedMetadata, final long maxSizeInBytes) {
+        HttpURLConnection connection = null;
+        InputStream inputStream = null;
+        ImageDownloadWatchdog.ActiveDownload activeDownload = null;
+        boolean connected = false;
+
+        try {
+            final URL imageUrl = new URL(url);
+            connection = (HttpURLConnection) imageUrl.openConnection();
+            connection.setConnectTimeout(
+                    CampaignPushConstants.DefaultValues
+                            .IMAGE_DOWNLOAD_CONNECT_TIMEOUT_IN_MILLISECONDS);
+            connection.setReadTimeout(
+                    CampaignPushConstants.DefaultValues
+                            .IMAGE_DOWNLOAD_READ_TIMEOUT_IN_MILLISECONDS);
+            // the watchdog disconnects the download if its task is cancelled or it runs too long
+            activeDownload = ImageDownloadWatchdog.register(connection, url);
+            if (cachedMetadata != null) {
+                final String entityTag =
+                        cachedMetadata.get(
+                                CampaignPushConstants.ImageCacheMetadataKeys.ENTITY_TAG);
+                final String lastModified =
+                        cachedMetadata.get(
+                                CampaignPushConstants.ImageCacheMetadataKeys.LAST_MODIFIED);
+                if (!StringUtils.isNullOrEmpty(entityTag)) {
+                    connection.setRequestProperty(HEADER_IF_NONE_MATCH, entityTag);
+                }
+                if (!StringUtils.isNullOrEmpty(lastModified)) {
+                    connection.setRequestProperty(HEADER_IF_MODIFIED_SINCE, lastModified);
+                }
+            }
+
+            connection.connect();
+            connected = true;
+            final int responseCode = connection.getResponseCode();
+            final String entityTag = connection.getHeaderField(HEADER_ETAG);
+            final String lastModified = connection.getHeaderField(HEADER_LAST_MODIFIED);
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                Log.trace(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Push notification image from url (%s) has not been modified.",
+                        url);
+                return new ImageResponse(responseCode, null, entityTag, lastModified);
+            }
+
+            if (responseCode < HttpURLConnection.HTTP_OK
+                    || responseCode >= HttpURLConnection.HTTP_MULT_CHOICE) {
                 Log.warning(
                         CampaignPushConstants.LOG_TAG,
                         SELF_TAG,
-                        "Failed to download push notification image from url (%s). Exception: %s",
+                        "Failed to download push notification image from url (%s). Response"
+                                + " code: %d",
                         url,
-                        e.getMessage());
-                return null;
-            } finally {
-                if (inputStream != null) {
-                    try {
-                        inputStream.close();
-                    } catch (final IOException e) {
-                        Log.warning(
-                                CampaignPushConstants.LOG_TAG,
-                                SELF_TAG,
-                                "IOException during closing Input stream while push notification"
-                                        + " image from url (%s). Exception: %s ",
-                                url,
-                                e.getMessage());
-                    }
-                }
+                        responseCode);
+                return new ImageResponse(responseCode, null, null, null);
+            }
+
+            final long contentLength = connection.getContentLength();
+            if (contentLength > maxSizeInBytes) {
+                logImageTooLarge(url, contentLength, maxSizeInBytes);
+                return new ImageResponse(ImageFailureCache.TOO_LARGE, null, null, null);
+            }
 
-                if (connection != null) {
-                    connection.disconnect();
+            inputStream = connection.getInputStream();
+            final byte[] imageData =
+                    contentLength >= 0
+                            ? readImageData(inputStream, (int) contentLength)
+                            : readImageData(inputStream, maxSizeInBytes);
+            if (imageData == null) {
+                logImageTooLarge(url, contentLength, maxSizeInBytes);
+                return new ImageResponse(ImageFailureCache.TOO_LARGE, null, null, null);
+            }
+            return new ImageResponse(responseCode, imageData, entityTag, lastModified);
+        } catch (final IOException e) {
+            // downloads cancelled by the caller or disconnected by the watchdog are not failures
+            // of the image host
+            final int errorCode;
+            if (Thread.currentThread().isInterrupted()
+                    || (activeDownload != null && activeDownload.isAborted())) {
+                errorCode = ImageFailureCache.CANCELLED;
+            } else {
+                errorCode =
+                        connected
+                                ? ImageFailureCache.TRANSFER_ERROR
+                                : ImageFailureCache.NETWORK_ERROR;
+            }
+            Log.warning(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to download push notification image from url (%s). Error code: %d,"
+                            + " exception: %s",
+                    url,
+                    errorCode,
+                    e.getMessage());
+            return new ImageResponse(errorCode, null, null, null);
+        } finally {
+            ImageDownloadWatchdog.unregister(activeDownload);
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (final IOException e) {
+                    Log.warning(
+                            CampaignPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "IOException during closing Input stream while push notification"
+                                    + " image from url (%s). Exception: %s ",
+                            url,
+                            e.getMessage());
                 }
             }
 
-            Log.trace(
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    /**
+     * Reads an image whose size is known into a buffer of that size.
+     *
+     * @param inputStream the {@link InputStream} of the image response
+     * @param contentLength {@code int} containing the size of the image
+     * @return {@code byte[]} containing the image
+     * @throws IOException if the image could not be read or is shorter than its content length
+     */
+    private static byte[] readImageData(final InputStream inputStream, final int contentLength)
+            throws IOException {
+        final byte[] imageData = new byte[contentLength];
+        int offset = 0;
+        while (offset < contentLength) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("The image download was cancelled.");
+            }
+            final int bytesRead =
+                    inputStream.read(
+                            imageData,
+                            offset,
+                            Math.min(DOWNLOAD_BUFFER_SIZE, contentLength - offset));
+            if (bytesRead == -1) {
+                throw new EOFException("The image response ended before its content length.");
+            }
+            offset += bytesRead;
+        }
+        return imageData;
+    }
+
+    /**
+     * Reads an image whose size is unknown, up to a maximum size.
+     *
+     * @param inputStream the {@link InputStream} of the image response
+     * @param maxSizeInBytes {@code long} containing the maximum size of the image
+     * @return {@code byte[]} containing the image or null if it exceeds the maximum size
+     * @throws IOException if the image could not be read
+     */
+    private static byte[] readImageData(final InputStream inputStream, final long maxSizeInBytes)
+            throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(DOWNLOAD_BUFFER_SIZE);
+        final byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+        long size = 0;
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("The image download was cancelled.");
+            }
+            size += bytesRead;
+            if (size > maxSizeInBytes) {
+                return null;
+            }
+            outputStream.write(buffer, 0, bytesRead);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static void logImageTooLarge(
+            final String url, final long contentLength, final long maxSizeInBytes) {
+        Log.warning(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Push notification image from url (%s) exceeds the %d byte download limit"
+                        + " (content length: %d), it will not be downloaded.",
+                url,
+                maxSizeInBytes,
+                contentLength);
+    }
+
+    /**
+     * Decodes an encoded image into a {@code Bitmap} which is at least as large as the requested
+     * size. The image bounds are read first and used to pick a power of two {@code inSampleSize}
+     * so that the full resolution image is never allocated.
+     *
+     * @param imageData {@code byte[]} containing the encoded image
+     * @param requestedWidth {@code int} containing the width the image will be displayed at
+     * @param requestedHeight {@code int} containing the height the image will be displayed at
+     * @return the decoded {@link Bitmap} or null if the image could not be decoded
+     */
+    static Bitmap decodeSampledBitmap(
+            final byte[] imageData, final int requestedWidth, final int requestedHeight) {
+        if (imageData == null || imageData.length == 0) {
+            return null;
+        }
+
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            Log.warning(
                     CampaignPushConstants.LOG_TAG,
                     SELF_TAG,
-                    "Downloaded push notification image from url (%s)",
-                    url);
-            return bitmap;
+                    "Unable to read the bounds of the downloaded push notification image.");
+            return null;
+        }
+
+        options.inSampleSize =
+                calculateInSampleSize(
+                        options.outWidth, options.outHeight, requestedWidth, requestedHeight);
+        options.inPreferredConfig = PushImageSizePolicy.getPreferredConfig(options.outMimeType);
+        options.inJustDecodeBounds = false;
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Decoding %dx%d %s image with a sample size of %d as %s.",
+                options.outWidth,
+                options.outHeight,
+                options.outMimeType,
+                options.inSampleSize,
+                options.inPreferredConfig);
+        return BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+    }
+
+    /**
+     * Calculates the largest power of two sample size which keeps both dimensions of the decoded
+     * image at or above the requested size.
+     *
+     * @param width {@code int} containing the width of the encoded image
+     * @param height {@code int} containing the height of the encoded image
+     * @param requestedWidth {@code int} containing the requested width
+     * @param requestedHeight {@code int} containing the requested height
+     * @return {@code int} containing the sample size to use when decoding
+     */
+    static int calculateInSampleSize(
+            final int width,
+            final int height,
+            final int requestedWidth,
+            final int requestedHeight) {
+        int inSampleSize = 1;
+        if (requestedWidth <= 0 || requestedHeight <= 0) {
+            return inSampleSize;
         }
+
+        while ((width / (inSampleSize * 2)) >= requestedWidth
+                && (height / (inSampleSize * 2)) >= requestedHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
     }
 
-    static Bitmap download(final String url) {
+    /**
+     * Requests an image, retrying transient failures such as network errors or server errors up
+     * to {@link CampaignPushConstants.DefaultValues#IMAGE_DOWNLOAD_MAX_RETRIES} times. Retries are
+     * delayed with an exponential backoff and random jitter so that many devices receiving the
+     * same push don't retry in lockstep. Retrying stops if the calling thread is interrupted.
+     *
+     * @param url {@code String} containing the image url
+     * @param cachedMetadata {@code Map<String, String>} containing the metadata of a previously
+     *     cached copy of the image, or null
+     * @param maxSizeInBytes {@code long} containing the maximum size of the encoded image
+     * @return {@link ImageResponse} containing the result of the last attempt or null if no
+     *     response was received
+     */
+    private static ImageResponse requestImageWithRetry(
+            final String url, final Map<String, String> cachedMetadata, final long maxSizeInBytes) {
+        ImageResponse response = requestImage(url, cachedMetadata, maxSizeInBytes);
+        for (int retry = 0;
+                retry < CampaignPushConstants.DefaultValues.IMAGE_DOWNLOAD_MAX_RETRIES;
+                retry++) {
+            final int responseCode = getResponseCode(response);
+            if (!ImageFailureCache.isTransient(responseCode)
+                    || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            final long maxDelay =
+                    CampaignPushConstants.DefaultValues
+                                    .IMAGE_DOWNLOAD_RETRY_BASE_DELAY_IN_MILLISECONDS
+                            << retry;
+            final long delay = maxDelay / 2 + (long) (Math.random() * (maxDelay / 2));
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Retrying download of image %s in %d milliseconds (response code %d).",
+                    url,
+                    delay,
+                    responseCode);
+            try {
+                Thread.sleep(delay);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            response = requestImage(url, cachedMetadata, maxSizeInBytes);
+        }
+        return response;
+    }
+
+    private static int getResponseCode(final ImageResponse response) {
+        // no response means the download task was cancelled or timed out waiting for a thread
+        return response == null ? ImageFailureCache.CANCELLED : response.responseCode;
+    }
+
+    private static ImageResponse requestImageWithTimeout(
+            final String url, final Map<String, String> cachedMetadata) {
+        ImageResponse response = null;
+        final Future<ImageResponse> downloadTask =
+                getExecutor()
+                        .submit(
+                                () ->
+                                        requestImageWithRetry(
+                                                url,
+                                                cachedMetadata,
+                                                CampaignPushConstants.DefaultValues
+                                                        .IMAGE_DOWNLOAD_MAX_SIZE_IN_BYTES));
+
+        try {
+            response = downloadTask.get(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
+        } catch (final Exception e) {
+            downloadTask.cancel(true);
+        }
+
+        return response;
+    }
+
+    /**
+     * Downloads an image without caching it, and decodes it for the slot it will be displayed in.
+     *
+     * @param url {@code String} containing the image url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return the decoded {@link Bitmap} or null if the image could not be downloaded in time
+     */
+    static Bitmap download(final String url, final PushImageSizePolicy.Slot slot) {
         Bitmap bitmap = null;
         final ExecutorService executorService = getExecutor();
-        final Future<Bitmap> downloadTask = executorService.submit(new DownloadImageCallable(url));
+        final Future<Bitmap> downloadTask =
+                executorService.submit(new DownloadImageCallable(url, slot));
 
         try {
             bitmap = downloadTask.get(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
@@ -136,9 +524,14 @@ class CampaignPushUtils {
     }
 
     static int getDefaultAppIcon(@NonNull final Context context) {
+        if (PushResourceCache.hasDefaultAppIcon()) {
+            return PushResourceCache.getDefaultAppIcon();
+        }
+
         final String packageName = context.getPackageName();
+        int defaultAppIcon = -1;
         try {
-            return context.getPackageManager().getApplicationInfo(packageName, 0).icon;
+            defaultAppIcon = context.getPackageManager().getApplicationInfo(packageName, 0).icon;
         } catch (PackageManager.NameNotFoundException e) {
             Log.warning(
                     CampaignPushConstants.LOG_TAG,
@@ -147,7 +540,8 @@ class CampaignPushUtils {
                             + " Exception: %s",
                     e.getMessage());
         }
-        return -1;
+        PushResourceCache.putDefaultAppIcon(defaultAppIcon);
+        return defaultAppIcon;
     }
 
     /**
@@ -160,12 +554,20 @@ class CampaignPushUtils {
      */
     static Uri getSoundUriForResourceName(
             final @NonNull String soundName, @NonNull final Context context) {
-        return Uri.parse(
-                ContentResolver.SCHEME_ANDROID_RESOURCE
-                        + "://"
-                        + context.getPackageName()
-                        + "/raw/"
-                        + soundName);
+        final Uri cachedSoundUri = PushResourceCache.getSoundUri(soundName);
+        if (cachedSoundUri != null) {
+            return cachedSoundUri;
+        }
+
+        final Uri soundUri =
+                Uri.parse(
+                        ContentResolver.SCHEME_ANDROID_RESOURCE
+                                + "://"
+                                + context.getPackageName()
+                                + "/raw/"
+                                + soundName);
+        PushResourceCache.putSoundUri(soundName, soundUri);
+        return soundUri;
     }
 
     /**
@@ -181,47 +583,204 @@ class CampaignPushUtils {
         if (StringUtils.isNullOrEmpty(iconName)) {
             return 0;
         }
-        return context.getResources().getIdentifier(iconName, "drawable", context.getPackageName());
+
+        // icon names which were not found are cached as 0
+        final Integer cachedIconId = PushResourceCache.getIconId(iconName);
+        if (cachedIconId != null) {
+            return cachedIconId;
+        }
+
+        final int iconId =
+                context.getResources()
+                        .getIdentifier(iconName, "drawable", context.getPackageName());
+        PushResourceCache.putIconId(iconName, iconId);
+        return iconId;
     }
 
     /**
-     * Converts a {@code Bitmap} into an {@code InputStream} to be used in caching images.
+     * Encodes a {@code Bitmap} to be used in caching images.
      *
-     * @param bitmap {@link Bitmap} to be converted into an {@link InputStream}
-     * @return an {@code InputStream} created from the provided bitmap
+     * @param bitmap {@link Bitmap} to be encoded
+     * @param format {@link Bitmap.CompressFormat} to encode the bitmap with
+     * @param quality {@code int} containing the quality hint passed to the encoder
+     * @return {@code byte[]} containing the encoded bitmap
      */
-    static InputStream bitmapToInputStream(final Bitmap bitmap) {
+    static byte[] bitmapToByteArray(
+            final Bitmap bitmap, final Bitmap.CompressFormat format, final int quality) {
         final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, FULL_BITMAP_QUALITY, byteArrayOutputStream);
-        final byte[] bitmapData = byteArrayOutputStream.toByteArray();
-        return new ByteArrayInputStream(bitmapData);
+        bitmap.compress(format, quality, byteArrayOutputStream);
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    /**
+     * Writes an encoded image to the Campaign Classic extension's asset cache location through the
+     * {@link PushImageCacheManager}, which keeps the cache within its byte budget.
+     *
+     * @param cacheService {@link CacheService} the AEPSDK cache service
+     * @param imageData {@code byte[]} containing an encoded image
+     * @param key {@code String} containing the cache key
+     * @param expiryInMillis {@code long} containing how long the image should be cached
+     * @param metadata {@code Map<String, String>} containing the cache entry metadata, or null
+     */
+    static void cacheImageBytes(
+            final CacheService cacheService,
+            final byte[] imageData,
+            final String key,
+            final long expiryInMillis,
+            final Map<String, String> metadata) {
+        Log.trace(CampaignPushConstants.LOG_TAG, SELF_TAG, "Caching image for %s.", key);
+        PushImageCacheManager.getInstance()
+                .set(cacheService, key, imageData, expiryInMillis, metadata);
     }
 
     /**
-     * Writes a {@code InputStream} to the Campaign Classic extension's asset cache location.
+     * Writes the encoded image, exactly as it was downloaded, to the Campaign Classic extension's
+     * asset cache location. The downloaded buffer is handed to the {@code CacheService} without
+     * being copied or re-encoded. If {@link
+     * CampaignPushConstants.DefaultValues#CACHE_SCALED_IMAGE_VARIANT} is enabled, a lossy WebP copy
+     * of the scaled image is cached as well.
      *
      * @param cacheService {@link CacheService} the AEPSDK cache service
-     * @param bitmapInputStream {@link InputStream} created from a download {@link Bitmap}
+     * @param imageData {@code byte[]} containing the downloaded encoded image
+     * @param scaledImage {@link Bitmap} containing the decoded and scaled image
      * @param imageUri {@code String} containing the image uri to be used a cache key
+     * @param slot the {@link PushImageSizePolicy.Slot} the scaled image was created for
+     * @param entityTag {@code String} containing the {@code ETag} returned with the image
+     * @param lastModified {@code String} containing the {@code Last-Modified} date returned with
+     *     the image
      */
-    static void cacheBitmapInputStream(
+    private static void cacheImage(
             final CacheService cacheService,
-            final InputStream bitmapInputStream,
-            final String imageUri) {
-        Log.trace(
-                CampaignPushConstants.LOG_TAG,
-                SELF_TAG,
-                "Caching image downloaded from %s.",
-                imageUri);
-        // cache push notification images for 3 days
-        final CacheEntry cacheEntry =
-                new CacheEntry(
-                        bitmapInputStream,
-                        CacheExpiry.after(
-                                CampaignPushConstants.DefaultValues
-                                        .PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS),
-                        null);
-        cacheService.set(CampaignPushUtils.getAssetCacheLocation(), imageUri, cacheEntry);
+            final byte[] imageData,
+            final Bitmap scaledImage,
+            final String imageUri,
+            final PushImageSizePolicy.Slot slot,
+            final String entityTag,
+            final String lastModified) {
+        if (cacheService == null) {
+            return;
+        }
+
+        cacheImageData(cacheService, imageData, imageUri, entityTag, lastModified);
+
+        if (!CampaignPushConstants.DefaultValues.CACHE_SCALED_IMAGE_VARIANT) {
+            return;
+        }
+
+        cacheImageBytes(
+                cacheService,
+                bitmapToByteArray(
+                        scaledImage,
+                        getLossyCompressFormat(),
+                        CampaignPushConstants.DefaultValues.SCALED_IMAGE_VARIANT_QUALITY),
+                getScaledVariantKey(imageUri, slot),
+                CampaignPushConstants.DefaultValues
+                        .PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS,
+                null);
+    }
+
+    /**
+     * Writes the encoded image to the Campaign Classic extension's asset cache location together
+     * with its http validators. Images with validators are kept in the cache for up to {@link
+     * CampaignPushConstants.DefaultValues#PUSH_NOTIFICATION_IMAGE_CACHE_MAX_AGE_IN_MILLISECONDS}
+     * and are considered fresh for {@link
+     * CampaignPushConstants.DefaultValues#PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS},
+     * after which they are revalidated before use.
+     *
+     * @param cacheService {@link CacheService} the AEPSDK cache service
+     * @param imageData {@code byte[]} containing the encoded image
+     * @param imageUri {@code String} containing the image uri to be used a cache key
+     * @param entityTag {@code String} containing the {@code ETag} returned with the image
+     * @param lastModified {@code String} containing the {@code Last-Modified} date returned with
+     *     the image
+     */
+    private static void cacheImageData(
+            final CacheService cacheService,
+            final byte[] imageData,
+            final String imageUri,
+            final String entityTag,
+            final String lastModified) {
+        final boolean hasValidators =
+                !StringUtils.isNullOrEmpty(entityTag) || !StringUtils.isNullOrEmpty(lastModified);
+        if (!hasValidators) {
+            // images without validators can't be revalidated so they expire once they are stale
+            cacheImageBytes(
+                    cacheService,
+                    imageData,
+                    imageUri,
+                    CampaignPushConstants.DefaultValues
+                            .PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS,
+                    null);
+            return;
+        }
+
+        final Map<String, String> metadata = new HashMap<>();
+        if (!StringUtils.isNullOrEmpty(entityTag)) {
+            metadata.put(CampaignPushConstants.ImageCacheMetadataKeys.ENTITY_TAG, entityTag);
+        }
+        if (!StringUtils.isNullOrEmpty(lastModified)) {
+            metadata.put(CampaignPushConstants.ImageCacheMetadataKeys.LAST_MODIFIED, lastModified);
+        }
+        metadata.put(
+                CampaignPushConstants.ImageCacheMetadataKeys.FRESH_UNTIL,
+                String.valueOf(
+                        System.currentTimeMillis()
+                                + CampaignPushConstants.DefaultValues
+                                        .PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS));
+
+        cacheImageBytes(
+                cacheService,
+                imageData,
+                imageUri,
+                CampaignPushConstants.DefaultValues
+                        .PUSH_NOTIFICATION_IMAGE_CACHE_MAX_AGE_IN_MILLISECONDS,
+                metadata);
+    }
+
+    /**
+     * Determines if a cached image can be used without being revalidated. Images cached without a
+     * freshness timestamp are always fresh as their cache entry expires when they become stale.
+     *
+     * @param cacheResult {@link CacheResult} containing a cached image
+     * @return true if the cached image is still fresh
+     */
+    private static boolean isFresh(final CacheResult cacheResult) {
+        final Map<String, String> metadata = cacheResult.getMetadata();
+        final String freshUntil =
+                metadata == null
+                        ? null
+                        : metadata.get(CampaignPushConstants.ImageCacheMetadataKeys.FRESH_UNTIL);
+        if (StringUtils.isNullOrEmpty(freshUntil)) {
+            return true;
+        }
+
+        try {
+            return System.currentTimeMillis() < Long.parseLong(freshUntil);
+        } catch (final NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Bitmap.CompressFormat getLossyCompressFormat() {
+        return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                ? Bitmap.CompressFormat.WEBP_LOSSY
+                : Bitmap.CompressFormat.WEBP;
+    }
+
+    private static String getScaledVariantKey(
+            final String imageUri, final PushImageSizePolicy.Slot slot) {
+        return imageUri + SCALED_VARIANT_KEY_SUFFIX + slot.name().toLowerCase(Locale.ROOT);
+    }
+
+    private static byte[] readFully(final InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[DOWNLOAD_BUFFER_SIZE];
+        int bytesRead;
+        while ((bytesRead = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, bytesRead);
+        }
+        return outputStream.toByteArray();
     }
 
     /**
@@ -247,75 +806,658 @@ class CampaignPushUtils {
     /**
      * Downloads an image using the provided uri {@code String}. Prior to downloading, the image uri
      * is used to retrieve a {@code CacheResult} containing a previously cached image. If no cache
-     * result is returned, a call to {@link CampaignPushUtils#download(String)} is made to download
-     * then cache the image.
+     * result is returned, the image is downloaded on the download executor and the encoded image is
+     * cached as it was downloaded.
      *
      * <p>If a valid cache result is returned then no image is downloaded. Instead, a {@code Bitmap}
-     * is created from the cache result and returned by this method.
+     * is created from the cache result and returned by this method. A cached image which is no
+     * longer fresh is revalidated with a conditional request, if the image has not been modified
+     * the cached image is used and its freshness is extended.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for caching or retrieving
+     *     downloaded image assets
+     * @param uri {@code String} containing an image asset url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return {@link Bitmap} containing the image referenced by the {@code String} uri
+     */
+    static Bitmap downloadImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot) {
+        return getImage(cacheService, uri, slot, true);
+    }
+
+    /**
+     * Retrieves an image using the provided uri {@code String}. This method behaves like {@link
+     * CampaignPushUtils#downloadImage(CacheService, String, PushImageSizePolicy.Slot)} except that
+     * a cache miss is downloaded on the calling thread. It is intended to be called from worker
+     * threads which already enforce their own deadline, such as the {@link CarouselImageFetcher}
+     * download pool.
      *
      * @param cacheService the AEPSDK {@link CacheService} to use for caching or retrieving
      *     downloaded image assets
      * @param uri {@code String} containing an image asset url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
      * @return {@link Bitmap} containing the image referenced by the {@code String} uri
      */
-    static Bitmap downloadImage(final CacheService cacheService, final String uri) {
+    static Bitmap fetchImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot) {
+        return getImage(cacheService, uri, slot, false);
+    }
+
+    /**
+     * Retrieves a previously downloaded image without making any network request. The in-memory
+     * {@link PushImageMemoryCache} is checked first, if the image is not present there it is read
+     * from the push image cache location and decoded, then added to the in-memory cache.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for retrieving cached image assets
+     * @param uri {@code String} containing an image asset url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return {@link Bitmap} containing the cached image or null if the image is not cached
+     */
+    static Bitmap getCachedImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot) {
         if (StringUtils.isNullOrEmpty(uri)) {
             return null;
         }
-        final String cacheLocation = CampaignPushUtils.getAssetCacheLocation();
-        final CacheResult cacheResult = cacheService.get(cacheLocation, uri);
 
-        if (cacheResult != null) {
-            Log.trace(CampaignPushConstants.LOG_TAG, SELF_TAG, "Found cached image for %s.", uri);
-            return BitmapFactory.decodeStream(cacheResult.getData());
+        final Bitmap memoryCachedImage = getMemoryCachedImage(uri, slot);
+        if (memoryCachedImage != null) {
+            return memoryCachedImage;
+        }
+
+        if (cacheService == null) {
+            return null;
+        }
+
+        final CacheResult cacheResult = PushImageCacheManager.getInstance().get(cacheService, uri);
+        if (cacheResult == null) {
+            return null;
+        }
+
+        return decodeCachedImage(cacheService, uri, slot, cacheResult);
+    }
+
+    /**
+     * Determines if an image is cached for the given slot without decoding it and without making
+     * any network request.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for retrieving cached image assets
+     * @param uri {@code String} containing an image asset url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return true if the image or its scaled copy for the slot is cached
+     */
+    static boolean isImageCached(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot) {
+        if (StringUtils.isNullOrEmpty(uri)) {
+            return false;
+        }
+
+        if (PushImageMemoryCache.getInstance().get(uri, slot) != null) {
+            return true;
+        }
+
+        if (cacheService == null) {
+            return false;
+        }
+
+        final PushImageCacheManager cacheManager = PushImageCacheManager.getInstance();
+        return isCached(cacheManager.get(cacheService, getScaledVariantKey(uri, slot)))
+                || isCached(cacheManager.get(cacheService, uri));
+    }
+
+    private static boolean isCached(final CacheResult cacheResult) {
+        if (cacheResult == null) {
+            return false;
+        }
+
+        // the cache result holds an open stream on the cached file which is not read
+        final InputStream cachedImageStream = cacheResult.getData();
+        if (cachedImageStream != null) {
+            try {
+                cachedImageStream.close();
+            } catch (final IOException exception) {
+                Log.trace(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Exception occurred closing a cached image: %s.",
+                        exception.getLocalizedMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the encoded scaled copy of a cached image for the given slot. If the scaled copy is
+     * not cached yet, it is created from the cached image and added to the push image cache. No
+     * network request is made.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for retrieving cached image assets
+     * @param uri {@code String} containing an image asset url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return {@code byte[]} containing the encoded scaled image or null if the image is not cached
+     */
+    static byte[] getScaledImageData(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot) {
+        if (cacheService == null || StringUtils.isNullOrEmpty(uri)) {
+            return null;
+        }
+
+        final String scaledVariantKey = getScaledVariantKey(uri, slot);
+        final CacheResult scaledVariant =
+                PushImageCacheManager.getInstance().get(cacheService, scaledVariantKey);
+        if (scaledVariant != null) {
+            try (final InputStream scaledVariantStream = scaledVariant.getData()) {
+                return readFully(scaledVariantStream);
+            } catch (final IOException exception) {
+                Log.trace(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Exception occurred reading the scaled image for %s: %s.",
+                        uri,
+                        exception.getLocalizedMessage());
+            }
+        }
+
+        final Bitmap cachedImage = getCachedImage(cacheService, uri, slot);
+        if (cachedImage == null) {
+            return null;
+        }
+
+        final byte[] scaledImageData =
+                bitmapToByteArray(
+                        cachedImage,
+                        getLossyCompressFormat(),
+                        CampaignPushConstants.DefaultValues.SCALED_IMAGE_VARIANT_QUALITY);
+        cacheImageBytes(
+                cacheService,
+                scaledImageData,
+                scaledVariantKey,
+                CampaignPushConstants.DefaultValues
+                        .PUSH_NOTIFICATION_IMAGE_CACHE_EXPIRY_IN_MILLISECONDS,
+                null);
+        return scaledImageData;
+    }
+
+    private static Bitmap getMemoryCachedImage(
+            final String uri, final PushImageSizePolicy.Slot slot) {
+        final PushImageMemoryCache memoryCache = PushImageMemoryCache.getInstance();
+        final Bitmap memoryCachedImage = memoryCache.get(uri, slot);
+        if (memoryCachedImage != null) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Found decoded image for %s in memory (hits: %d, misses: %d).",
+                    uri,
+                    memoryCache.getHitCount(),
+                    memoryCache.getMissCount());
+        }
+        return memoryCachedImage;
+    }
+
+    private static void putMemoryCachedImage(
+            final String uri, final PushImageSizePolicy.Slot slot, final Bitmap image) {
+        PushImageMemoryCache.getInstance().put(uri, slot, image);
+    }
+
+    private static Bitmap decodeCachedImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot,
+            final CacheResult cacheResult) {
+        Bitmap cachedImage = null;
+        if (CampaignPushConstants.DefaultValues.CACHE_SCALED_IMAGE_VARIANT) {
+            // the scaled variant is already at the final size and only needs to be decoded
+            final CacheResult scaledVariant =
+                    PushImageCacheManager.getInstance()
+                            .get(cacheService, getScaledVariantKey(uri, slot));
+            if (scaledVariant != null) {
+                try (final InputStream scaledVariantStream = scaledVariant.getData()) {
+                    cachedImage = BitmapFactory.decodeStream(scaledVariantStream);
+                } catch (final IOException exception) {
+                    Log.trace(
+                            CampaignPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Exception occurred reading the cached scaled image for %s: %s.",
+                            uri,
+                            exception.getLocalizedMessage());
+                }
+            }
+        }
+
+        if (cachedImage == null) {
+            try (final InputStream cachedImageStream = cacheResult.getData()) {
+                cachedImage = decodePushImage(readFully(cachedImageStream), slot);
+            } catch (final IOException exception) {
+                Log.trace(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Exception occurred reading the cached image for %s: %s.",
+                        uri,
+                        exception.getLocalizedMessage());
+                return null;
+            }
+        }
+
+        if (cachedImage == null) {
+            return null;
+        }
+
+        Log.trace(CampaignPushConstants.LOG_TAG, SELF_TAG, "Found cached image for %s.", uri);
+        putMemoryCachedImage(uri, slot, cachedImage);
+        return cachedImage;
+    }
+
+    private static Bitmap getImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot,
+            final boolean useDownloadExecutor) {
+        if (StringUtils.isNullOrEmpty(uri)) {
+            return null;
+        }
+
+        final Bitmap memoryCachedImage = getMemoryCachedImage(uri, slot);
+        if (memoryCachedImage != null) {
+            return memoryCachedImage;
+        }
+
+        // concurrent requests for the same image and slot share a single cache lookup, download
+        // and decode
+        final String inFlightKey = normalizeUrl(uri) + IN_FLIGHT_KEY_SEPARATOR + slot.name();
+        final FutureTask<Bitmap> loadTask =
+                new FutureTask<>(() -> loadImage(cacheService, uri, slot, useDownloadExecutor));
+        final FutureTask<Bitmap> inFlightTask = inFlightImages.putIfAbsent(inFlightKey, loadTask);
+        if (inFlightTask != null) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Waiting for the in-flight request of image %s.",
+                    uri);
+            return awaitInFlightImage(inFlightTask, uri);
+        }
+
+        try {
+            loadTask.run();
+            return loadTask.get();
+        } catch (final ExecutionException exception) {
+            Log.warning(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to load image %s: %s",
+                    uri,
+                    exception.getLocalizedMessage());
+            return null;
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            inFlightImages.remove(inFlightKey, loadTask);
+        }
+    }
+
+    private static Bitmap awaitInFlightImage(
+            final FutureTask<Bitmap> inFlightTask, final String uri) {
+        try {
+            return inFlightTask.get(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (final ExecutionException | TimeoutException | CancellationException exception) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "The in-flight request of image %s did not complete: %s",
+                    uri,
+                    exception.getLocalizedMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Normalizes an image url so that requests for the same image are coalesced even when the
+     * urls differ in the case of the scheme or host, a default port or a fragment.
+     *
+     * @param url {@code String} containing an image url
+     * @return {@code String} containing the normalized url, or the provided url if it can't be
+     *     parsed
+     */
+    static String normalizeUrl(final String url) {
+        try {
+            final URI parsedUri = new URI(url.trim()).normalize();
+            final String scheme = parsedUri.getScheme();
+            final String host = parsedUri.getHost();
+            if (scheme == null || host == null) {
+                return url;
+            }
+
+            final String lowerCaseScheme = scheme.toLowerCase(Locale.ROOT);
+            final int port = parsedUri.getPort();
+            final boolean isDefaultPort =
+                    port == -1
+                            || ("http".equals(lowerCaseScheme) && port == 80)
+                            || ("https".equals(lowerCaseScheme) && port == 443);
+            return new URI(
+                            lowerCaseScheme,
+                            parsedUri.getUserInfo(),
+                            host.toLowerCase(Locale.ROOT),
+                            isDefaultPort ? -1 : port,
+                            parsedUri.getPath(),
+                            parsedUri.getQuery(),
+                            null)
+                    .toString();
+        } catch (final URISyntaxException exception) {
+            return url;
+        }
+    }
+
+    private static Bitmap loadImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot,
+            final boolean useDownloadExecutor) {
+        // the image may have been loaded by a request which completed since the first lookup
+        final Bitmap memoryCachedImage = getMemoryCachedImage(uri, slot);
+        if (memoryCachedImage != null) {
+            return memoryCachedImage;
+        }
+
+        final CacheResult cacheResult =
+                cacheService == null
+                        ? null
+                        : PushImageCacheManager.getInstance().get(cacheService, uri);
+        if (cacheResult != null && (isFresh(cacheResult) || !UrlUtils.isValidUrl(uri))) {
+            return decodeCachedImage(cacheService, uri, slot, cacheResult);
         }
 
         if (!UrlUtils.isValidUrl(uri)) {
             return null;
         }
 
-        final Bitmap image = CampaignPushUtils.download(uri);
+        if (ImageFailureCache.isUnavailable(uri)) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Image %s recently failed to download, skipping download.",
+                    uri);
+            return cacheResult == null
+                    ? null
+                    : decodeCachedImage(cacheService, uri, slot, cacheResult);
+        }
 
-        if (image == null) return null;
+        // a stale cached image is revalidated using the validators stored in its metadata
+        final Map<String, String> cachedMetadata =
+                cacheResult == null ? null : cacheResult.getMetadata();
+        final ImageResponse response =
+                useDownloadExecutor
+                        ? requestImageWithTimeout(uri, cachedMetadata)
+                        : requestImageWithRetry(
+                                uri,
+                                cachedMetadata,
+                                CampaignPushConstants.DefaultValues
+                                        .IMAGE_DOWNLOAD_MAX_SIZE_IN_BYTES);
+
+        if (response == null || !response.isSuccessful()) {
+            ImageFailureCache.recordFailure(uri, getResponseCode(response));
+            // the image could not be downloaded, a stale image is better than no image
+            return cacheResult == null
+                    ? null
+                    : decodeCachedImage(cacheService, uri, slot, cacheResult);
+        }
+
+        ImageFailureCache.clearFailure(uri);
+
+        if (response.isNotModified() && cacheResult != null) {
+            return revalidateCachedImage(cacheService, uri, slot, cacheResult, response);
+        }
+
+        final byte[] imageData = response.imageData;
+        if (imageData == null) return null;
 
         Log.trace(
                 CampaignPushConstants.LOG_TAG,
                 SELF_TAG,
                 "Successfully download image from %s",
                 uri);
-        // scale down the bitmap to 300dp x 200dp as we don't want to use a full
-        // size image due to memory constraints
-        final Bitmap pushImage = scaleBitmap(image);
-        // write bitmap to cache
-        try (final InputStream bitmapInputStream =
-                CampaignPushUtils.bitmapToInputStream(pushImage)) {
-            CampaignPushUtils.cacheBitmapInputStream(cacheService, bitmapInputStream, uri);
+        final Bitmap pushImage = decodePushImage(imageData, slot);
+        if (pushImage == null) return null;
+
+        putMemoryCachedImage(uri, slot, pushImage);
+        // write the encoded image to cache as it was downloaded, re-encoding it costs cpu on the
+        // notification critical path and usually produces a larger file than the original
+        cacheImage(
+                cacheService,
+                imageData,
+                pushImage,
+                uri,
+                slot,
+                response.entityTag,
+                response.lastModified);
+        return pushImage;
+    }
+
+    /**
+     * Extends the freshness of a cached image after the server confirmed it was not modified. The
+     * cached image is rewritten with updated metadata and decoded, no image data is transferred.
+     *
+     * @param cacheService {@link CacheService} the AEPSDK cache service
+     * @param uri {@code String} containing the image uri
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @param cacheResult {@link CacheResult} containing the stale cached image
+     * @param response {@link ImageResponse} containing the 304 response
+     * @return {@link Bitmap} containing the cached image or null if it could not be decoded
+     */
+    private static Bitmap revalidateCachedImage(
+            final CacheService cacheService,
+            final String uri,
+            final PushImageSizePolicy.Slot slot,
+            final CacheResult cacheResult,
+            final ImageResponse response) {
+        final byte[] imageData = refreshCachedImage(cacheService, uri, cacheResult, response);
+        if (imageData == null) {
+            return null;
+        }
+
+        final Bitmap pushImage = decodePushImage(imageData, slot);
+        if (pushImage != null) {
+            putMemoryCachedImage(uri, slot, pushImage);
+        }
+        return pushImage;
+    }
+
+    private static byte[] refreshCachedImage(
+            final CacheService cacheService,
+            final String uri,
+            final CacheResult cacheResult,
+            final ImageResponse response) {
+        final byte[] imageData;
+        try (final InputStream cachedImageStream = cacheResult.getData()) {
+            imageData = readFully(cachedImageStream);
         } catch (final IOException exception) {
             Log.trace(
                     CampaignPushConstants.LOG_TAG,
                     SELF_TAG,
-                    "Exception occurred creating an input stream from a" + " bitmap: %s.",
+                    "Exception occurred reading the cached image for %s: %s.",
+                    uri,
                     exception.getLocalizedMessage());
+            return null;
+        }
+
+        final Map<String, String> cachedMetadata = cacheResult.getMetadata();
+        // a 304 response may carry updated validators, otherwise the cached ones are kept
+        final String entityTag =
+                !StringUtils.isNullOrEmpty(response.entityTag)
+                        ? response.entityTag
+                        : cachedMetadata.get(
+                                CampaignPushConstants.ImageCacheMetadataKeys.ENTITY_TAG);
+        final String lastModified =
+                !StringUtils.isNullOrEmpty(response.lastModified)
+                        ? response.lastModified
+                        : cachedMetadata.get(
+                                CampaignPushConstants.ImageCacheMetadataKeys.LAST_MODIFIED);
+
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Cached image for %s was revalidated, extending its freshness.",
+                uri);
+        cacheImageData(cacheService, imageData, uri, entityTag, lastModified);
+        return imageData;
+    }
+
+    /**
+     * Downloads an image into the push image cache location without decoding it for display. The
+     * image is intended to be used by a notification which has not been received yet. Images
+     * which are already cached and fresh are not downloaded again, stale images are revalidated.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for caching downloaded image
+     *     assets
+     * @param uri {@code String} containing an image asset url
+     * @param maxSizeInBytes {@code long} containing the maximum size of the encoded image which can
+     *     be cached
+     * @return {@code long} containing the number of bytes written to the cache, 0 if the image was
+     *     already cached or -1 if the image could not be prefetched
+     */
+    static long prefetchImage(
+            final CacheService cacheService, final String uri, final long maxSizeInBytes) {
+        if (cacheService == null || !UrlUtils.isValidUrl(uri)) {
+            return -1;
+        }
+
+        final CacheResult cacheResult = PushImageCacheManager.getInstance().get(cacheService, uri);
+        if (cacheResult != null && isFresh(cacheResult)) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Image for %s is already cached, skipping prefetch.",
+                    uri);
+            return 0;
+        }
+
+        if (ImageFailureCache.isUnavailable(uri)) {
+            return -1;
+        }
+
+        // images exceeding the remaining budget are not read past the budget
+        final ImageResponse response =
+                requestImageWithRetry(
+                        uri,
+                        cacheResult == null ? null : cacheResult.getMetadata(),
+                        Math.min(
+                                maxSizeInBytes,
+                                CampaignPushConstants.DefaultValues
+                                        .IMAGE_DOWNLOAD_MAX_SIZE_IN_BYTES));
+        final int responseCode = getResponseCode(response);
+        if (responseCode == ImageFailureCache.TOO_LARGE) {
+            // the budget depends on the other prefetched images, the image itself did not fail
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Image for %s was not prefetched, it exceeds the remaining storage budget.",
+                    uri);
+            return -1;
+        }
+        if (response == null || !response.isSuccessful()) {
+            ImageFailureCache.recordFailure(uri, responseCode);
+            return -1;
+        }
+
+        ImageFailureCache.clearFailure(uri);
+
+        if (response.isNotModified() && cacheResult != null) {
+            return refreshCachedImage(cacheService, uri, cacheResult, response) == null ? -1 : 0;
+        }
+
+        final byte[] imageData = response.imageData;
+        if (imageData == null || imageData.length == 0) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Image for %s was not prefetched, it is empty.",
+                    uri);
+            return -1;
+        }
+
+        // only the bounds are decoded to verify the downloaded data is an image
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+        if (options.outWidth <= 0 || options.outHeight <= 0) {
+            return -1;
+        }
+
+        cacheImageData(cacheService, imageData, uri, response.entityTag, response.lastModified);
+        return imageData.length;
+    }
+
+    /**
+     * Decodes an encoded image and scales it to the target size of the slot it will be displayed
+     * in, see {@link PushImageSizePolicy}.
+     *
+     * @param imageData {@code byte[]} containing the encoded image
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return the decoded and scaled {@link Bitmap} or null if the image could not be decoded
+     */
+    private static Bitmap decodePushImage(
+            final byte[] imageData, final PushImageSizePolicy.Slot slot) {
+        // the image is decoded with a sample size close to the slot size then scaled to the
+        // final size
+        final Bitmap image =
+                decodeSampledBitmap(imageData, slot.getTargetWidth(), slot.getTargetHeight());
+        if (image == null) return null;
+
+        final Bitmap pushImage = scaleBitmap(image, slot);
+        if (pushImage != image) {
+            // the sampled bitmap is no longer needed once the final size has been created
+            image.recycle();
         }
         return pushImage;
     }
 
-    private static Bitmap scaleBitmap(final Bitmap downloadedBitmap) {
+    private static Bitmap scaleBitmap(
+            final Bitmap downloadedBitmap, final PushImageSizePolicy.Slot slot) {
+        final int width = downloadedBitmap.getWidth();
+        final int height = downloadedBitmap.getHeight();
+        final float widthScale = (float) slot.getTargetWidth() / width;
+        final float heightScale = (float) slot.getTargetHeight() / height;
+        // cropped images cover the slot, other images fit in it. images are never scaled up as
+        // the image view scales them when drawing
+        final float scale =
+                Math.min(
+                        1f,
+                        slot.isCrop()
+                                ? Math.max(widthScale, heightScale)
+                                : Math.min(widthScale, heightScale));
+
+        // only the part of a cropped image which is visible in the slot is kept
+        final int sourceWidth =
+                slot.isCrop()
+                        ? Math.min(width, Math.round(slot.getTargetWidth() / scale))
+                        : width;
+        final int sourceHeight =
+                slot.isCrop()
+                        ? Math.min(height, Math.round(slot.getTargetHeight() / scale))
+                        : height;
+        if (scale == 1f && sourceWidth == width && sourceHeight == height) {
+            return downloadedBitmap;
+        }
+
         final Matrix matrix = new Matrix();
-        matrix.setRectToRect(
-                new RectF(0, 0, downloadedBitmap.getWidth(), downloadedBitmap.getHeight()),
-                new RectF(
-                        0,
-                        0,
-                        CampaignPushConstants.DefaultValues.CAROUSEL_MAX_BITMAP_WIDTH,
-                        CampaignPushConstants.DefaultValues.CAROUSEL_MAX_BITMAP_HEIGHT),
-                Matrix.ScaleToFit.CENTER);
+        matrix.setScale(scale, scale);
+        // a scale only transform keeps the pixel format of the decoded bitmap
         return Bitmap.createBitmap(
                 downloadedBitmap,
-                0,
-                0,
-                downloadedBitmap.getWidth(),
-                downloadedBitmap.getHeight(),
+                (width - sourceWidth) / 2,
+                (height - sourceHeight) / 2,
+                sourceWidth,
+                sourceHeight,
                 matrix,
                 true);
     }
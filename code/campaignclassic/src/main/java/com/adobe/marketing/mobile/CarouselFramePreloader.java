@@ -0,0 +1,108 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.os.Process;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prepares the carousel frame which is likely to be displayed after the next navigation tap.
+ *
+ * <p>Navigating a manual or filmstrip carousel only resolves the frames which are displayed. To
+ * keep the next tap fast, the frame following the displayed ones in the direction of navigation is
+ * prepared on a background priority thread: its decoded image is loaded into the {@link
+ * PushImageMemoryCache}, or its scaled copy is created when images are served by the {@link
+ * PushImageContentProvider}. Only cached images are used, no network request is made.
+ */
+class CarouselFramePreloader {
+    private static final String SELF_TAG = "CarouselFramePreloader";
+    private static final String THREAD_NAME = "CampaignClassicCarouselPreload";
+
+    private static class ExecutorHolder {
+        static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(
+                        runnable ->
+                                new Thread(
+                                        () -> {
+                                            Process.setThreadPriority(
+                                                    Process.THREAD_PRIORITY_BACKGROUND);
+                                            runnable.run();
+                                        },
+                                        THREAD_NAME));
+    }
+
+    private CarouselFramePreloader() {}
+
+    /**
+     * Prepares the frame which follows the displayed frames in the direction of navigation.
+     *
+     * @param context the application {@link Context}
+     * @param imageUrls {@code List<String>} containing the carousel image urls
+     * @param action {@code String} containing the navigation intent action
+     * @param firstVisibleIndex {@code int} containing the index of the first displayed frame
+     * @param lastVisibleIndex {@code int} containing the index of the last displayed frame
+     * @param slot the {@link PushImageSizePolicy.Slot} the frames are displayed in
+     */
+    static void preloadNext(
+            final Context context,
+            final List<String> imageUrls,
+            final String action,
+            final int firstVisibleIndex,
+            final int lastVisibleIndex,
+            final PushImageSizePolicy.Slot slot) {
+        if (imageUrls == null || imageUrls.isEmpty() || StringUtils.isNullOrEmpty(action)) {
+            return;
+        }
+
+        final int size = imageUrls.size();
+        final int nextIndex;
+        if (action.equals(CampaignPushConstants.IntentActions.FILMSTRIP_LEFT_CLICKED)
+                || action.equals(
+                        CampaignPushConstants.IntentActions.MANUAL_CAROUSEL_LEFT_CLICKED)) {
+            nextIndex = (firstVisibleIndex - 1 + size) % size;
+        } else {
+            nextIndex = (lastVisibleIndex + 1) % size;
+        }
+
+        final String imageUrl = imageUrls.get(nextIndex);
+        final boolean useContentUris = PushImageContentProvider.isAvailable(context);
+        ExecutorHolder.INSTANCE.submit(() -> preload(imageUrl, slot, useContentUris));
+    }
+
+    private static void preload(
+            final String imageUrl,
+            final PushImageSizePolicy.Slot slot,
+            final boolean useContentUris) {
+        final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
+        if (cacheService == null) {
+            return;
+        }
+
+        final boolean preloaded =
+                useContentUris
+                        ? CampaignPushUtils.getScaledImageData(cacheService, imageUrl, slot)
+                                != null
+                        : CampaignPushUtils.getCachedImage(cacheService, imageUrl, slot) != null;
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Preloaded next carousel frame %s: %b.",
+                imageUrl,
+                preloaded);
+    }
+}
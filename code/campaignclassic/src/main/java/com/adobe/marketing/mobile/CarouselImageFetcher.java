@@ -0,0 +1,278 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retrieves the images for a list of carousel items in parallel.
+ *
+ * <p>Every image is loaded from the push image cache or downloaded on a bounded thread pool. All
+ * downloads for a notification share a single deadline, any image which is not available when the
+ * deadline is reached is reported as missing in the returned {@link Result}. Images which recently
+ * failed to download, as recorded by the {@link ImageFailureCache}, are not downloaded again.
+ */
+class CarouselImageFetcher {
+    private static final String SELF_TAG = "CarouselImageFetcher";
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 30;
+
+    private static class ExecutorHolder {
+        static final ExecutorService INSTANCE = createExecutor();
+
+        private static ExecutorService createExecutor() {
+            final ThreadPoolExecutor executor =
+                    new ThreadPoolExecutor(
+                            CampaignPushConstants.DefaultValues.CAROUSEL_MAX_PARALLEL_DOWNLOADS,
+                            CampaignPushConstants.DefaultValues.CAROUSEL_MAX_PARALLEL_DOWNLOADS,
+                            IDLE_THREAD_KEEP_ALIVE_SECONDS,
+                            TimeUnit.SECONDS,
+                            new LinkedBlockingQueue<Runnable>());
+            // release the download threads when no carousel notification is being built
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    private static ExecutorService getExecutor() {
+        return ExecutorHolder.INSTANCE;
+    }
+
+    /** Holds the images retrieved for a list of carousel items, in payload order. */
+    static class Result {
+        private final List<CarouselPushTemplate.CarouselItem> items;
+        private final List<Bitmap> images;
+
+        Result(
+                final List<CarouselPushTemplate.CarouselItem> items,
+                final List<Bitmap> images) {
+            this.items = items;
+            this.images = images;
+        }
+
+        @NonNull List<CarouselPushTemplate.CarouselItem> getItems() {
+            return items;
+        }
+
+        /**
+         * Returns the image retrieved for the carousel item at the given index.
+         *
+         * @param index {@code int} containing the index of the carousel item in the payload
+         * @return the {@link Bitmap} for the item or null if it was not retrieved before the
+         *     deadline
+         */
+        @Nullable Bitmap getImage(final int index) {
+            return images.get(index);
+        }
+
+        boolean isAvailable(final int index) {
+            return images.get(index) != null;
+        }
+
+        int getAvailableCount() {
+            int count = 0;
+            for (final Bitmap image : images) {
+                if (image != null) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+    /** Receives the carousel images as they become available. */
+    interface Listener {
+        /**
+         * Called on the fetching thread every time a carousel image becomes available.
+         *
+         * @param partialResult a {@link Result} containing the images retrieved so far
+         */
+        void onImageAvailable(@NonNull Result partialResult);
+    }
+
+    /**
+     * Retrieves the images for the items of a carousel template. If the images were already
+     * retrieved, see {@link CarouselPushTemplate#setPrefetchedImages(Result)}, they are returned
+     * without being retrieved again.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for caching or retrieving
+     *     downloaded image assets
+     * @param pushTemplate the {@link CarouselPushTemplate} to retrieve images for
+     * @param slot the {@link PushImageSizePolicy.Slot} the images will be displayed in
+     * @return a {@link Result} containing the retrieved images in payload order
+     */
+    @NonNull static Result fetch(
+            final CacheService cacheService,
+            @NonNull final CarouselPushTemplate pushTemplate,
+            final PushImageSizePolicy.Slot slot) {
+        final Result prefetchedImages = pushTemplate.getPrefetchedImages();
+        if (prefetchedImages != null) {
+            return prefetchedImages;
+        }
+        return fetch(cacheService, pushTemplate.getCarouselItems(), slot, false, null);
+    }
+
+    /**
+     * Retrieves the images for the provided carousel items. The downloads are started in parallel
+     * and this method blocks until all images are retrieved or until the carousel download
+     * deadline is reached, whichever comes first.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for caching or retrieving
+     *     downloaded image assets
+     * @param items {@link List} of {@link CarouselPushTemplate.CarouselItem}s to retrieve images
+     *     for
+     * @param slot the {@link PushImageSizePolicy.Slot} the images will be displayed in
+     * @param cachedImagesOnly {@code boolean} if true, only images which are already cached are
+     *     retrieved and no download is made
+     * @param listener an optional {@link Listener} notified every time an image becomes available
+     * @return a {@link Result} containing the retrieved images in payload order
+     */
+    @NonNull static Result fetch(
+            final CacheService cacheService,
+            final List<CarouselPushTemplate.CarouselItem> items,
+            final PushImageSizePolicy.Slot slot,
+            final boolean cachedImagesOnly,
+            @Nullable final Listener listener) {
+        if (items == null || items.isEmpty()) {
+            return new Result(
+                    Collections.<CarouselPushTemplate.CarouselItem>emptyList(),
+                    Collections.<Bitmap>emptyList());
+        }
+
+        final long fetchStartTime = System.currentTimeMillis();
+        int unavailableCount = 0;
+        for (final CarouselPushTemplate.CarouselItem item : items) {
+            if (ImageFailureCache.isUnavailable(item.getImageUri())) {
+                unavailableCount++;
+            }
+        }
+
+        // if too few images can still be downloaded the notification will fall back to a basic
+        // notification, so only images which are already cached are retrieved
+        final boolean useCacheOnly =
+                cachedImagesOnly
+                        || items.size() - unavailableCount
+                                < CampaignPushConstants.DefaultValues.CAROUSEL_MINIMUM_IMAGE_COUNT;
+        if (useCacheOnly && !cachedImagesOnly) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "%d of %d carousel image(s) recently failed to download, only cached images"
+                            + " will be retrieved.",
+                    unavailableCount,
+                    items.size());
+        }
+
+        final ExecutorCompletionService<Bitmap> completionService =
+                new ExecutorCompletionService<>(getExecutor());
+        final Map<Future<Bitmap>, Integer> futureIndices = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            final String imageUri = items.get(i).getImageUri();
+            final Future<Bitmap> future =
+                    completionService.submit(
+                            useCacheOnly
+                                    ? () ->
+                                            CampaignPushUtils.getCachedImage(
+                                                    cacheService, imageUri, slot)
+                                    : () ->
+                                            CampaignPushUtils.fetchImage(
+                                                    cacheService, imageUri, slot));
+            futureIndices.put(future, i);
+        }
+
+        final Bitmap[] images = new Bitmap[items.size()];
+        final long deadline =
+                fetchStartTime
+                        + CampaignPushConstants.DefaultValues
+                                .CAROUSEL_DOWNLOAD_DEADLINE_IN_MILLISECONDS;
+        try {
+            for (int completed = 0; completed < items.size(); completed++) {
+                final long remainingTime = deadline - System.currentTimeMillis();
+                final Future<Bitmap> future =
+                        remainingTime > 0
+                                ? completionService.poll(remainingTime, TimeUnit.MILLISECONDS)
+                                : null;
+                if (future == null) {
+                    Log.debug(
+                            CampaignPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Carousel image deadline reached before all images were retrieved.");
+                    break;
+                }
+
+                final Bitmap image = getCompletedImage(future);
+                if (image != null) {
+                    images[futureIndices.get(future)] = image;
+                    if (listener != null) {
+                        listener.onImageAvailable(new Result(items, Arrays.asList(images.clone())));
+                    }
+                }
+            }
+        } catch (final InterruptedException exception) {
+            Log.warning(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Interrupted while retrieving carousel images: %s",
+                    exception.getLocalizedMessage());
+            Thread.currentThread().interrupt();
+        } finally {
+            // cancel any task which has not completed when the deadline is reached
+            for (final Future<Bitmap> future : futureIndices.keySet()) {
+                future.cancel(true);
+            }
+        }
+
+        final Result result = new Result(items, Arrays.asList(images));
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Retrieved %d of %d carousel image(s) in %d milliseconds.",
+                result.getAvailableCount(),
+                items.size(),
+                System.currentTimeMillis() - fetchStartTime);
+        return result;
+    }
+
+    private static Bitmap getCompletedImage(final Future<Bitmap> future) {
+        if (!future.isDone() || future.isCancelled()) {
+            return null;
+        }
+
+        try {
+            return future.get();
+        } catch (final ExecutionException | CancellationException exception) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to retrieve a carousel image: %s",
+                    exception.getLocalizedMessage());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -11,6 +11,7 @@
 package com.adobe.marketing.mobile;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.DataReaderException;
 import com.adobe.marketing.mobile.util.JSONUtils;
@@ -29,6 +30,8 @@ class CarouselPushTemplate extends AEPPushTemplate {
     private final ArrayList<CarouselItem> carouselItems = new ArrayList<>();
     // Required, "default" or "filmstrip"
     private String carouselLayoutType;
+    // Not part of the payload, set when the carousel must be built from already retrieved images
+    private CarouselImageFetcher.Result prefetchedImages;
 
     static class CarouselItem {
         // Required, URI to an image to be shown for the carousel item
@@ -70,6 +73,14 @@ class CarouselPushTemplate extends AEPPushTemplate {
         return carouselItems;
     }
 
+    @Nullable CarouselImageFetcher.Result getPrefetchedImages() {
+        return prefetchedImages;
+    }
+
+    void setPrefetchedImages(@Nullable final CarouselImageFetcher.Result prefetchedImages) {
+        this.prefetchedImages = prefetchedImages;
+    }
+
     CarouselPushTemplate(@NonNull final Map<String, String> messageData)
             throws IllegalArgumentException {
         super(messageData);
@@ -0,0 +1,300 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.Intent;
+import android.os.Bundle;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Persisted store of the state needed to redraw a manual or filmstrip carousel notification.
+ *
+ * <p>The carousel state (image urls, captions, click actions, texts, colors, icon, sound...) is
+ * saved once per notification, keyed by the notification tag or, if the payload has no tag, by
+ * the message id. The left and right navigation intents then only carry the session key and the
+ * current center image index, their action being the navigation direction, which keeps the
+ * notification parcel small regardless of the number of carousel items. Sessions are persisted in
+ * a {@link NamedCollection} so that they survive the process being killed between two taps, and
+ * the least recently saved sessions are evicted once {@link #MAX_SESSIONS} are stored.
+ *
+ * <p>Navigation intents created before this store existed carry the full carousel state as
+ * extras, they are still handled by using their extras directly.
+ */
+class CarouselSessionStore {
+    private static final String SELF_TAG = "CarouselSessionStore";
+    private static final String SESSIONS_KEY = "carouselsessions";
+    private static final String SESSION_PREFIX = "carouselsession.";
+    private static final int MAX_SESSIONS = 20;
+
+    // session key to the time the session was saved, mirrored in the data store
+    private static Map<String, String> sessions;
+    // session key to the serialized session, loaded lazily from the data store
+    private static final Map<String, String> sessionData = new HashMap<>();
+
+    private CarouselSessionStore() {}
+
+    /**
+     * Returns the session key of a carousel notification.
+     *
+     * @param tag {@code String} containing the notification tag
+     * @param messageId {@code String} containing the message id
+     * @return the tag if present, the message id otherwise
+     */
+    static String getSessionKey(final String tag, final String messageId) {
+        return StringUtils.isNullOrEmpty(tag) ? messageId : tag;
+    }
+
+    /**
+     * Adds the navigation extras to a carousel navigation intent. The carousel state is saved in
+     * the store and only the session key and center image index are added to the intent. If the
+     * state can't be persisted, it is added to the intent as extras instead.
+     *
+     * @param navigationIntent the navigation {@link Intent}
+     * @param carouselState {@link Bundle} containing the carousel state, including the tag and
+     *     message id of the notification
+     * @param centerImageIndex {@code int} containing the index of the displayed center image
+     */
+    static void putNavigationExtras(
+            final Intent navigationIntent, final Bundle carouselState, final int centerImageIndex) {
+        final String sessionKey =
+                getSessionKey(
+                        carouselState.getString(CampaignPushConstants.IntentKeys.TAG),
+                        carouselState.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID));
+        if (StringUtils.isNullOrEmpty(sessionKey) || !save(sessionKey, carouselState)) {
+            navigationIntent.putExtras(carouselState);
+        } else {
+            navigationIntent.putExtra(CampaignPushConstants.IntentKeys.SESSION_KEY, sessionKey);
+        }
+        navigationIntent.putExtra(
+                CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, centerImageIndex);
+    }
+
+    /**
+     * Returns the carousel state of a navigation intent.
+     *
+     * @param navigationIntent the received navigation {@link Intent}
+     * @return {@link Bundle} containing the carousel state and the center image index, or null if
+     *     the session of the intent is no longer stored
+     */
+    @Nullable static Bundle restore(final Intent navigationIntent) {
+        final Bundle intentExtras = navigationIntent.getExtras();
+        if (intentExtras == null) {
+            return null;
+        }
+
+        final String sessionKey =
+                intentExtras.getString(CampaignPushConstants.IntentKeys.SESSION_KEY);
+        if (StringUtils.isNullOrEmpty(sessionKey)) {
+            // legacy intent carrying the full carousel state
+            return intentExtras;
+        }
+
+        final Bundle carouselState = load(sessionKey);
+        if (carouselState == null) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Carousel session %s is no longer stored, the notification will not be"
+                            + " updated.",
+                    sessionKey);
+            return null;
+        }
+        carouselState.putInt(
+                CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX,
+                intentExtras.getInt(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX));
+        return carouselState;
+    }
+
+    /** Drops the sessions held in memory so that they are loaded again from the data store. */
+    @VisibleForTesting
+    static synchronized void reset() {
+        sessions = null;
+        sessionData.clear();
+    }
+
+    private static synchronized boolean save(final String sessionKey, final Bundle carouselState) {
+        final String serializedState;
+        try {
+            serializedState = serialize(carouselState);
+        } catch (final JSONException exception) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to serialize carousel session %s: %s",
+                    sessionKey,
+                    exception.getLocalizedMessage());
+            return false;
+        }
+
+        final NamedCollection dataStore = getDataStore();
+        if (dataStore == null) {
+            return false;
+        }
+
+        // navigating the carousel saves the same state again, skip the disk write
+        final Map<String, String> entries = getSessions();
+        if (entries.containsKey(sessionKey) && serializedState.equals(getData(sessionKey))) {
+            return true;
+        }
+
+        entries.put(sessionKey, String.valueOf(System.currentTimeMillis()));
+        sessionData.put(sessionKey, serializedState);
+        dataStore.setString(SESSION_PREFIX + sessionKey, serializedState);
+        prune(entries, dataStore);
+        dataStore.setMap(SESSIONS_KEY, entries);
+        return true;
+    }
+
+    private static synchronized Bundle load(final String sessionKey) {
+        if (!getSessions().containsKey(sessionKey)) {
+            return null;
+        }
+
+        final String serializedState = getData(sessionKey);
+        if (StringUtils.isNullOrEmpty(serializedState)) {
+            return null;
+        }
+
+        try {
+            return deserialize(serializedState);
+        } catch (final JSONException exception) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to read carousel session %s: %s",
+                    sessionKey,
+                    exception.getLocalizedMessage());
+            return null;
+        }
+    }
+
+    private static String getData(final String sessionKey) {
+        String serializedState = sessionData.get(sessionKey);
+        if (serializedState == null) {
+            final NamedCollection dataStore = getDataStore();
+            serializedState =
+                    dataStore == null
+                            ? null
+                            : dataStore.getString(SESSION_PREFIX + sessionKey, null);
+            if (serializedState != null) {
+                sessionData.put(sessionKey, serializedState);
+            }
+        }
+        return serializedState;
+    }
+
+    private static void prune(final Map<String, String> entries, final NamedCollection dataStore) {
+        while (entries.size() > MAX_SESSIONS) {
+            String oldestKey = null;
+            long oldestSaveTime = Long.MAX_VALUE;
+            for (final Map.Entry<String, String> entry : entries.entrySet()) {
+                final long saveTime = parseTime(entry.getValue());
+                if (saveTime < oldestSaveTime) {
+                    oldestSaveTime = saveTime;
+                    oldestKey = entry.getKey();
+                }
+            }
+            entries.remove(oldestKey);
+            sessionData.remove(oldestKey);
+            dataStore.remove(SESSION_PREFIX + oldestKey);
+        }
+    }
+
+    private static long parseTime(final String time) {
+        try {
+            return Long.parseLong(time);
+        } catch (final NumberFormatException exception) {
+            return 0;
+        }
+    }
+
+    private static String serialize(final Bundle carouselState) throws JSONException {
+        final JSONObject json = new JSONObject();
+        for (final String key : carouselState.keySet()) {
+            // the center image index is carried by the navigation intent
+            if (CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX.equals(key)) {
+                continue;
+            }
+
+            final Object value = carouselState.get(key);
+            if (value instanceof ArrayList) {
+                final JSONArray array = new JSONArray();
+                for (final Object item : (ArrayList<?>) value) {
+                    array.put(item == null ? JSONObject.NULL : item);
+                }
+                json.put(key, array);
+            } else if (value instanceof String
+                    || value instanceof Integer
+                    || value instanceof Boolean) {
+                json.put(key, value);
+            }
+        }
+        return json.toString();
+    }
+
+    private static Bundle deserialize(final String serializedState) throws JSONException {
+        final JSONObject json = new JSONObject(serializedState);
+        final Bundle carouselState = new Bundle();
+        final Iterator<String> keys = json.keys();
+        while (keys.hasNext()) {
+            final String key = keys.next();
+            final Object value = json.get(key);
+            if (value instanceof JSONArray) {
+                final JSONArray array = (JSONArray) value;
+                final ArrayList<String> items = new ArrayList<>(array.length());
+                for (int i = 0; i < array.length(); i++) {
+                    items.add(array.isNull(i) ? null : array.getString(i));
+                }
+                carouselState.putStringArrayList(key, items);
+            } else if (value instanceof String) {
+                carouselState.putString(key, (String) value);
+            } else if (value instanceof Integer) {
+                carouselState.putInt(key, (Integer) value);
+            } else if (value instanceof Boolean) {
+                carouselState.putBoolean(key, (Boolean) value);
+            }
+        }
+        return carouselState;
+    }
+
+    private static Map<String, String> getSessions() {
+        if (sessions == null) {
+            final NamedCollection dataStore = getDataStore();
+            final Map<String, String> persistedSessions =
+                    dataStore == null ? null : dataStore.getMap(SESSIONS_KEY);
+            sessions =
+                    persistedSessions == null
+                            ? new HashMap<String, String>()
+                            : new HashMap<>(persistedSessions);
+        }
+        return sessions;
+    }
+
+    private static NamedCollection getDataStore() {
+        final DataStoring dataStoreService = ServiceProvider.getInstance().getDataStoreService();
+        return dataStoreService == null
+                ? null
+                : dataStoreService.getNamedCollection(CampaignPushConstants.PUSH_DATASTORE_NAME);
+    }
+}
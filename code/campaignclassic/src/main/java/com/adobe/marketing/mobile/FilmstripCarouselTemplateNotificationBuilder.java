@@ -15,7 +15,7 @@ import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.widget.RemoteViews;
@@ -24,15 +24,15 @@ import androidx.core.app.NotificationManagerCompat;
 import com.adobe.marketing.mobile.campaignclassic.R;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
-import com.adobe.marketing.mobile.services.caching.CacheResult;
 import com.adobe.marketing.mobile.services.caching.CacheService;
-import com.adobe.marketing.mobile.util.StringUtils;
-import com.google.android.gms.common.util.CollectionUtils;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 class FilmstripCarouselTemplateNotificationBuilder {
     private static final String SELF_TAG = "FilmstripCarouselTemplateNotificationBuilder";
+    // the left, center and right images are displayed
+    private static final int FILMSTRIP_IMAGE_COUNT = 3;
 
     static NotificationCompat.Builder construct(
             final CarouselPushTemplate pushTemplate,
@@ -50,13 +50,13 @@ class FilmstripCarouselTemplateNotificationBuilder {
     }
 
     static void handleIntent(final Context context, final Intent intent) {
-        final Bundle intentExtras = intent.getExtras();
+        final Bundle intentExtras = CarouselSessionStore.restore(intent);
         if (intentExtras == null) {
             Log.trace(
                     CampaignPushConstants.LOG_TAG,
                     SELF_TAG,
-                    "Intent extras are null, will not handle the manual filmstrip intent with"
-                            + " action %s",
+                    "Carousel state is unavailable, will not handle the manual filmstrip intent"
+                            + " with action %s",
                     intent.getAction());
             return;
         }
@@ -64,15 +64,15 @@ class FilmstripCarouselTemplateNotificationBuilder {
         try {
             final NotificationManagerCompat notificationManager =
                     NotificationManagerCompat.from(context);
-            final Notification notification = createNotificationBuilder(context, intent).build();
+            final Notification notification =
+                    createNotificationBuilder(context, intent.getAction(), intentExtras).build();
 
             // get the tag from the intent extras. if no tag was present in the payload use the
             // message id instead as its guaranteed to always be present.
             final String tag =
-                    !StringUtils.isNullOrEmpty(
-                                    intentExtras.getString(CampaignPushConstants.IntentKeys.TAG))
-                            ? intentExtras.getString(CampaignPushConstants.IntentKeys.TAG)
-                            : intentExtras.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID);
+                    CarouselSessionStore.getSessionKey(
+                            intentExtras.getString(CampaignPushConstants.IntentKeys.TAG),
+                            intentExtras.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID));
             notificationManager.notify(tag.hashCode(), notification);
         } catch (final NotificationConstructionFailedException exception) {
             Log.error(
@@ -116,16 +116,22 @@ class FilmstripCarouselTemplateNotificationBuilder {
         final ArrayList<String> imageCaptions = new ArrayList<>();
         final ArrayList<String> imageClickActions = new ArrayList<>();
 
-        for (final CarouselPushTemplate.CarouselItem item : items) {
+        // retrieve all carousel images in parallel
+        final CarouselImageFetcher.Result fetchResult =
+                CarouselImageFetcher.fetch(
+                        cacheService, pushTemplate, PushImageSizePolicy.Slot.FILMSTRIP_CENTER);
+
+        for (int i = 0; i < items.size(); i++) {
+            final CarouselPushTemplate.CarouselItem item = items.get(i);
             final String imageUri = item.getImageUri();
-            final Bitmap pushImage = CampaignPushUtils.downloadImage(cacheService, imageUri);
+            final Bitmap pushImage = fetchResult.getImage(i);
             if (pushImage == null) {
                 Log.trace(
                         CampaignPushConstants.LOG_TAG,
                         SELF_TAG,
                         "Failed to retrieve an image from %s, will not create a new carousel item.",
                         imageUri);
-                break;
+                continue;
             }
             downloadedImages.add(pushImage);
             downloadedImageUris.add(imageUri);
@@ -163,13 +169,12 @@ class FilmstripCarouselTemplateNotificationBuilder {
         final String centerCaptionText = imageCaptions.get(centerImageIndex);
         expandedLayout.setTextViewText(R.id.manual_carousel_filmstrip_caption, centerCaptionText);
 
-        // set the downloaded bitmaps in the filmstrip image views
-        expandedLayout.setImageViewBitmap(
-                R.id.manual_carousel_filmstrip_left, downloadedImages.get(0));
-        expandedLayout.setImageViewBitmap(
-                R.id.manual_carousel_filmstrip_center, downloadedImages.get(1));
-        expandedLayout.setImageViewBitmap(
-                R.id.manual_carousel_filmstrip_right, downloadedImages.get(2));
+        // set the downloaded images in the filmstrip image views
+        setFilmstripImages(
+                context,
+                expandedLayout,
+                downloadedImageUris.subList(0, FILMSTRIP_IMAGE_COUNT),
+                downloadedImages.subList(0, FILMSTRIP_IMAGE_COUNT));
 
         // assign a click action pending intent to the center image view
         AEPPushNotificationBuilder.setRemoteViewClickAction(
@@ -184,9 +189,7 @@ class FilmstripCarouselTemplateNotificationBuilder {
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                pushTemplate.getNotificationBackgroundColor(),
-                pushTemplate.getTitleTextColor(),
-                pushTemplate.getExpandedBodyTextColor(),
+                pushTemplate.getStyle(),
                 smallLayout,
                 expandedLayout,
                 R.id.carousel_container_layout);
@@ -200,48 +203,43 @@ class FilmstripCarouselTemplateNotificationBuilder {
                         AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setClass(context, AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CHANNEL_ID, channelId);
-        clickIntent.putExtra(
+        // the carousel state is kept in the session store, the intents only carry its key
+        final Bundle carouselState = new Bundle();
+        carouselState.putString(CampaignPushConstants.IntentKeys.CHANNEL_ID, channelId);
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.CUSTOM_SOUND, pushTemplate.getSound());
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, centerImageIndex);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_URLS, downloadedImageUris);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_CAPTIONS, imageCaptions);
-        clickIntent.putExtra(
+        carouselState.putStringArrayList(
+                CampaignPushConstants.IntentKeys.IMAGE_URLS, downloadedImageUris);
+        carouselState.putStringArrayList(
+                CampaignPushConstants.IntentKeys.IMAGE_CAPTIONS, imageCaptions);
+        carouselState.putStringArrayList(
                 CampaignPushConstants.IntentKeys.IMAGE_CLICK_ACTIONS, imageClickActions);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TITLE_TEXT, titleText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.BODY_TEXT, smallBodyText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT, expandedBodyText);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR,
-                pushTemplate.getNotificationBackgroundColor());
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR,
-                pushTemplate.getTitleTextColor());
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR,
-                pushTemplate.getExpandedBodyTextColor());
-        clickIntent.putExtra(
+        carouselState.putString(CampaignPushConstants.IntentKeys.TITLE_TEXT, titleText);
+        carouselState.putString(CampaignPushConstants.IntentKeys.BODY_TEXT, smallBodyText);
+        carouselState.putString(
+                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT, expandedBodyText);
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.MESSAGE_ID, pushTemplate.getMessageId());
-        clickIntent.putExtra(
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.DELIVERY_ID, pushTemplate.getDeliveryId());
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.SMALL_ICON, pushTemplate.getIcon());
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR,
-                pushTemplate.getSmallIconColor());
-        clickIntent.putExtra(
+        carouselState.putString(
+                CampaignPushConstants.IntentKeys.SMALL_ICON, pushTemplate.getIcon());
+        pushTemplate.getStyle().putExtras(carouselState);
+        carouselState.putInt(
                 CampaignPushConstants.IntentKeys.VISIBILITY,
                 Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
                         ? pushTemplate.getNotificationVisibility()
                         : pushTemplate.getNotificationPriority());
-        clickIntent.putExtra(
+        carouselState.putInt(
                 CampaignPushConstants.IntentKeys.IMPORTANCE,
                 pushTemplate.getNotificationImportance());
-        clickIntent.putExtra(
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.TICKER, pushTemplate.getNotificationTicker());
-        clickIntent.putExtra(
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.TAG, pushTemplate.getNotificationTag());
-        clickIntent.putExtra(
+        carouselState.putBoolean(
                 CampaignPushConstants.IntentKeys.STICKY, pushTemplate.isNotificationSticky());
+        CarouselSessionStore.putNavigationExtras(clickIntent, carouselState, centerImageIndex);
 
         final PendingIntent pendingIntentLeftButton =
                 PendingIntent.getBroadcast(
@@ -277,7 +275,7 @@ class FilmstripCarouselTemplateNotificationBuilder {
 
         // small Icon must be present, otherwise the notification will not be displayed.
         AEPPushNotificationBuilder.setSmallIcon(
-                context, builder, pushTemplate.getIcon(), pushTemplate.getSmallIconColor());
+                context, builder, pushTemplate.getIcon(), pushTemplate.getStyle());
 
         // set notification visibility
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
@@ -302,15 +300,8 @@ class FilmstripCarouselTemplateNotificationBuilder {
     }
 
     private static NotificationCompat.Builder createNotificationBuilder(
-            final Context context, final Intent intent)
+            final Context context, final String action, final Bundle intentExtras)
             throws NotificationConstructionFailedException {
-        final Bundle intentExtras = intent.getExtras();
-        if (intentExtras == null) {
-            throw new NotificationConstructionFailedException(
-                    "Intent extras are null, will not create a notification from the received"
-                            + " intent with action "
-                            + intent.getAction());
-        }
 
         final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
         if (cacheService == null) {
@@ -319,7 +310,6 @@ class FilmstripCarouselTemplateNotificationBuilder {
                             + " constructed.");
         }
 
-        final String assetCacheLocation = CampaignPushUtils.getAssetCacheLocation();
         final String packageName =
                 ServiceProvider.getInstance()
                         .getAppContextService()
@@ -331,12 +321,8 @@ class FilmstripCarouselTemplateNotificationBuilder {
                 intentExtras.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID);
         final String deliveryId =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.DELIVERY_ID);
-        final String channelId =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.CHANNEL_ID);
         final int badgeCount = intentExtras.getInt(CampaignPushConstants.IntentKeys.BADGE_COUNT);
         final int visibility = intentExtras.getInt(CampaignPushConstants.IntentKeys.VISIBILITY);
-        final int importance = intentExtras.getInt(CampaignPushConstants.IntentKeys.IMPORTANCE);
-        final ArrayList<Bitmap> cachedImages = new ArrayList<>();
         final ArrayList<String> imageUrls =
                 (ArrayList<String>) intentExtras.get(CampaignPushConstants.IntentKeys.IMAGE_URLS);
         final ArrayList<String> imageCaptions =
@@ -350,35 +336,13 @@ class FilmstripCarouselTemplateNotificationBuilder {
         final String bodyText = intentExtras.getString(CampaignPushConstants.IntentKeys.BODY_TEXT);
         final String expandedBodyText =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT);
-        final String notificationBackgroundColor =
-                intentExtras.getString(
-                        CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR);
-        final String titleTextColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR);
-        final String expandedBodyTextColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR);
         final String smallIcon =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON);
-        final String smallIconColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR);
-        final String customSound =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.CUSTOM_SOUND);
+        final PushTemplateStyle style = PushTemplateStyle.fromExtras(intentExtras);
         final String ticker = intentExtras.getString(CampaignPushConstants.IntentKeys.TICKER);
         final String tag = intentExtras.getString(CampaignPushConstants.IntentKeys.TAG);
         final boolean sticky = intentExtras.getBoolean(CampaignPushConstants.IntentKeys.STICKY);
 
-        // as we are handling an intent, the image URLS should already be cached
-        if (cacheService != null && !CollectionUtils.isEmpty(imageUrls)) {
-            for (final String imageUri : imageUrls) {
-                if (!StringUtils.isNullOrEmpty(imageUri)) {
-                    final CacheResult cacheResult = cacheService.get(assetCacheLocation, imageUri);
-                    if (cacheResult != null) {
-                        cachedImages.add(BitmapFactory.decodeStream(cacheResult.getData()));
-                    }
-                }
-            }
-        }
-
         final RemoteViews smallLayout =
                 new RemoteViews(packageName, R.layout.push_template_collapsed);
         final RemoteViews expandedLayout =
@@ -388,19 +352,14 @@ class FilmstripCarouselTemplateNotificationBuilder {
         expandedLayout.setTextViewText(R.id.notification_title, titleText);
         expandedLayout.setTextViewText(R.id.notification_body_expanded, expandedBodyText);
 
-        final String action = intent.getAction();
         int centerImageIndex =
                 intentExtras.getInt(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX);
         final List<Integer> newIndices =
                 CampaignPushUtils.calculateNewIndices(centerImageIndex, imageUrls.size(), action);
 
-        String newCenterCaption;
-        Bitmap newLeftImage;
-        Bitmap newCenterImage;
-        Bitmap newRightImage;
-        int newCenterIndex;
-        int newLeftIndex;
-        int newRightIndex;
+        final int newCenterIndex;
+        final int newLeftIndex;
+        final int newRightIndex;
         if (newIndices == null) {
             Log.trace(
                     CampaignPushConstants.LOG_TAG,
@@ -408,23 +367,32 @@ class FilmstripCarouselTemplateNotificationBuilder {
                     "Unable to calculate new left, center, and right indices. Using default center"
                             + " image index of 1.");
             newCenterIndex = CampaignPushConstants.DefaultValues.CENTER_INDEX;
-            newLeftImage = cachedImages.get(CampaignPushConstants.DefaultValues.CENTER_INDEX - 1);
-            newCenterImage = cachedImages.get(CampaignPushConstants.DefaultValues.CENTER_INDEX);
-            newRightImage = cachedImages.get(CampaignPushConstants.DefaultValues.CENTER_INDEX + 1);
-            newCenterCaption = imageCaptions.get(CampaignPushConstants.DefaultValues.CENTER_INDEX);
+            newLeftIndex = CampaignPushConstants.DefaultValues.CENTER_INDEX - 1;
+            newRightIndex = CampaignPushConstants.DefaultValues.CENTER_INDEX + 1;
         } else {
             newLeftIndex = newIndices.get(0);
             newCenterIndex = newIndices.get(1);
             newRightIndex = newIndices.get(2);
-            newCenterImage = cachedImages.get(newCenterIndex);
-            newLeftImage = cachedImages.get(newLeftIndex);
-            newRightImage = cachedImages.get(newRightIndex);
-            newCenterCaption = imageCaptions.get(newCenterIndex);
         }
+        final String newCenterCaption = imageCaptions.get(newCenterIndex);
 
-        expandedLayout.setImageViewBitmap(R.id.manual_carousel_filmstrip_center, newCenterImage);
-        expandedLayout.setImageViewBitmap(R.id.manual_carousel_filmstrip_left, newLeftImage);
-        expandedLayout.setImageViewBitmap(R.id.manual_carousel_filmstrip_right, newRightImage);
+        // as we are handling an intent, the image URLS should already be cached. only the
+        // displayed images are resolved, and the next image is prepared in the background.
+        setFilmstripImages(
+                context,
+                expandedLayout,
+                Arrays.asList(
+                        imageUrls.get(newLeftIndex),
+                        imageUrls.get(newCenterIndex),
+                        imageUrls.get(newRightIndex)),
+                null);
+        CarouselFramePreloader.preloadNext(
+                context,
+                imageUrls,
+                action,
+                newLeftIndex,
+                newRightIndex,
+                PushImageSizePolicy.Slot.FILMSTRIP_CENTER);
         expandedLayout.setTextViewText(R.id.manual_carousel_filmstrip_caption, newCenterCaption);
 
         // assign a click action pending intent to the center image view
@@ -440,9 +408,7 @@ class FilmstripCarouselTemplateNotificationBuilder {
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                notificationBackgroundColor,
-                titleTextColor,
-                expandedBodyTextColor,
+                style,
                 smallLayout,
                 expandedLayout,
                 R.id.carousel_container_layout);
@@ -456,31 +422,7 @@ class FilmstripCarouselTemplateNotificationBuilder {
                         AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setClass(context, AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CHANNEL_ID, channelId);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CUSTOM_SOUND, customSound);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, newCenterIndex);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_URLS, imageUrls);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_CAPTIONS, imageCaptions);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.IMAGE_CLICK_ACTIONS, imageClickActions);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TITLE_TEXT, titleText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.BODY_TEXT, bodyText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT, expandedBodyText);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR,
-                notificationBackgroundColor);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR, titleTextColor);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR, expandedBodyTextColor);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.MESSAGE_ID, messageId);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.DELIVERY_ID, deliveryId);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.SMALL_ICON, smallIcon);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR, smallIconColor);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.VISIBILITY, visibility);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMPORTANCE, importance);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TICKER, ticker);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TAG, tag);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.STICKY, sticky);
+        CarouselSessionStore.putNavigationExtras(clickIntent, intentExtras, newCenterIndex);
 
         final PendingIntent pendingIntentLeftButton =
                 PendingIntent.getBroadcast(
@@ -522,7 +464,7 @@ class FilmstripCarouselTemplateNotificationBuilder {
                         .setCustomBigContentView(expandedLayout);
 
         // small Icon must be present, otherwise the notification will not be displayed.
-        AEPPushNotificationBuilder.setSmallIcon(context, builder, smallIcon, smallIconColor);
+        AEPPushNotificationBuilder.setSmallIcon(context, builder, smallIcon, style);
 
         // set notification visibility
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
@@ -544,4 +486,69 @@ class FilmstripCarouselTemplateNotificationBuilder {
 
         return builder;
     }
+
+    /**
+     * Sets the left, center and right filmstrip images. The images are set as content uris served
+     * by the {@link PushImageContentProvider} when possible so that the notification parcel does
+     * not carry their pixels. Otherwise the bitmaps are set, within the parcel size budget.
+     *
+     * @param context the application {@link Context}
+     * @param expandedLayout the filmstrip {@link RemoteViews}
+     * @param imageUrls {@code List<String>} containing the left, center and right image urls
+     * @param images {@code List<Bitmap>} containing the left, center and right images, or null to
+     *     read them from the push image cache if content uris can't be used
+     * @throws NotificationConstructionFailedException if an image is no longer in the push image
+     *     cache
+     */
+    private static void setFilmstripImages(
+            final Context context,
+            final RemoteViews expandedLayout,
+            final List<String> imageUrls,
+            final List<Bitmap> images)
+            throws NotificationConstructionFailedException {
+        final Uri[] contentUris = new Uri[FILMSTRIP_IMAGE_COUNT];
+        boolean useContentUris = true;
+        for (int i = 0; i < FILMSTRIP_IMAGE_COUNT && useContentUris; i++) {
+            contentUris[i] =
+                    PushImageContentProvider.getContentUri(
+                            context, imageUrls.get(i), PushImageSizePolicy.Slot.FILMSTRIP_CENTER);
+            useContentUris = contentUris[i] != null;
+        }
+
+        if (useContentUris) {
+            expandedLayout.setImageViewUri(R.id.manual_carousel_filmstrip_left, contentUris[0]);
+            expandedLayout.setImageViewUri(R.id.manual_carousel_filmstrip_center, contentUris[1]);
+            expandedLayout.setImageViewUri(R.id.manual_carousel_filmstrip_right, contentUris[2]);
+            return;
+        }
+
+        List<Bitmap> bitmaps = images;
+        if (bitmaps == null) {
+            final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
+            bitmaps = new ArrayList<>();
+            for (final String imageUrl : imageUrls) {
+                final Bitmap bitmap =
+                        CampaignPushUtils.getCachedImage(
+                                cacheService, imageUrl, PushImageSizePolicy.Slot.FILMSTRIP_CENTER);
+                if (bitmap == null) {
+                    // the image was evicted from the cache, keep the current filmstrip
+                    throw new NotificationConstructionFailedException(
+                            "Filmstrip image ("
+                                    + imageUrl
+                                    + ") is no longer cached, the filmstrip will not be updated.");
+                }
+                bitmaps.add(bitmap);
+            }
+        }
+
+        // keep the filmstrip bitmaps within the parcel size budget
+        final List<Bitmap> filmstripImages =
+                NotificationBitmapBudget.fit(bitmaps, FILMSTRIP_IMAGE_COUNT);
+        expandedLayout.setImageViewBitmap(
+                R.id.manual_carousel_filmstrip_left, filmstripImages.get(0));
+        expandedLayout.setImageViewBitmap(
+                R.id.manual_carousel_filmstrip_center, filmstripImages.get(1));
+        expandedLayout.setImageViewBitmap(
+                R.id.manual_carousel_filmstrip_right, filmstripImages.get(2));
+    }
 }
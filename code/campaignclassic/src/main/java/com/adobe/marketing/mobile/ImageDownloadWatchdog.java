@@ -0,0 +1,160 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.services.Log;
+import java.net.HttpURLConnection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Frees threads which are stuck downloading push notification images.
+ *
+ * <p>Blocking socket reads are not interrupted when a download task is cancelled with {@code
+ * Future.cancel(true)}. Every image download registers its connection with this watchdog, which
+ * periodically disconnects transfers whose thread was interrupted (abandoned transfers) or which
+ * have been running for longer than {@link
+ * CampaignPushConstants.DefaultValues#IMAGE_DOWNLOAD_MAX_DURATION_IN_MILLISECONDS} (timed out
+ * transfers). Disconnecting closes the socket, which makes the blocked read fail and returns the
+ * thread to its executor. The watchdog only runs while downloads are in progress.
+ */
+class ImageDownloadWatchdog {
+    private static final String SELF_TAG = "ImageDownloadWatchdog";
+    private static final long SCAN_INTERVAL_IN_MILLISECONDS = 1000;
+
+    /** A download which is being watched. */
+    static class ActiveDownload {
+        private final HttpURLConnection connection;
+        private final String url;
+        private final Thread thread;
+        private final long startTime;
+        private volatile boolean aborted;
+
+        ActiveDownload(final HttpURLConnection connection, final String url) {
+            this.connection = connection;
+            this.url = url;
+            this.thread = Thread.currentThread();
+            this.startTime = System.currentTimeMillis();
+        }
+
+        /** @return true if the watchdog disconnected the download */
+        boolean isAborted() {
+            return aborted;
+        }
+    }
+
+    private static class ExecutorHolder {
+        static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor();
+    }
+
+    private static final Set<ActiveDownload> activeDownloads =
+            Collections.newSetFromMap(new ConcurrentHashMap<ActiveDownload, Boolean>());
+    private static final AtomicLong timedOutDownloads = new AtomicLong();
+    private static final AtomicLong abandonedDownloads = new AtomicLong();
+    private static final Object scanLock = new Object();
+    private static ScheduledFuture<?> scanTask;
+
+    private ImageDownloadWatchdog() {}
+
+    /**
+     * Starts watching a download. The returned {@link ActiveDownload} must be passed to {@link
+     * #unregister(ActiveDownload)} once the download completes.
+     *
+     * @param connection the {@link HttpURLConnection} used for the download
+     * @param url {@code String} containing the image url
+     * @return the registered {@link ActiveDownload}
+     */
+    @NonNull static ActiveDownload register(final HttpURLConnection connection, final String url) {
+        final ActiveDownload activeDownload = new ActiveDownload(connection, url);
+        activeDownloads.add(activeDownload);
+        synchronized (scanLock) {
+            if (scanTask == null) {
+                scanTask =
+                        ExecutorHolder.INSTANCE.scheduleWithFixedDelay(
+                                ImageDownloadWatchdog::scan,
+                                SCAN_INTERVAL_IN_MILLISECONDS,
+                                SCAN_INTERVAL_IN_MILLISECONDS,
+                                TimeUnit.MILLISECONDS);
+            }
+        }
+        return activeDownload;
+    }
+
+    /**
+     * Stops watching a download.
+     *
+     * @param activeDownload the {@link ActiveDownload} returned when the download was registered
+     */
+    static void unregister(final ActiveDownload activeDownload) {
+        if (activeDownload != null) {
+            activeDownloads.remove(activeDownload);
+        }
+    }
+
+    /** @return the number of downloads disconnected after running for too long */
+    static long getTimedOutCount() {
+        return timedOutDownloads.get();
+    }
+
+    /** @return the number of downloads disconnected after their task was cancelled */
+    static long getAbandonedCount() {
+        return abandonedDownloads.get();
+    }
+
+    private static void scan() {
+        final long now = System.currentTimeMillis();
+        for (final ActiveDownload activeDownload : activeDownloads) {
+            if (activeDownload.thread.isInterrupted()) {
+                abort(activeDownload, abandonedDownloads, "abandoned");
+            } else if (now - activeDownload.startTime
+                    > CampaignPushConstants.DefaultValues
+                            .IMAGE_DOWNLOAD_MAX_DURATION_IN_MILLISECONDS) {
+                abort(activeDownload, timedOutDownloads, "timed out");
+            }
+        }
+
+        synchronized (scanLock) {
+            if (activeDownloads.isEmpty() && scanTask != null) {
+                scanTask.cancel(false);
+                scanTask = null;
+            }
+        }
+    }
+
+    private static void abort(
+            final ActiveDownload activeDownload, final AtomicLong counter, final String reason) {
+        if (!activeDownloads.remove(activeDownload)) {
+            return;
+        }
+
+        activeDownload.aborted = true;
+        counter.incrementAndGet();
+        Log.debug(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Disconnecting %s download of image %s after %d milliseconds (timed out: %d,"
+                        + " abandoned: %d).",
+                reason,
+                activeDownload.url,
+                System.currentTimeMillis() - activeDownload.startTime,
+                timedOutDownloads.get(),
+                abandonedDownloads.get());
+        activeDownload.connection.disconnect();
+    }
+}
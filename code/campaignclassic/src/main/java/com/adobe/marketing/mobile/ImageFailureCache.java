@@ -0,0 +1,236 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.net.Uri;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Persisted negative cache of push notification images which recently failed to download.
+ *
+ * <p>Failures are recorded per image url and, when the connection to the host could not be
+ * established, per host. Downloads cancelled or disconnected by the SDK are not recorded. While an
+ * entry is live, downloads of the image (or of any image on the host) are skipped instead of
+ * waiting for the download to fail again. Entries expire after a short TTL which depends on the
+ * failure, see {@link CampaignPushConstants.DefaultValues}. The cache is bounded and persisted in a
+ * {@link NamedCollection} so that it survives the short lived processes used to handle push
+ * messages.
+ */
+class ImageFailureCache {
+    private static final String SELF_TAG = "ImageFailureCache";
+    private static final String FAILURES_KEY = "imagefailures";
+    private static final String URL_PREFIX = "url:";
+    private static final String HOST_PREFIX = "host:";
+    private static final int MAX_ENTRIES = 100;
+    private static final int HTTP_REQUEST_TIMEOUT = 408;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+    private static final int HTTP_SERVER_ERROR = 500;
+    // used when the connection to the image host could not be established
+    static final int NETWORK_ERROR = -1;
+    // used when the connection failed after it was established, e.g. a read timeout
+    static final int TRANSFER_ERROR = -2;
+    // used when the download was cancelled or disconnected by the SDK
+    static final int CANCELLED = -3;
+    // used when the image is larger than the download size limit
+    static final int TOO_LARGE = -4;
+
+    private static Map<String, String> failures;
+
+    private ImageFailureCache() {}
+
+    /**
+     * Determines if an image url, or its host, recently failed to download.
+     *
+     * @param url {@code String} containing the image url
+     * @return true if the image should not be downloaded
+     */
+    static synchronized boolean isUnavailable(final String url) {
+        if (StringUtils.isNullOrEmpty(url)) {
+            return false;
+        }
+
+        final Map<String, String> entries = getFailures();
+        if (entries.isEmpty()) {
+            return false;
+        }
+
+        final long now = System.currentTimeMillis();
+        final String host = getHost(url);
+        return isLive(entries.get(URL_PREFIX + url), now)
+                || (host != null && isLive(entries.get(HOST_PREFIX + host), now));
+    }
+
+    /**
+     * Records a failed download. Connection failures mark the image host as unavailable, other
+     * failures only mark the image url. Cancelled downloads are not recorded.
+     *
+     * @param url {@code String} containing the image url
+     * @param responseCode {@code int} containing the http response code or one of {@link
+     *     #NETWORK_ERROR}, {@link #TRANSFER_ERROR}, {@link #CANCELLED} or {@link #TOO_LARGE}
+     */
+    static synchronized void recordFailure(final String url, final int responseCode) {
+        if (StringUtils.isNullOrEmpty(url) || responseCode == CANCELLED) {
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        final String key;
+        final long ttl;
+        if (responseCode == NETWORK_ERROR) {
+            final String host = getHost(url);
+            key = host == null ? URL_PREFIX + url : HOST_PREFIX + host;
+            ttl = CampaignPushConstants.DefaultValues.IMAGE_HOST_FAILURE_TTL_IN_MILLISECONDS;
+        } else if (isTransient(responseCode)) {
+            key = URL_PREFIX + url;
+            ttl =
+                    CampaignPushConstants.DefaultValues
+                            .IMAGE_TRANSIENT_FAILURE_TTL_IN_MILLISECONDS;
+        } else {
+            key = URL_PREFIX + url;
+            ttl = CampaignPushConstants.DefaultValues.IMAGE_FAILURE_TTL_IN_MILLISECONDS;
+        }
+
+        final Map<String, String> entries = getFailures();
+        entries.put(key, String.valueOf(now + ttl));
+        prune(entries, now);
+        persist(entries);
+        Log.debug(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Download of image %s failed with response code %d, skipping %s for %d"
+                        + " milliseconds.",
+                url,
+                responseCode,
+                key,
+                ttl);
+    }
+
+    /**
+     * Removes the failure recorded for an image url after it was downloaded successfully.
+     *
+     * @param url {@code String} containing the image url
+     */
+    static synchronized void clearFailure(final String url) {
+        if (StringUtils.isNullOrEmpty(url)) {
+            return;
+        }
+
+        final Map<String, String> entries = getFailures();
+        final String host = getHost(url);
+        final boolean removedUrl = entries.remove(URL_PREFIX + url) != null;
+        final boolean removedHost = host != null && entries.remove(HOST_PREFIX + host) != null;
+        if (removedUrl || removedHost) {
+            persist(entries);
+        }
+    }
+
+    /** Drops the failures held in memory so that they are loaded again from the data store. */
+    @VisibleForTesting
+    static synchronized void reset() {
+        failures = null;
+    }
+
+    /**
+     * Determines if a failed download is likely to succeed when retried.
+     *
+     * @param responseCode {@code int} containing the http response code or one of {@link
+     *     #NETWORK_ERROR}, {@link #TRANSFER_ERROR}, {@link #CANCELLED} or {@link #TOO_LARGE}
+     * @return true if the failure is transient
+     */
+    static boolean isTransient(final int responseCode) {
+        return responseCode == NETWORK_ERROR
+                || responseCode == TRANSFER_ERROR
+                || responseCode == HTTP_REQUEST_TIMEOUT
+                || responseCode == HTTP_TOO_MANY_REQUESTS
+                || responseCode >= HTTP_SERVER_ERROR;
+    }
+
+    private static boolean isLive(final String expiry, final long now) {
+        if (StringUtils.isNullOrEmpty(expiry)) {
+            return false;
+        }
+
+        try {
+            return now < Long.parseLong(expiry);
+        } catch (final NumberFormatException exception) {
+            return false;
+        }
+    }
+
+    private static String getHost(final String url) {
+        final String host = Uri.parse(url).getHost();
+        return StringUtils.isNullOrEmpty(host) ? null : host;
+    }
+
+    private static void prune(final Map<String, String> entries, final long now) {
+        final Iterator<Map.Entry<String, String>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (!isLive(iterator.next().getValue(), now)) {
+                iterator.remove();
+            }
+        }
+
+        // drop the entries closest to expiring if the cache is still too large
+        while (entries.size() > MAX_ENTRIES) {
+            String oldestKey = null;
+            long oldestExpiry = Long.MAX_VALUE;
+            for (final Map.Entry<String, String> entry : entries.entrySet()) {
+                final long expiry = Long.parseLong(entry.getValue());
+                if (expiry < oldestExpiry) {
+                    oldestExpiry = expiry;
+                    oldestKey = entry.getKey();
+                }
+            }
+            entries.remove(oldestKey);
+        }
+    }
+
+    private static Map<String, String> getFailures() {
+        if (failures == null) {
+            final NamedCollection dataStore = getDataStore();
+            final Map<String, String> persistedFailures =
+                    dataStore == null ? null : dataStore.getMap(FAILURES_KEY);
+            failures =
+                    persistedFailures == null
+                            ? new HashMap<String, String>()
+                            : new HashMap<>(persistedFailures);
+        }
+        return failures;
+    }
+
+    private static void persist(final Map<String, String> entries) {
+        final NamedCollection dataStore = getDataStore();
+        if (dataStore == null) {
+            return;
+        }
+
+        if (entries.isEmpty()) {
+            dataStore.remove(FAILURES_KEY);
+        } else {
+            dataStore.setMap(FAILURES_KEY, entries);
+        }
+    }
+
+    private static NamedCollection getDataStore() {
+        final DataStoring dataStoreService = ServiceProvider.getInstance().getDataStoreService();
+        return dataStoreService == null
+                ? null
+                : dataStoreService.getNamedCollection(CampaignPushConstants.PUSH_DATASTORE_NAME);
+    }
+}
@@ -48,7 +48,7 @@ class LegacyNotificationBuilder {
                 context,
                 builder,
                 pushTemplate.getIcon(),
-                pushTemplate.getSmallIconColor()); // Small Icon must be present, otherwise the
+                pushTemplate.getStyle()); // Small Icon must be present, otherwise the
         // notification will not be displayed.
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
             AEPPushNotificationBuilder.setVisibility(
@@ -15,7 +15,7 @@ import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
 import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.widget.RemoteViews;
@@ -24,10 +24,7 @@ import androidx.core.app.NotificationManagerCompat;
 import com.adobe.marketing.mobile.campaignclassic.R;
 import com.adobe.marketing.mobile.services.Log;
 import com.adobe.marketing.mobile.services.ServiceProvider;
-import com.adobe.marketing.mobile.services.caching.CacheResult;
 import com.adobe.marketing.mobile.services.caching.CacheService;
-import com.adobe.marketing.mobile.util.StringUtils;
-import com.google.android.gms.common.util.CollectionUtils;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -57,13 +54,13 @@ class ManualCarouselTemplateNotificationBuilder {
 
     static void handleIntent(final Context context, final Intent intent) {
         // get manual carousel notification values from the intent extras
-        final Bundle intentExtras = intent.getExtras();
+        final Bundle intentExtras = CarouselSessionStore.restore(intent);
         if (intentExtras == null) {
             Log.trace(
                     CampaignPushConstants.LOG_TAG,
                     SELF_TAG,
-                    "Intent extras are null, will not create a notification from the received"
-                            + " intent with action %s",
+                    "Carousel state is unavailable, will not create a notification from the"
+                            + " received intent with action %s",
                     intent.getAction());
             return;
         }
@@ -71,15 +68,15 @@ class ManualCarouselTemplateNotificationBuilder {
         try {
             final NotificationManagerCompat notificationManager =
                     NotificationManagerCompat.from(context);
-            final Notification notification = createNotificationBuilder(context, intent).build();
+            final Notification notification =
+                    createNotificationBuilder(context, intent.getAction(), intentExtras).build();
 
             // get the tag from the intent extras. if no tag was present in the payload use the
             // message id instead as its guaranteed to always be present.
             final String tag =
-                    !StringUtils.isNullOrEmpty(
-                                    intentExtras.getString(CampaignPushConstants.IntentKeys.TAG))
-                            ? intentExtras.getString(CampaignPushConstants.IntentKeys.TAG)
-                            : intentExtras.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID);
+                    CarouselSessionStore.getSessionKey(
+                            intentExtras.getString(CampaignPushConstants.IntentKeys.TAG),
+                            intentExtras.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID));
             notificationManager.notify(tag.hashCode(), notification);
         } catch (final NotificationConstructionFailedException exception) {
             Log.error(
@@ -123,7 +120,9 @@ class ManualCarouselTemplateNotificationBuilder {
                         pushTemplate.getMessageId(),
                         pushTemplate.getDeliveryId(),
                         pushTemplate.getNotificationTag(),
-                        pushTemplate.isNotificationSticky());
+                        pushTemplate.isNotificationSticky(),
+                        pushTemplate.getPrefetchedImages(),
+                        false);
 
         final ArrayList<String> downloadedImageUris = extractedItemData.get(IMAGE_URIS_KEY);
         final ArrayList<String> imageCaptions = extractedItemData.get(IMAGE_CAPTIONS_KEY);
@@ -161,9 +160,7 @@ class ManualCarouselTemplateNotificationBuilder {
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                pushTemplate.getNotificationBackgroundColor(),
-                pushTemplate.getTitleTextColor(),
-                pushTemplate.getExpandedBodyTextColor(),
+                pushTemplate.getStyle(),
                 smallLayout,
                 expandedLayout,
                 R.id.carousel_container_layout);
@@ -177,48 +174,43 @@ class ManualCarouselTemplateNotificationBuilder {
                         AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setClass(context, AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CHANNEL_ID, channelId);
-        clickIntent.putExtra(
+        // the carousel state is kept in the session store, the intents only carry its key
+        final Bundle carouselState = new Bundle();
+        carouselState.putString(CampaignPushConstants.IntentKeys.CHANNEL_ID, channelId);
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.CUSTOM_SOUND, pushTemplate.getSound());
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, centerImageIndex);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_URLS, downloadedImageUris);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_CAPTIONS, imageCaptions);
-        clickIntent.putExtra(
+        carouselState.putStringArrayList(
+                CampaignPushConstants.IntentKeys.IMAGE_URLS, downloadedImageUris);
+        carouselState.putStringArrayList(
+                CampaignPushConstants.IntentKeys.IMAGE_CAPTIONS, imageCaptions);
+        carouselState.putStringArrayList(
                 CampaignPushConstants.IntentKeys.IMAGE_CLICK_ACTIONS, imageClickActions);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TITLE_TEXT, titleText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.BODY_TEXT, pushTemplate.getBody());
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT, expandedBodyText);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR,
-                pushTemplate.getNotificationBackgroundColor());
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR,
-                pushTemplate.getTitleTextColor());
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR,
-                pushTemplate.getExpandedBodyTextColor());
-        clickIntent.putExtra(
+        carouselState.putString(CampaignPushConstants.IntentKeys.TITLE_TEXT, titleText);
+        carouselState.putString(CampaignPushConstants.IntentKeys.BODY_TEXT, pushTemplate.getBody());
+        carouselState.putString(
+                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT, expandedBodyText);
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.MESSAGE_ID, pushTemplate.getMessageId());
-        clickIntent.putExtra(
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.DELIVERY_ID, pushTemplate.getDeliveryId());
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.SMALL_ICON, pushTemplate.getIcon());
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR,
-                pushTemplate.getSmallIconColor());
-        clickIntent.putExtra(
+        carouselState.putString(
+                CampaignPushConstants.IntentKeys.SMALL_ICON, pushTemplate.getIcon());
+        pushTemplate.getStyle().putExtras(carouselState);
+        carouselState.putInt(
                 CampaignPushConstants.IntentKeys.VISIBILITY,
                 Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP
                         ? pushTemplate.getNotificationVisibility()
                         : pushTemplate.getNotificationPriority());
-        clickIntent.putExtra(
+        carouselState.putInt(
                 CampaignPushConstants.IntentKeys.IMPORTANCE,
                 pushTemplate.getNotificationImportance());
-        clickIntent.putExtra(
+        carouselState.putBoolean(
                 CampaignPushConstants.IntentKeys.STICKY, pushTemplate.isNotificationSticky());
-        clickIntent.putExtra(
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.TAG, pushTemplate.getNotificationTag());
-        clickIntent.putExtra(
+        carouselState.putString(
                 CampaignPushConstants.IntentKeys.TICKER, pushTemplate.getNotificationTicker());
+        CarouselSessionStore.putNavigationExtras(clickIntent, carouselState, centerImageIndex);
 
         final PendingIntent pendingIntentLeftButton =
                 PendingIntent.getBroadcast(
@@ -252,7 +244,7 @@ class ManualCarouselTemplateNotificationBuilder {
 
         // small Icon must be present, otherwise the notification will not be displayed.
         AEPPushNotificationBuilder.setSmallIcon(
-                context, builder, pushTemplate.getIcon(), pushTemplate.getSmallIconColor());
+                context, builder, pushTemplate.getIcon(), pushTemplate.getStyle());
 
         // set notification visibility
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
@@ -273,15 +265,8 @@ class ManualCarouselTemplateNotificationBuilder {
     }
 
     private static NotificationCompat.Builder createNotificationBuilder(
-            final Context context, final Intent intent)
+            final Context context, final String action, final Bundle intentExtras)
             throws NotificationConstructionFailedException {
-        final Bundle intentExtras = intent.getExtras();
-        if (intentExtras == null) {
-            throw new NotificationConstructionFailedException(
-                    "Intent extras are null, will not create a notification from the received"
-                            + " intent with action "
-                            + intent.getAction());
-        }
 
         final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
         if (cacheService == null) {
@@ -290,7 +275,6 @@ class ManualCarouselTemplateNotificationBuilder {
                             + " constructed.");
         }
 
-        final String assetCacheLocation = CampaignPushUtils.getAssetCacheLocation();
         final String packageName =
                 ServiceProvider.getInstance()
                         .getAppContextService()
@@ -302,12 +286,8 @@ class ManualCarouselTemplateNotificationBuilder {
                 intentExtras.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID);
         final String deliveryId =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.DELIVERY_ID);
-        final String channelId =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.CHANNEL_ID);
         final int badgeCount = intentExtras.getInt(CampaignPushConstants.IntentKeys.BADGE_COUNT);
         final int visibility = intentExtras.getInt(CampaignPushConstants.IntentKeys.VISIBILITY);
-        final int importance = intentExtras.getInt(CampaignPushConstants.IntentKeys.IMPORTANCE);
-        final ArrayList<Bitmap> cachedImages = new ArrayList<>();
         final ArrayList<String> imageUrls =
                 (ArrayList<String>) intentExtras.get(CampaignPushConstants.IntentKeys.IMAGE_URLS);
         final ArrayList<String> imageCaptions =
@@ -321,35 +301,13 @@ class ManualCarouselTemplateNotificationBuilder {
         final String bodyText = intentExtras.getString(CampaignPushConstants.IntentKeys.BODY_TEXT);
         final String expandedBodyText =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT);
-        final String notificationBackgroundColor =
-                intentExtras.getString(
-                        CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR);
-        final String titleTextColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR);
-        final String expandedBodyTextColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR);
         final String smallIcon =
                 intentExtras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON);
-        final String smallIconColor =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR);
-        final String customSound =
-                intentExtras.getString(CampaignPushConstants.IntentKeys.CUSTOM_SOUND);
+        final PushTemplateStyle style = PushTemplateStyle.fromExtras(intentExtras);
         final String ticker = intentExtras.getString(CampaignPushConstants.IntentKeys.TICKER);
         final String tag = intentExtras.getString(CampaignPushConstants.IntentKeys.TAG);
         final boolean sticky = intentExtras.getBoolean(CampaignPushConstants.IntentKeys.STICKY);
 
-        // as we are handling an intent, the image URLS should already be cached
-        if (cacheService != null && !CollectionUtils.isEmpty(imageUrls)) {
-            for (final String imageUri : imageUrls) {
-                if (!StringUtils.isNullOrEmpty(imageUri)) {
-                    final CacheResult cacheResult = cacheService.get(assetCacheLocation, imageUri);
-                    if (cacheResult != null) {
-                        cachedImages.add(BitmapFactory.decodeStream(cacheResult.getData()));
-                    }
-                }
-            }
-        }
-
         final RemoteViews smallLayout =
                 new RemoteViews(packageName, R.layout.push_template_collapsed);
         final RemoteViews expandedLayout =
@@ -359,7 +317,6 @@ class ManualCarouselTemplateNotificationBuilder {
         expandedLayout.setTextViewText(R.id.notification_title, titleText);
         expandedLayout.setTextViewText(R.id.notification_body_expanded, expandedBodyText);
 
-        final String action = intent.getAction();
         int centerImageIndex =
                 intentExtras.getInt(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX);
         final List<Integer> newIndices =
@@ -377,7 +334,9 @@ class ManualCarouselTemplateNotificationBuilder {
             newCenterIndex = newIndices.get(1);
         }
 
-        // update the carousel view flipper with the new center index
+        // update the carousel view flipper with the new center index. as we are handling an
+        // intent, the image URLS should already be cached. only the displayed image is resolved
+        // and it is never downloaded.
         final ArrayList<CarouselPushTemplate.CarouselItem> items = new ArrayList<>();
         final CarouselPushTemplate.CarouselItem centerCarouselItem =
                 new CarouselPushTemplate.CarouselItem(
@@ -394,13 +353,20 @@ class ManualCarouselTemplateNotificationBuilder {
                 messageId,
                 deliveryId,
                 tag,
-                sticky);
+                sticky,
+                null,
+                true);
+        CarouselFramePreloader.preloadNext(
+                context,
+                imageUrls,
+                action,
+                newCenterIndex,
+                newCenterIndex,
+                PushImageSizePolicy.Slot.CAROUSEL_ITEM);
 
         // set any custom colors if needed
         AEPPushNotificationBuilder.setCustomNotificationColors(
-                notificationBackgroundColor,
-                titleTextColor,
-                expandedBodyTextColor,
+                style,
                 smallLayout,
                 expandedLayout,
                 R.id.carousel_container_layout);
@@ -414,31 +380,7 @@ class ManualCarouselTemplateNotificationBuilder {
                         AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setClass(context, AEPPushTemplateBroadcastReceiver.class);
         clickIntent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CHANNEL_ID, channelId);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CUSTOM_SOUND, customSound);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, newCenterIndex);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_URLS, imageUrls);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMAGE_CAPTIONS, imageCaptions);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.IMAGE_CLICK_ACTIONS, imageClickActions);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TITLE_TEXT, titleText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.BODY_TEXT, bodyText);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT, expandedBodyText);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR,
-                notificationBackgroundColor);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR, titleTextColor);
-        clickIntent.putExtra(
-                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR, expandedBodyTextColor);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.MESSAGE_ID, messageId);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.DELIVERY_ID, deliveryId);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.SMALL_ICON, smallIcon);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR, smallIconColor);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.VISIBILITY, visibility);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.IMPORTANCE, importance);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TICKER, ticker);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.TAG, tag);
-        clickIntent.putExtra(CampaignPushConstants.IntentKeys.STICKY, sticky);
+        CarouselSessionStore.putNavigationExtras(clickIntent, intentExtras, newCenterIndex);
 
         final PendingIntent pendingIntentLeftButton =
                 PendingIntent.getBroadcast(
@@ -480,7 +422,7 @@ class ManualCarouselTemplateNotificationBuilder {
                         .setCustomBigContentView(expandedLayout);
 
         // small Icon must be present, otherwise the notification will not be displayed.
-        AEPPushNotificationBuilder.setSmallIcon(context, builder, smallIcon, smallIconColor);
+        AEPPushNotificationBuilder.setSmallIcon(context, builder, smallIcon, style);
 
         // set notification visibility
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
@@ -512,23 +454,56 @@ class ManualCarouselTemplateNotificationBuilder {
             final String messageId,
             final String deliveryId,
             final String tag,
-            final boolean autoCancel) {
+            final boolean autoCancel,
+            final CarouselImageFetcher.Result prefetchedImages,
+            final boolean cachedImagesOnly) {
         final ArrayList<String> downloadedImageUris = new ArrayList<>();
         final ArrayList<String> imageCaptions = new ArrayList<>();
         final ArrayList<String> imageClickActions = new ArrayList<>();
         final Map<String, ArrayList<String>> itemData = new HashMap<>();
         final long imageProcessingStartTime = System.currentTimeMillis();
 
-        for (final CarouselPushTemplate.CarouselItem item : items) {
+        // images served by the push image content provider are decoded by the provider when the
+        // notification is displayed. when navigating, only the images which are still cached are
+        // displayed and they don't need to be decoded here.
+        final boolean useContentUris = PushImageContentProvider.isAvailable(context);
+        final CarouselImageFetcher.Result fetchResult =
+                useContentUris && cachedImagesOnly
+                        ? null
+                        : getImages(
+                                cacheService,
+                                items,
+                                prefetchedImages,
+                                cachedImagesOnly,
+                                useContentUris);
+
+        for (int i = 0; i < items.size(); i++) {
+            final CarouselPushTemplate.CarouselItem item = items.get(i);
             final String imageUri = item.getImageUri();
-            final Bitmap pushImage = CampaignPushUtils.downloadImage(cacheService, imageUri);
-            if (pushImage == null) {
+            final Bitmap fetchedImage = fetchResult == null ? null : fetchResult.getImage(i);
+            final boolean available =
+                    fetchResult == null
+                            ? CampaignPushUtils.isImageCached(
+                                    cacheService, imageUri, PushImageSizePolicy.Slot.CAROUSEL_ITEM)
+                            : fetchedImage != null;
+            final Uri contentUri =
+                    available && useContentUris
+                            ? PushImageContentProvider.getContentUri(
+                                    context, imageUri, PushImageSizePolicy.Slot.CAROUSEL_ITEM)
+                            : null;
+            // decode the cached image if the content uri could not be granted
+            final Bitmap pushImage =
+                    !available || contentUri != null || fetchedImage != null
+                            ? fetchedImage
+                            : CampaignPushUtils.getCachedImage(
+                                    cacheService, imageUri, PushImageSizePolicy.Slot.CAROUSEL_ITEM);
+            if (contentUri == null && pushImage == null) {
                 Log.trace(
                         CampaignPushConstants.LOG_TAG,
                         SELF_TAG,
                         "Failed to retrieve an image from %s, will not create a new carousel item.",
                         imageUri);
-                break;
+                continue;
             }
 
             final RemoteViews carouselItem =
@@ -536,7 +511,11 @@ class ManualCarouselTemplateNotificationBuilder {
             downloadedImageUris.add(imageUri);
             imageCaptions.add(item.getCaptionText());
             imageClickActions.add(item.getInteractionUri());
-            carouselItem.setImageViewBitmap(R.id.carousel_item_image_view, pushImage);
+            if (contentUri != null) {
+                carouselItem.setImageViewUri(R.id.carousel_item_image_view, contentUri);
+            } else {
+                carouselItem.setImageViewBitmap(R.id.carousel_item_image_view, pushImage);
+            }
             carouselItem.setTextViewText(R.id.carousel_item_caption, item.getCaptionText());
 
             // assign a click action pending intent for each carousel item
@@ -570,4 +549,45 @@ class ManualCarouselTemplateNotificationBuilder {
 
         return itemData;
     }
+
+    /**
+     * Retrieves the images of the carousel items. Images which are not served by the push image
+     * content provider are kept within the parcel size budget of the notification.
+     *
+     * @param cacheService the AEPSDK {@link CacheService} to use for caching or retrieving
+     *     downloaded image assets
+     * @param items {@link List} of {@link CarouselPushTemplate.CarouselItem}s to retrieve images
+     *     for
+     * @param prefetchedImages the {@link CarouselImageFetcher.Result} retrieved when the push
+     *     message was received, or null if the images were not retrieved yet
+     * @param cachedImagesOnly {@code boolean} if true, no image is downloaded
+     * @param useContentUris {@code boolean} if true, the images are served by the push image
+     *     content provider
+     * @return a {@link CarouselImageFetcher.Result} containing the images in payload order
+     */
+    private static CarouselImageFetcher.Result getImages(
+            final CacheService cacheService,
+            final List<CarouselPushTemplate.CarouselItem> items,
+            final CarouselImageFetcher.Result prefetchedImages,
+            final boolean cachedImagesOnly,
+            final boolean useContentUris) {
+        // retrieve all carousel images in parallel
+        final CarouselImageFetcher.Result fetchedImages =
+                prefetchedImages != null
+                        ? prefetchedImages
+                        : CarouselImageFetcher.fetch(
+                                cacheService,
+                                items,
+                                PushImageSizePolicy.Slot.CAROUSEL_ITEM,
+                                cachedImagesOnly,
+                                null);
+        // images served by the push image content provider are not carried by the notification
+        // parcel, otherwise keep the bitmaps attached to the notification within the parcel size
+        // budget
+        return useContentUris
+                ? fetchedImages
+                : NotificationBitmapBudget.fit(
+                        fetchedImages,
+                        CampaignPushConstants.DefaultValues.CAROUSEL_MINIMUM_IMAGE_COUNT);
+    }
 }
@@ -0,0 +1,199 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the bitmaps attached to a notification within a parcel size budget.
+ *
+ * <p>Bitmaps set on {@code RemoteViews} are written into the notification parcel, which is sent
+ * to the system in a single binder transaction. A notification whose parcel exceeds the binder
+ * transaction limit is dropped or can crash the system UI. Before the bitmaps are attached, their
+ * parcel size is estimated and, if it exceeds the budget, the bitmaps are scaled down, but by no
+ * more than {@link #MIN_SCALE}. If they still exceed the budget, the trailing bitmaps are dropped
+ * until the budget is met or only the required minimum number of bitmaps remains. The budget
+ * defaults to {@link CampaignPushConstants.DefaultValues#NOTIFICATION_BITMAP_BUDGET_IN_BYTES}.
+ */
+class NotificationBitmapBudget {
+    private static final String SELF_TAG = "NotificationBitmapBudget";
+    // scaling the bitmaps further makes them visibly blurry
+    private static final float MIN_SCALE = 0.5f;
+    // leaves room for rounding when the scaled bitmap sizes are computed
+    private static final float SCALE_MARGIN = 0.95f;
+
+    private static volatile long budgetInBytes =
+            CampaignPushConstants.DefaultValues.NOTIFICATION_BITMAP_BUDGET_IN_BYTES;
+    private static final AtomicLong lastSizeInBytes = new AtomicLong();
+    private static final AtomicLong downscaledNotifications = new AtomicLong();
+    private static final AtomicLong droppedBitmaps = new AtomicLong();
+
+    private NotificationBitmapBudget() {}
+
+    /**
+     * Sets the maximum estimated parcel size of the bitmaps attached to a notification.
+     *
+     * @param maxSizeInBytes {@code long} containing the budget in bytes
+     */
+    static void setBudgetInBytes(final long maxSizeInBytes) {
+        if (maxSizeInBytes <= 0) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Ignoring invalid notification bitmap size limit (%d).",
+                    maxSizeInBytes);
+            return;
+        }
+        budgetInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * Fits the images of a carousel within the budget. Images which are dropped are reported as
+     * missing in the returned {@link CarouselImageFetcher.Result}.
+     *
+     * @param result the {@link CarouselImageFetcher.Result} containing the carousel images
+     * @param minimumCount {@code int} containing the minimum number of images to keep
+     * @return a {@link CarouselImageFetcher.Result} containing the images to attach
+     */
+    @NonNull static CarouselImageFetcher.Result fit(
+            final CarouselImageFetcher.Result result, final int minimumCount) {
+        final List<Integer> availableIndices = new ArrayList<>();
+        final List<Bitmap> availableImages = new ArrayList<>();
+        for (int i = 0; i < result.getItems().size(); i++) {
+            if (result.isAvailable(i)) {
+                availableIndices.add(i);
+                availableImages.add(result.getImage(i));
+            }
+        }
+
+        final List<Bitmap> fittedImages = fit(availableImages, minimumCount);
+        final Bitmap[] images = new Bitmap[result.getItems().size()];
+        for (int i = 0; i < fittedImages.size(); i++) {
+            images[availableIndices.get(i)] = fittedImages.get(i);
+        }
+        return new CarouselImageFetcher.Result(result.getItems(), Arrays.asList(images));
+    }
+
+    /**
+     * Fits a list of bitmaps within the budget. Bitmaps are dropped from the end of the list. Null
+     * entries are kept as is and don't count against the budget.
+     *
+     * @param bitmaps {@code List<Bitmap>} containing the bitmaps to attach, in display order
+     * @param minimumCount {@code int} containing the minimum number of bitmaps to keep
+     * @return {@code List<Bitmap>} containing the bitmaps to attach, which may be scaled down
+     */
+    @NonNull static List<Bitmap> fit(final List<Bitmap> bitmaps, final int minimumCount) {
+        final long budget = budgetInBytes;
+        final long originalSize = estimateSize(bitmaps);
+        if (originalSize <= budget) {
+            record(originalSize);
+            return bitmaps;
+        }
+
+        final float scale =
+                Math.max(
+                        MIN_SCALE,
+                        (float) Math.sqrt((double) budget / originalSize) * SCALE_MARGIN);
+        final List<Bitmap> fittedBitmaps = new ArrayList<>(bitmaps.size());
+        for (final Bitmap bitmap : bitmaps) {
+            fittedBitmaps.add(scale(bitmap, scale));
+        }
+        downscaledNotifications.incrementAndGet();
+
+        long size = estimateSize(fittedBitmaps);
+        int dropped = 0;
+        while (size > budget && fittedBitmaps.size() > minimumCount) {
+            final Bitmap droppedBitmap = fittedBitmaps.remove(fittedBitmaps.size() - 1);
+            if (droppedBitmap != null) {
+                size -= droppedBitmap.getByteCount();
+                dropped++;
+            }
+        }
+        droppedBitmaps.addAndGet(dropped);
+
+        Log.debug(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Notification bitmaps (%d bytes) exceeded the %d byte budget, scaled them by %.2f"
+                        + " and dropped %d of %d bitmap(s). Final size is %d bytes.",
+                originalSize,
+                budget,
+                scale,
+                dropped,
+                bitmaps.size(),
+                size);
+        if (size > budget) {
+            Log.warning(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "The %d required notification bitmap(s) still exceed the budget (%d > %d"
+                            + " bytes), the notification may fail to display.",
+                    fittedBitmaps.size(),
+                    size,
+                    budget);
+        }
+        record(size);
+        return fittedBitmaps;
+    }
+
+    /** @return the estimated parcel size of the bitmaps of the last notification built */
+    static long getLastSizeInBytes() {
+        return lastSizeInBytes.get();
+    }
+
+    /** @return the number of notifications whose bitmaps were scaled down to fit the budget */
+    static long getDownscaledCount() {
+        return downscaledNotifications.get();
+    }
+
+    /** @return the number of bitmaps dropped from notifications to fit the budget */
+    static long getDroppedCount() {
+        return droppedBitmaps.get();
+    }
+
+    private static long estimateSize(final List<Bitmap> bitmaps) {
+        // the pixels of a bitmap are written to the parcel uncompressed, the bitmap header is
+        // negligible in comparison
+        long size = 0;
+        for (final Bitmap bitmap : bitmaps) {
+            if (bitmap != null) {
+                size += bitmap.getByteCount();
+            }
+        }
+        return size;
+    }
+
+    private static Bitmap scale(final Bitmap bitmap, final float scale) {
+        if (bitmap == null) {
+            return null;
+        }
+
+        final int width = Math.max(1, Math.round(bitmap.getWidth() * scale));
+        final int height = Math.max(1, Math.round(bitmap.getHeight() * scale));
+        // the original bitmap is kept as it may be cached for later notification updates
+        return Bitmap.createScaledBitmap(bitmap, width, height, true);
+    }
+
+    private static void record(final long size) {
+        lastSizeInBytes.set(size);
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Notification bitmaps estimated parcel size is %d bytes.",
+                size);
+    }
+}
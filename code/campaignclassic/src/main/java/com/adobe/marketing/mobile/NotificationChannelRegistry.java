@@ -0,0 +1,103 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.os.Build;
+import androidx.annotation.RequiresApi;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-process registry of the notification channels which exist for the application.
+ *
+ * <p>Each {@code NotificationManager#getNotificationChannel(String)} call is a binder call to the
+ * system. The registry is warmed with a single {@code getNotificationChannels()} call and then
+ * answers channel existence queries from memory. Channels can be deleted outside of the extension
+ * and the notification manager offers no way to detect it, so the registry is warmed again once
+ * it is older than
+ * {@link CampaignPushConstants.DefaultValues#NOTIFICATION_CHANNEL_REGISTRY_TTL_IN_MILLISECONDS}.
+ * Missing channels are created in a single {@code createNotificationChannels(List)} call.
+ */
+@RequiresApi(api = Build.VERSION_CODES.O)
+class NotificationChannelRegistry {
+    private static final String SELF_TAG = "NotificationChannelRegistry";
+
+    private static final Set<String> channelIds = new HashSet<>();
+    // time the registry was warmed, 0 if it was never warmed
+    private static long warmTime;
+
+    private NotificationChannelRegistry() {}
+
+    /**
+     * Determines if a notification channel exists.
+     *
+     * @param notificationManager the {@link NotificationManager} used to warm the registry
+     * @param channelId {@code String} containing the channel id
+     * @return true if the channel exists
+     */
+    static synchronized boolean exists(
+            final NotificationManager notificationManager, final String channelId) {
+        warm(notificationManager);
+        return channelIds.contains(channelId);
+    }
+
+    /**
+     * Creates notification channels in a single batch and registers them.
+     *
+     * @param notificationManager the {@link NotificationManager} used to create the channels
+     * @param channels {@code List<NotificationChannel>} containing the channels to create
+     */
+    static synchronized void create(
+            final NotificationManager notificationManager,
+            final List<NotificationChannel> channels) {
+        if (channels.isEmpty()) {
+            return;
+        }
+
+        notificationManager.createNotificationChannels(channels);
+        for (final NotificationChannel channel : channels) {
+            channelIds.add(channel.getId());
+        }
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Created %d notification channel(s).",
+                channels.size());
+    }
+
+    private static void warm(final NotificationManager notificationManager) {
+        final long now = System.currentTimeMillis();
+        if (warmTime != 0
+                && now - warmTime
+                        < CampaignPushConstants.DefaultValues
+                                .NOTIFICATION_CHANNEL_REGISTRY_TTL_IN_MILLISECONDS) {
+            return;
+        }
+
+        final List<NotificationChannel> channels = notificationManager.getNotificationChannels();
+        channelIds.clear();
+        if (channels != null) {
+            for (final NotificationChannel channel : channels) {
+                channelIds.add(channel.getId());
+            }
+        }
+        warmTime = now;
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Loaded %d existing notification channel(s).",
+                channelIds.size());
+    }
+}
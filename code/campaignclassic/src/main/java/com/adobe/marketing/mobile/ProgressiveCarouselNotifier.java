@@ -0,0 +1,212 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.os.Build;
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Displays a carousel notification progressively.
+ *
+ * <p>A basic notification is posted first, using the first carousel image if it is already cached
+ * or text only otherwise. The carousel images are then retrieved in parallel and, once enough of
+ * them are available, the notification is silently replaced by the carousel and updated as more
+ * images arrive until the carousel download deadline is reached. Updates are posted on the
+ * {@link CampaignPushConstants.DefaultValues#SILENT_NOTIFICATION_CHANNEL_ID} channel, at least
+ * {@link CampaignPushConstants.DefaultValues#PROGRESSIVE_CAROUSEL_UPDATE_INTERVAL_IN_MILLISECONDS}
+ * apart.
+ */
+class ProgressiveCarouselNotifier {
+    private static final String SELF_TAG = "ProgressiveCarouselNotifier";
+
+    private final Context context;
+    private final NotificationManagerCompat notificationManager;
+    private final int notificationId;
+    private final CarouselPushTemplate pushTemplate;
+    private int displayedImageCount;
+    private long lastUpdateTime;
+
+    private ProgressiveCarouselNotifier(
+            final Context context,
+            final NotificationManagerCompat notificationManager,
+            final int notificationId,
+            final CarouselPushTemplate pushTemplate) {
+        this.context = context;
+        this.notificationManager = notificationManager;
+        this.notificationId = notificationId;
+        this.pushTemplate = pushTemplate;
+    }
+
+    /**
+     * Posts a basic notification for the carousel then updates it with the carousel images as
+     * they are retrieved. This method blocks until all images are retrieved or until the carousel
+     * download deadline is reached.
+     *
+     * @param context the application {@link Context}
+     * @param notificationManager the {@link NotificationManagerCompat} used to post the
+     *     notification
+     * @param notificationId {@code int} containing the id of the notification to post and update
+     * @param pushTemplate the {@link CarouselPushTemplate} to display
+     * @throws NotificationConstructionFailedException if the initial notification could not be
+     *     constructed
+     */
+    static void display(
+            @NonNull final Context context,
+            @NonNull final NotificationManagerCompat notificationManager,
+            final int notificationId,
+            @NonNull final CarouselPushTemplate pushTemplate)
+            throws NotificationConstructionFailedException {
+        final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
+        if (cacheService == null) {
+            throw new NotificationConstructionFailedException(
+                    "Cache service is null, carousel notification will not be constructed.");
+        }
+
+        new ProgressiveCarouselNotifier(context, notificationManager, notificationId, pushTemplate)
+                .display(cacheService);
+    }
+
+    private void display(final CacheService cacheService)
+            throws NotificationConstructionFailedException {
+        final long displayStartTime = System.currentTimeMillis();
+        final List<CarouselPushTemplate.CarouselItem> items = pushTemplate.getCarouselItems();
+
+        // post the initial notification right away, only use the first image if it is cached
+        final String firstImageUri = items.isEmpty() ? null : items.get(0).getImageUri();
+        final boolean firstImageCached =
+                firstImageUri != null
+                        && CampaignPushUtils.getCachedImage(
+                                        cacheService,
+                                        firstImageUri,
+                                        PushImageSizePolicy.Slot.BASIC_EXPANDED)
+                                != null;
+        notificationManager.notify(
+                notificationId,
+                buildBasicNotification(firstImageCached ? firstImageUri : null).build());
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Posted the initial carousel notification (with image: %b) after %d milliseconds.",
+                firstImageCached,
+                System.currentTimeMillis() - displayStartTime);
+
+        final CarouselImageFetcher.Result result =
+                CarouselImageFetcher.fetch(
+                        cacheService, items, getImageSlot(), false, this::onImageAvailable);
+
+        final int availableCount = result.getAvailableCount();
+        if (availableCount >= CampaignPushConstants.DefaultValues.CAROUSEL_MINIMUM_IMAGE_COUNT) {
+            if (availableCount > displayedImageCount) {
+                updateCarousel(result);
+            }
+        } else if (availableCount > 0 && !firstImageCached) {
+            // not enough images for a carousel, show the first retrieved image instead
+            for (int i = 0; i < items.size(); i++) {
+                if (result.isAvailable(i)) {
+                    updateBasicNotification(items.get(i).getImageUri());
+                    break;
+                }
+            }
+        }
+
+        Log.debug(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Progressive carousel rendering completed with %d of %d image(s) in %d"
+                        + " milliseconds.",
+                displayedImageCount,
+                items.size(),
+                System.currentTimeMillis() - displayStartTime);
+    }
+
+    private PushImageSizePolicy.Slot getImageSlot() {
+        return CampaignPushConstants.DefaultValues.MANUAL_CAROUSEL_MODE.equals(
+                                pushTemplate.getCarouselOperationMode())
+                        && CampaignPushConstants.DefaultValues.FILMSTRIP_CAROUSEL_MODE.equals(
+                                pushTemplate.getCarouselLayoutType())
+                ? PushImageSizePolicy.Slot.FILMSTRIP_CENTER
+                : PushImageSizePolicy.Slot.CAROUSEL_ITEM;
+    }
+
+    private void onImageAvailable(final CarouselImageFetcher.Result partialResult) {
+        final int availableCount = partialResult.getAvailableCount();
+        if (availableCount < CampaignPushConstants.DefaultValues.CAROUSEL_MINIMUM_IMAGE_COUNT
+                || System.currentTimeMillis() - lastUpdateTime
+                        < CampaignPushConstants.DefaultValues
+                                .PROGRESSIVE_CAROUSEL_UPDATE_INTERVAL_IN_MILLISECONDS) {
+            return;
+        }
+
+        updateCarousel(partialResult);
+    }
+
+    private void updateCarousel(final CarouselImageFetcher.Result availableImages) {
+        // build the carousel from the images retrieved so far, without fetching them again on the
+        // download threads which are still busy with the remaining images
+        pushTemplate.setPrefetchedImages(availableImages);
+        try {
+            notify(CarouselTemplateNotificationBuilder.construct(pushTemplate, context));
+            displayedImageCount = availableImages.getAvailableCount();
+        } catch (final NotificationConstructionFailedException exception) {
+            Log.warning(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to update the carousel notification: %s",
+                    exception.getLocalizedMessage());
+        } finally {
+            pushTemplate.setPrefetchedImages(null);
+        }
+    }
+
+    private void updateBasicNotification(final String imageUri) {
+        try {
+            notify(buildBasicNotification(imageUri));
+        } catch (final NotificationConstructionFailedException exception) {
+            Log.warning(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to update the basic notification: %s",
+                    exception.getLocalizedMessage());
+        }
+    }
+
+    private NotificationCompat.Builder buildBasicNotification(final String imageUri)
+            throws NotificationConstructionFailedException {
+        final Map<String, String> basicData = new HashMap<>(pushTemplate.getData());
+        if (imageUri == null) {
+            basicData.remove(CampaignPushConstants.PushPayloadKeys.IMAGE_URL);
+        } else {
+            basicData.put(CampaignPushConstants.PushPayloadKeys.IMAGE_URL, imageUri);
+        }
+        return BasicTemplateNotificationBuilder.construct(
+                new BasicPushTemplate(basicData), context);
+    }
+
+    private void notify(final NotificationCompat.Builder builder) {
+        // updates must not alert the user again
+        builder.setOnlyAlertOnce(true).setSound(null);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            builder.setChannelId(
+                    CampaignPushConstants.DefaultValues.SILENT_NOTIFICATION_CHANNEL_ID);
+        }
+        notificationManager.notify(notificationId, builder.build());
+        lastUpdateTime = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,205 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.os.Process;
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.DataReader;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+/**
+ * Downloads push notification images into the push image cache location ahead of time so that
+ * notifications referencing them can be rendered from cache.
+ *
+ * <p>Prefetching runs on a single background priority thread. Every prefetch request is limited
+ * to {@link CampaignPushConstants.DefaultValues#PREFETCH_STORAGE_BUDGET_IN_BYTES} of newly cached
+ * data, and all pending or running prefetch requests can be cancelled with {@link #cancel()}.
+ */
+class PushAssetPrefetcher {
+    private static final String SELF_TAG = "PushAssetPrefetcher";
+    private static final String THREAD_NAME = "CampaignClassicAssetPrefetch";
+
+    private static class ExecutorHolder {
+        static final ExecutorService INSTANCE =
+                Executors.newSingleThreadExecutor(
+                        runnable ->
+                                new Thread(
+                                        () -> {
+                                            Process.setThreadPriority(
+                                                    Process.THREAD_PRIORITY_BACKGROUND);
+                                            runnable.run();
+                                        },
+                                        THREAD_NAME));
+    }
+
+    private static ExecutorService getExecutor() {
+        return ExecutorHolder.INSTANCE;
+    }
+
+    // incremented on cancel, requests submitted before the increment stop at the next image
+    private static final AtomicInteger generation = new AtomicInteger();
+
+    private PushAssetPrefetcher() {}
+
+    /**
+     * Queues the provided image urls to be downloaded into the push image cache.
+     *
+     * @param urls {@code List<String>} containing the image urls to prefetch
+     */
+    static void prefetch(final List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            return;
+        }
+
+        // remove duplicates while keeping the requested order
+        final List<String> pendingUrls = new ArrayList<>(new LinkedHashSet<>(urls));
+        final int requestGeneration = generation.get();
+        getExecutor().submit(() -> prefetchUrls(pendingUrls, requestGeneration));
+    }
+
+    /** Cancels all pending prefetch requests and stops the running one at the next image. */
+    static void cancel() {
+        generation.incrementAndGet();
+        Log.debug(CampaignPushConstants.LOG_TAG, SELF_TAG, "Cancelled push asset prefetching.");
+    }
+
+    /**
+     * Extracts the image urls referenced by a push notification payload.
+     *
+     * @param messageData {@code Map<String, String>} containing a push notification payload
+     * @return {@code List<String>} containing the image urls found in the payload
+     */
+    @NonNull static List<String> getImageUrls(final Map<String, String> messageData) {
+        final Set<String> imageUrls = new LinkedHashSet<>();
+        if (messageData == null || messageData.isEmpty()) {
+            return new ArrayList<>(imageUrls);
+        }
+
+        addUrl(
+                imageUrls,
+                DataReader.optString(
+                        messageData, CampaignPushConstants.PushPayloadKeys.IMAGE_URL, null));
+
+        final String carouselItems =
+                DataReader.optString(
+                        messageData, CampaignPushConstants.PushPayloadKeys.CAROUSEL_ITEMS, null);
+        if (!StringUtils.isNullOrEmpty(carouselItems)) {
+            try {
+                final JSONArray carouselItemArray = new JSONArray(carouselItems);
+                for (int i = 0; i < carouselItemArray.length(); i++) {
+                    final JSONObject carouselItem = carouselItemArray.optJSONObject(i);
+                    if (carouselItem != null) {
+                        addUrl(
+                                imageUrls,
+                                carouselItem.optString(
+                                        CampaignPushConstants.PushPayloadKeys.CAROUSEL_ITEM_IMAGE,
+                                        null));
+                    }
+                }
+            } catch (final JSONException exception) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Unable to read the carousel items to prefetch: %s",
+                        exception.getLocalizedMessage());
+            }
+        }
+
+        final String prefetchAssets =
+                DataReader.optString(
+                        messageData, CampaignPushConstants.PushPayloadKeys.PREFETCH_ASSETS, null);
+        if (!StringUtils.isNullOrEmpty(prefetchAssets)) {
+            try {
+                final JSONArray prefetchAssetArray = new JSONArray(prefetchAssets);
+                for (int i = 0; i < prefetchAssetArray.length(); i++) {
+                    addUrl(imageUrls, prefetchAssetArray.optString(i, null));
+                }
+            } catch (final JSONException exception) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Unable to read the assets to prefetch: %s",
+                        exception.getLocalizedMessage());
+            }
+        }
+
+        return new ArrayList<>(imageUrls);
+    }
+
+    private static void addUrl(final Set<String> imageUrls, final String url) {
+        if (!StringUtils.isNullOrEmpty(url)) {
+            imageUrls.add(url);
+        }
+    }
+
+    private static void prefetchUrls(final List<String> urls, final int requestGeneration) {
+        final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
+        if (cacheService == null) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Cache service is not available, push assets will not be prefetched.");
+            return;
+        }
+
+        long remainingBudget = CampaignPushConstants.DefaultValues.PREFETCH_STORAGE_BUDGET_IN_BYTES;
+        int prefetchedCount = 0;
+        for (final String url : urls) {
+            if (requestGeneration != generation.get()) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Push asset prefetch was cancelled after %d of %d image(s).",
+                        prefetchedCount,
+                        urls.size());
+                return;
+            }
+
+            if (remainingBudget <= 0) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Push asset prefetch storage budget was reached after %d of %d image(s).",
+                        prefetchedCount,
+                        urls.size());
+                return;
+            }
+
+            final long cachedBytes =
+                    CampaignPushUtils.prefetchImage(cacheService, url, remainingBudget);
+            if (cachedBytes >= 0) {
+                remainingBudget -= cachedBytes;
+                prefetchedCount++;
+            }
+        }
+
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Prefetched %d of %d push image(s).",
+                prefetchedCount,
+                urls.size());
+    }
+}
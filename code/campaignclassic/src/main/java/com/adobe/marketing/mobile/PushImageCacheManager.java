@@ -0,0 +1,572 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.Context;
+import android.os.Process;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.DeviceInforming;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheExpiry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.StringEncoder;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Manages the size of the Campaign Classic extension's push image cache location.
+ *
+ * <p>The {@link CacheService} only expires entries by time, so this class keeps an index of the
+ * size, expiry and last access time of every image written to the push image cache. When the
+ * total size of the cached images exceeds the configured byte budget, the least recently accessed
+ * images are removed by a sweep running on a background priority thread. The index is persisted
+ * in a {@link NamedCollection} on the same thread, {@link #WRITE_PERSIST_DELAY_IN_MILLISECONDS}
+ * after an image is written, while the access time updates of cache hits are batched and
+ * persisted after {@link #ACCESS_PERSIST_DELAY_IN_MILLISECONDS}. The manager exposes cache
+ * statistics through {@link #getStats()}.
+ *
+ * <p>Images cached before the index existed, or whose index entry was not persisted before the
+ * process was killed, are added to the index once from the files of the cache location. The
+ * {@link CacheService} names these files after the hash of their key, so they are indexed by file
+ * name until they are looked up or written again by key.
+ */
+class PushImageCacheManager {
+    private static final String SELF_TAG = "PushImageCacheManager";
+    private static final String INDEX_KEY = "imagecacheindex";
+    private static final String INDEX_SEEDED_KEY = "imagecacheindexseeded";
+    // index keys of the files found in the cache location which were not indexed by key
+    private static final String FILE_KEY_PREFIX = "file:";
+    // the cache service directory and metadata file suffix, see FileCacheService
+    private static final String CACHE_SERVICE_ROOT_DIR = "aepsdkcache";
+    private static final String CACHE_SERVICE_METADATA_SUFFIX = "_metadata.txt";
+    private static final String INDEX_VALUE_SEPARATOR = ",";
+    private static final String THREAD_NAME = "CampaignClassicImageCacheSweep";
+    private static final long SWEEP_DELAY_IN_MILLISECONDS = 5000;
+    private static final long WRITE_PERSIST_DELAY_IN_MILLISECONDS = 1000;
+    private static final long ACCESS_PERSIST_DELAY_IN_MILLISECONDS = 30000;
+    // evict down to 90% of the budget so that a sweep is not needed after every write
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    /** Index entry for a cached image. */
+    private static class IndexEntry {
+        final long sizeInBytes;
+        final long expiresAt;
+        long lastAccess;
+
+        IndexEntry(final long sizeInBytes, final long expiresAt, final long lastAccess) {
+            this.sizeInBytes = sizeInBytes;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        String serialize() {
+            return sizeInBytes
+                    + INDEX_VALUE_SEPARATOR
+                    + expiresAt
+                    + INDEX_VALUE_SEPARATOR
+                    + lastAccess;
+        }
+
+        static IndexEntry deserialize(final String value) {
+            if (StringUtils.isNullOrEmpty(value)) {
+                return null;
+            }
+
+            final String[] parts = value.split(INDEX_VALUE_SEPARATOR);
+            if (parts.length != 3) {
+                return null;
+            }
+
+            try {
+                return new IndexEntry(
+                        Long.parseLong(parts[0]),
+                        Long.parseLong(parts[1]),
+                        Long.parseLong(parts[2]));
+            } catch (final NumberFormatException exception) {
+                return null;
+            }
+        }
+    }
+
+    private static class InstanceHolder {
+        static final PushImageCacheManager INSTANCE = new PushImageCacheManager();
+    }
+
+    private static class ExecutorHolder {
+        static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable ->
+                                new Thread(
+                                        () -> {
+                                            Process.setThreadPriority(
+                                                    Process.THREAD_PRIORITY_BACKGROUND);
+                                            runnable.run();
+                                        },
+                                        THREAD_NAME));
+    }
+
+    static PushImageCacheManager getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    private final ScheduledExecutorService executor;
+    private final Object indexLock = new Object();
+    private Map<String, IndexEntry> index;
+    private long sizeInBytes;
+    private long maxSizeInBytes =
+            CampaignPushConstants.DefaultValues.PUSH_IMAGE_CACHE_MAX_SIZE_IN_BYTES;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private boolean sweepScheduled;
+    private ScheduledFuture<?> persistTask;
+    private long persistDueAt;
+
+    private PushImageCacheManager() {
+        this(ExecutorHolder.INSTANCE);
+    }
+
+    @VisibleForTesting
+    PushImageCacheManager(final ScheduledExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Sets the maximum total size of the images kept in the push image cache. Images are evicted
+     * by the next sweep if the cache is larger than the new budget.
+     *
+     * @param maxSizeInBytes {@code long} containing the byte budget of the push image cache
+     */
+    void setMaxSizeInBytes(final long maxSizeInBytes) {
+        if (maxSizeInBytes <= 0) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Ignoring invalid push image cache size limit (%d).",
+                    maxSizeInBytes);
+            return;
+        }
+
+        synchronized (indexLock) {
+            this.maxSizeInBytes = maxSizeInBytes;
+        }
+        scheduleSweep();
+    }
+
+    /**
+     * Retrieves an image from the push image cache location and records the lookup in the cache
+     * statistics.
+     *
+     * @param cacheService the AEPSDK {@link CacheService}
+     * @param key {@code String} containing the cache key of the image
+     * @return the {@link CacheResult} or null if the image is not cached
+     */
+    CacheResult get(final CacheService cacheService, final String key) {
+        final CacheResult cacheResult =
+                cacheService.get(CampaignPushUtils.getAssetCacheLocation(), key);
+        synchronized (indexLock) {
+            final Map<String, IndexEntry> entries = getIndex();
+            IndexEntry entry = entries.get(key);
+            if (entry == null && cacheResult != null) {
+                entry = adoptFileEntry(entries, key);
+            }
+            if (cacheResult == null) {
+                missCount++;
+                if (entry != null) {
+                    // the cache service removed the entry after it expired
+                    entries.remove(key);
+                    sizeInBytes -= entry.sizeInBytes;
+                }
+            } else {
+                hitCount++;
+                if (entry != null) {
+                    entry.lastAccess = System.currentTimeMillis();
+                }
+            }
+        }
+
+        if (cacheResult != null) {
+            schedulePersist(ACCESS_PERSIST_DELAY_IN_MILLISECONDS);
+        }
+        return cacheResult;
+    }
+
+    /**
+     * Writes an image to the push image cache location and adds it to the cache index. A sweep is
+     * scheduled if the cache exceeds its byte budget.
+     *
+     * @param cacheService the AEPSDK {@link CacheService}
+     * @param key {@code String} containing the cache key of the image
+     * @param imageData {@code byte[]} containing the encoded image
+     * @param expiryInMillis {@code long} containing how long the image should be cached
+     * @param metadata {@code Map<String, String>} containing the metadata of the cache entry
+     * @return true if the image was cached
+     */
+    boolean set(
+            final CacheService cacheService,
+            final String key,
+            final byte[] imageData,
+            final long expiryInMillis,
+            final Map<String, String> metadata) {
+        final CacheEntry cacheEntry =
+                new CacheEntry(
+                        new ByteArrayInputStream(imageData),
+                        CacheExpiry.after(expiryInMillis),
+                        metadata);
+        if (!cacheService.set(CampaignPushUtils.getAssetCacheLocation(), key, cacheEntry)) {
+            return false;
+        }
+
+        final boolean overBudget;
+        synchronized (indexLock) {
+            final long now = System.currentTimeMillis();
+            final Map<String, IndexEntry> entries = getIndex();
+            final IndexEntry previousEntry =
+                    entries.put(key, new IndexEntry(imageData.length, now + expiryInMillis, now));
+            if (previousEntry != null) {
+                sizeInBytes -= previousEntry.sizeInBytes;
+            }
+            // the file of the key was overwritten, it is now indexed by key
+            final IndexEntry fileEntry = entries.remove(getFileKey(key));
+            if (fileEntry != null) {
+                sizeInBytes -= fileEntry.sizeInBytes;
+            }
+            sizeInBytes += imageData.length;
+            overBudget = sizeInBytes > maxSizeInBytes;
+        }
+
+        // the index is written off the notification path. if the process is killed before, the
+        // file is indexed again from the cache location
+        schedulePersist(WRITE_PERSIST_DELAY_IN_MILLISECONDS);
+
+        if (overBudget) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Push image cache exceeds its byte budget, scheduling a sweep.");
+            scheduleSweep();
+        }
+        return true;
+    }
+
+    /** @return a {@link PushImageCacheStats} snapshot of the push image cache */
+    @NonNull PushImageCacheStats getStats() {
+        synchronized (indexLock) {
+            return new PushImageCacheStats(
+                    getIndex().size(),
+                    sizeInBytes,
+                    maxSizeInBytes,
+                    hitCount,
+                    missCount,
+                    evictionCount,
+                    NotificationBitmapBudget.getLastSizeInBytes(),
+                    NotificationBitmapBudget.getDownscaledCount(),
+                    NotificationBitmapBudget.getDroppedCount());
+        }
+    }
+
+    private void scheduleSweep() {
+        synchronized (indexLock) {
+            if (sweepScheduled) {
+                return;
+            }
+            sweepScheduled = true;
+        }
+
+        executor.schedule(this::sweep, SWEEP_DELAY_IN_MILLISECONDS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules the index to be persisted, unless it is already scheduled to be persisted sooner.
+     *
+     * @param delayInMillis {@code long} containing the maximum delay before the index is persisted
+     */
+    private void schedulePersist(final long delayInMillis) {
+        synchronized (indexLock) {
+            final long dueAt = System.currentTimeMillis() + delayInMillis;
+            if (persistTask != null) {
+                if (persistDueAt <= dueAt) {
+                    return;
+                }
+                persistTask.cancel(false);
+            }
+            persistDueAt = dueAt;
+            persistTask =
+                    executor.schedule(this::persistIndex, delayInMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Removes expired entries from the index, evicts the least recently accessed images until the
+     * cache is within its byte budget and persists the index.
+     */
+    private void sweep() {
+        final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
+        final List<String> evictedKeys = new ArrayList<>();
+        final List<String> removedKeys = new ArrayList<>();
+        synchronized (indexLock) {
+            sweepScheduled = false;
+            final long now = System.currentTimeMillis();
+            final Map<String, IndexEntry> entries = getIndex();
+
+            final Iterator<Map.Entry<String, IndexEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, IndexEntry> entry = iterator.next();
+                if (entry.getValue().expiresAt <= now) {
+                    sizeInBytes -= entry.getValue().sizeInBytes;
+                    removedKeys.add(entry.getKey());
+                    iterator.remove();
+                }
+            }
+
+            if (sizeInBytes > maxSizeInBytes && cacheService != null) {
+                final List<Map.Entry<String, IndexEntry>> entriesByAccess =
+                        new ArrayList<>(entries.entrySet());
+                Collections.sort(
+                        entriesByAccess,
+                        (first, second) ->
+                                Long.compare(
+                                        first.getValue().lastAccess,
+                                        second.getValue().lastAccess));
+                final long targetSize = (long) (maxSizeInBytes * EVICTION_TARGET_RATIO);
+                for (final Map.Entry<String, IndexEntry> entry : entriesByAccess) {
+                    if (sizeInBytes <= targetSize) {
+                        break;
+                    }
+                    evictedKeys.add(entry.getKey());
+                    sizeInBytes -= entry.getValue().sizeInBytes;
+                }
+
+                for (final String key : evictedKeys) {
+                    entries.remove(key);
+                }
+                evictionCount += evictedKeys.size();
+                removedKeys.addAll(evictedKeys);
+            }
+        }
+        persistIndex();
+
+        final String cacheLocation = CampaignPushUtils.getAssetCacheLocation();
+        final Context context =
+                ServiceProvider.getInstance().getAppContextService().getApplicationContext();
+        for (final String key : removedKeys) {
+            if (key.startsWith(FILE_KEY_PREFIX)) {
+                // the cache service can't remove files without their key
+                deleteCacheFile(cacheLocation, key.substring(FILE_KEY_PREFIX.length()));
+            } else {
+                PushImageContentProvider.revokeContentUris(context, key);
+            }
+        }
+
+        if (cacheService != null) {
+            for (final String key : evictedKeys) {
+                if (!key.startsWith(FILE_KEY_PREFIX)) {
+                    cacheService.remove(cacheLocation, key);
+                    PushImageMemoryCache.getInstance().remove(key);
+                }
+            }
+        }
+
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Push image cache sweep evicted %d image(s). Cache stats: %s",
+                evictedKeys.size(),
+                getStats());
+    }
+
+    /** Must be called while holding {@link #indexLock}. */
+    private Map<String, IndexEntry> getIndex() {
+        if (index != null) {
+            return index;
+        }
+
+        index = new HashMap<>();
+        sizeInBytes = 0;
+        final NamedCollection dataStore = getDataStore();
+        final Map<String, String> persistedIndex =
+                dataStore == null ? null : dataStore.getMap(INDEX_KEY);
+        if (persistedIndex != null) {
+            for (final Map.Entry<String, String> persistedEntry : persistedIndex.entrySet()) {
+                final IndexEntry entry = IndexEntry.deserialize(persistedEntry.getValue());
+                if (entry != null) {
+                    index.put(persistedEntry.getKey(), entry);
+                    sizeInBytes += entry.sizeInBytes;
+                }
+            }
+        }
+
+        if (dataStore != null && !dataStore.getBoolean(INDEX_SEEDED_KEY, false)) {
+            executor.execute(this::seedIndex);
+        }
+        return index;
+    }
+
+    /**
+     * Adds the files of the cache location which are not in the index, so that they count against
+     * the byte budget and can be evicted. Runs once per installation.
+     */
+    private void seedIndex() {
+        final File cacheDirectory = getCacheDirectory(CampaignPushUtils.getAssetCacheLocation());
+        final File[] files = cacheDirectory == null ? null : cacheDirectory.listFiles();
+        final boolean overBudget;
+        int seededCount = 0;
+        synchronized (indexLock) {
+            final Map<String, IndexEntry> entries = getIndex();
+            if (files != null) {
+                final long maxAge =
+                        CampaignPushConstants.DefaultValues
+                                .PUSH_NOTIFICATION_IMAGE_CACHE_MAX_AGE_IN_MILLISECONDS;
+                final Set<String> indexedFileNames = new HashSet<>();
+                for (final String key : entries.keySet()) {
+                    indexedFileNames.add(getFileName(key));
+                }
+
+                for (final File file : files) {
+                    final String fileName = file.getName();
+                    if (!file.isFile()
+                            || fileName.endsWith(CACHE_SERVICE_METADATA_SUFFIX)
+                            || indexedFileNames.contains(fileName)) {
+                        continue;
+                    }
+
+                    final long lastModified = file.lastModified();
+                    entries.put(
+                            FILE_KEY_PREFIX + fileName,
+                            new IndexEntry(file.length(), lastModified + maxAge, lastModified));
+                    sizeInBytes += file.length();
+                    seededCount++;
+                }
+            }
+            overBudget = sizeInBytes > maxSizeInBytes;
+        }
+
+        if (seededCount > 0) {
+            persistIndex();
+        }
+        final NamedCollection dataStore = getDataStore();
+        if (dataStore != null) {
+            dataStore.setBoolean(INDEX_SEEDED_KEY, true);
+        }
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Added %d untracked image(s) to the push image cache index.",
+                seededCount);
+        if (overBudget) {
+            scheduleSweep();
+        }
+    }
+
+    /**
+     * Moves the index entry of a file found in the cache location to the key of the file. Must be
+     * called while holding {@link #indexLock}.
+     *
+     * @param entries {@code Map<String, IndexEntry>} containing the index
+     * @param key {@code String} containing the cache key of an image which was found in the cache
+     * @return the moved {@link IndexEntry} or null if the file of the key was not indexed
+     */
+    private IndexEntry adoptFileEntry(final Map<String, IndexEntry> entries, final String key) {
+        final IndexEntry fileEntry = entries.remove(getFileKey(key));
+        if (fileEntry != null) {
+            entries.put(key, fileEntry);
+        }
+        return fileEntry;
+    }
+
+    /**
+     * Persists the index. The index is serialized while holding {@link #indexLock} and written
+     * without holding it.
+     */
+    private void persistIndex() {
+        final Map<String, String> serializedIndex = new HashMap<>();
+        synchronized (indexLock) {
+            persistTask = null;
+            for (final Map.Entry<String, IndexEntry> entry : getIndex().entrySet()) {
+                serializedIndex.put(entry.getKey(), entry.getValue().serialize());
+            }
+        }
+
+        final NamedCollection dataStore = getDataStore();
+        if (dataStore == null) {
+            return;
+        }
+        if (serializedIndex.isEmpty()) {
+            dataStore.remove(INDEX_KEY);
+        } else {
+            dataStore.setMap(INDEX_KEY, serializedIndex);
+        }
+    }
+
+    private static String getFileKey(final String key) {
+        return FILE_KEY_PREFIX + getFileName(key);
+    }
+
+    private static String getFileName(final String key) {
+        return key.startsWith(FILE_KEY_PREFIX)
+                ? key.substring(FILE_KEY_PREFIX.length())
+                : StringEncoder.sha2hash(key);
+    }
+
+    private static File getCacheDirectory(final String cacheLocation) {
+        final DeviceInforming deviceInfoService =
+                ServiceProvider.getInstance().getDeviceInfoService();
+        final File applicationCacheDir =
+                deviceInfoService == null ? null : deviceInfoService.getApplicationCacheDir();
+        if (applicationCacheDir == null || cacheLocation == null) {
+            return null;
+        }
+        return new File(
+                applicationCacheDir, CACHE_SERVICE_ROOT_DIR + File.separator + cacheLocation);
+    }
+
+    private static void deleteCacheFile(final String cacheLocation, final String fileName) {
+        final File cacheDirectory = getCacheDirectory(cacheLocation);
+        if (cacheDirectory == null) {
+            return;
+        }
+        // the metadata file only exists if the image was cached with metadata
+        new File(cacheDirectory, fileName + CACHE_SERVICE_METADATA_SUFFIX).delete();
+        if (!new File(cacheDirectory, fileName).delete()) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to delete untracked cached image %s.",
+                    fileName);
+        }
+    }
+
+    private static NamedCollection getDataStore() {
+        final DataStoring dataStoreService = ServiceProvider.getInstance().getDataStoreService();
+        return dataStoreService == null
+                ? null
+                : dataStoreService.getNamedCollection(CampaignPushConstants.PUSH_DATASTORE_NAME);
+    }
+}
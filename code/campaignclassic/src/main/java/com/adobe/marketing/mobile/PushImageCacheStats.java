@@ -0,0 +1,125 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import androidx.annotation.NonNull;
+import java.util.Locale;
+
+/**
+ * Snapshot of the Campaign Classic extension's push image cache statistics, returned by {@link
+ * CampaignClassic#getImageCacheStats()}. It also reports how the images of the notifications were
+ * kept within the notification image size limit. Counts cover the lifetime of the current process.
+ */
+public final class PushImageCacheStats {
+    private final int entryCount;
+    private final long sizeInBytes;
+    private final long maxSizeInBytes;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long lastNotificationImageSizeInBytes;
+    private final long downscaledNotificationCount;
+    private final long droppedNotificationImageCount;
+
+    PushImageCacheStats(
+            final int entryCount,
+            final long sizeInBytes,
+            final long maxSizeInBytes,
+            final long hitCount,
+            final long missCount,
+            final long evictionCount,
+            final long lastNotificationImageSizeInBytes,
+            final long downscaledNotificationCount,
+            final long droppedNotificationImageCount) {
+        this.entryCount = entryCount;
+        this.sizeInBytes = sizeInBytes;
+        this.maxSizeInBytes = maxSizeInBytes;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.lastNotificationImageSizeInBytes = lastNotificationImageSizeInBytes;
+        this.downscaledNotificationCount = downscaledNotificationCount;
+        this.droppedNotificationImageCount = droppedNotificationImageCount;
+    }
+
+    /** @return the number of images in the cache */
+    public int getEntryCount() {
+        return entryCount;
+    }
+
+    /** @return the total size of the cached images in bytes */
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /** @return the byte budget of the cache */
+    public long getMaxSizeInBytes() {
+        return maxSizeInBytes;
+    }
+
+    /** @return the number of image lookups answered by the cache */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** @return the number of image lookups which were not found in the cache */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** @return the number of images evicted to keep the cache within its byte budget */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * @return the estimated size in bytes of the images attached to the last notification built
+     *     with images, 0 if none was built
+     */
+    public long getLastNotificationImageSizeInBytes() {
+        return lastNotificationImageSizeInBytes;
+    }
+
+    /** @return the number of notifications whose images were scaled down to fit the size limit */
+    public long getDownscaledNotificationCount() {
+        return downscaledNotificationCount;
+    }
+
+    /** @return the number of images removed from notifications to fit the size limit */
+    public long getDroppedNotificationImageCount() {
+        return droppedNotificationImageCount;
+    }
+
+    /** @return the ratio of image lookups answered by the cache, 0 if there was no lookup */
+    public double getHitRatio() {
+        final long lookups = hitCount + missCount;
+        return lookups == 0 ? 0 : (double) hitCount / lookups;
+    }
+
+    @NonNull @Override
+    public String toString() {
+        return String.format(
+                Locale.US,
+                "entries: %d, bytes: %d/%d, hit ratio: %.2f (%d hits, %d misses), evictions: %d,"
+                        + " last notification image bytes: %d, downscaled notifications: %d,"
+                        + " dropped notification images: %d",
+                entryCount,
+                sizeInBytes,
+                maxSizeInBytes,
+                getHitRatio(),
+                hitCount,
+                missCount,
+                evictionCount,
+                lastNotificationImageSizeInBytes,
+                downscaledNotificationCount,
+                droppedNotificationImageCount);
+    }
+}
@@ -0,0 +1,258 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.Intent;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Build;
+import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import com.adobe.marketing.mobile.util.StringUtils;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Read-only {@link ContentProvider} which serves cached push notification images to the system UI.
+ *
+ * <p>Setting an image on a {@code RemoteViews} with a content uri means the notification parcel
+ * only carries the uri, and the system UI loads the pixels when the view is displayed. This avoids
+ * marshalling every bitmap each time a carousel notification is updated. Images are served as the
+ * scaled variant cached for a {@link PushImageSizePolicy.Slot}, so the system UI never decodes the
+ * full size download. Only cached images are served, no network request is made.
+ *
+ * <p>Content uris have the form {@code content://<application id>.campaignclassic.pushimages/<slot
+ * name>/<image url>}. The provider is not exported. From Android 9 the notification manager grants
+ * the system UI read access to the uris referenced by a posted notification and revokes it when
+ * the notification is removed. On older versions read access is granted explicitly to the system UI
+ * for every uri handed out by {@link #getContentUri(Context, String, PushImageSizePolicy.Slot)}
+ * and revoked by {@link #revokeContentUris(Context, String)} when the image leaves the cache.
+ */
+public class PushImageContentProvider extends ContentProvider {
+    private static final String SELF_TAG = "PushImageContentProvider";
+    private static final String AUTHORITY_SUFFIX = ".campaignclassic.pushimages";
+    private static final String SYSTEM_UI_PACKAGE = "com.android.systemui";
+    private static final String MIME_TYPE = "image/webp";
+    private static final String READ_MODE = "r";
+    private static final int PATH_SEGMENT_COUNT = 2;
+
+    // null until the provider registration has been checked
+    private static volatile Boolean providerRegistered;
+
+    /**
+     * Determines if push images can be served by this provider.
+     *
+     * @param context the application {@link Context}
+     * @return true if the provider is registered and the cache service is available
+     */
+    static boolean isAvailable(final Context context) {
+        return context != null
+                && ServiceProvider.getInstance().getCacheService() != null
+                && isProviderRegistered(context);
+    }
+
+    /**
+     * Returns a content uri serving the cached image for the given slot.
+     *
+     * @param context the application {@link Context}
+     * @param imageUrl {@code String} containing the image url
+     * @param slot the {@link PushImageSizePolicy.Slot} the image will be displayed in
+     * @return the content {@link Uri} of the image or null if images can't be served by this
+     *     provider, in which case the image must be set as a bitmap
+     */
+    @Nullable static Uri getContentUri(
+            final Context context, final String imageUrl, final PushImageSizePolicy.Slot slot) {
+        if (StringUtils.isNullOrEmpty(imageUrl) || !isAvailable(context)) {
+            return null;
+        }
+
+        final Uri contentUri = buildContentUri(context, imageUrl, slot);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            // the notification manager grants access to the uris of the posted notification
+            return contentUri;
+        }
+
+        try {
+            context.grantUriPermission(
+                    SYSTEM_UI_PACKAGE, contentUri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+        } catch (final SecurityException exception) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Unable to grant the system UI access to %s: %s",
+                    contentUri,
+                    exception.getLocalizedMessage());
+            return null;
+        }
+        return contentUri;
+    }
+
+    /**
+     * Revokes the read access granted to the content uris of an image, called when the image is
+     * removed from the push image cache.
+     *
+     * @param context the application {@link Context}
+     * @param imageUrl {@code String} containing the image url
+     */
+    static void revokeContentUris(final Context context, final String imageUrl) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P
+                || StringUtils.isNullOrEmpty(imageUrl)
+                || !isAvailable(context)) {
+            return;
+        }
+
+        for (final PushImageSizePolicy.Slot slot : PushImageSizePolicy.Slot.values()) {
+            try {
+                context.revokeUriPermission(
+                        buildContentUri(context, imageUrl, slot),
+                        Intent.FLAG_GRANT_READ_URI_PERMISSION);
+            } catch (final SecurityException exception) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Unable to revoke access to %s: %s",
+                        imageUrl,
+                        exception.getLocalizedMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean onCreate() {
+        return true;
+    }
+
+    @Nullable @Override
+    public ParcelFileDescriptor openFile(@NonNull final Uri uri, @NonNull final String mode)
+            throws FileNotFoundException {
+        if (!READ_MODE.equals(mode)) {
+            throw new FileNotFoundException("Push images are read-only: " + uri);
+        }
+
+        final List<String> pathSegments = uri.getPathSegments();
+        if (pathSegments.size() != PATH_SEGMENT_COUNT) {
+            throw new FileNotFoundException("Invalid push image uri: " + uri);
+        }
+
+        final PushImageSizePolicy.Slot slot;
+        try {
+            slot = PushImageSizePolicy.Slot.valueOf(pathSegments.get(0));
+        } catch (final IllegalArgumentException exception) {
+            throw new FileNotFoundException("Invalid push image slot: " + uri);
+        }
+
+        final CacheService cacheService = ServiceProvider.getInstance().getCacheService();
+        final byte[] imageData =
+                CampaignPushUtils.getScaledImageData(cacheService, pathSegments.get(1), slot);
+        if (imageData == null) {
+            throw new FileNotFoundException("Push image is not cached: " + uri);
+        }
+
+        return openPipeHelper(uri, MIME_TYPE, null, imageData, PushImageContentProvider::write);
+    }
+
+    @Nullable @Override
+    public String getType(@NonNull final Uri uri) {
+        return MIME_TYPE;
+    }
+
+    @Nullable @Override
+    public Cursor query(
+            @NonNull final Uri uri,
+            @Nullable final String[] projection,
+            @Nullable final String selection,
+            @Nullable final String[] selectionArgs,
+            @Nullable final String sortOrder) {
+        return null;
+    }
+
+    @Nullable @Override
+    public Uri insert(@NonNull final Uri uri, @Nullable final ContentValues values) {
+        throw new UnsupportedOperationException("Push images are read-only.");
+    }
+
+    @Override
+    public int delete(
+            @NonNull final Uri uri,
+            @Nullable final String selection,
+            @Nullable final String[] selectionArgs) {
+        throw new UnsupportedOperationException("Push images are read-only.");
+    }
+
+    @Override
+    public int update(
+            @NonNull final Uri uri,
+            @Nullable final ContentValues values,
+            @Nullable final String selection,
+            @Nullable final String[] selectionArgs) {
+        throw new UnsupportedOperationException("Push images are read-only.");
+    }
+
+    private static void write(
+            @NonNull final ParcelFileDescriptor output,
+            @NonNull final Uri uri,
+            @NonNull final String mimeType,
+            @Nullable final Bundle opts,
+            @Nullable final byte[] imageData) {
+        try (final FileOutputStream outputStream =
+                new FileOutputStream(output.getFileDescriptor())) {
+            outputStream.write(imageData);
+        } catch (final IOException exception) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Failed to serve push image %s: %s",
+                    uri,
+                    exception.getLocalizedMessage());
+        }
+    }
+
+    private static Uri buildContentUri(
+            final Context context, final String imageUrl, final PushImageSizePolicy.Slot slot) {
+        return new Uri.Builder()
+                .scheme("content")
+                .authority(getAuthority(context))
+                .appendPath(slot.name())
+                .appendPath(imageUrl)
+                .build();
+    }
+
+    private static String getAuthority(final Context context) {
+        return context.getPackageName() + AUTHORITY_SUFFIX;
+    }
+
+    private static boolean isProviderRegistered(final Context context) {
+        if (providerRegistered == null) {
+            providerRegistered =
+                    context.getPackageManager()
+                                    .resolveContentProvider(getAuthority(context), 0)
+                            != null;
+            if (!providerRegistered) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Push image content provider is not registered, push images will be"
+                                + " delivered as bitmaps.");
+            }
+        }
+        return providerRegistered;
+    }
+}
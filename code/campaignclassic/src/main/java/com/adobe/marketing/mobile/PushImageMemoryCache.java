@@ -0,0 +1,187 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+import android.graphics.Bitmap;
+import android.util.LruCache;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import com.adobe.marketing.mobile.services.AppContextService;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+/**
+ * In-memory cache of decoded push notification images.
+ *
+ * <p>This cache sits in front of the Campaign Classic extension's push image {@code CacheService}
+ * location so that re-rendering a notification, for example when navigating a manual or filmstrip
+ * carousel, does not need to read and decode the image from disk again. Entries are keyed by image
+ * uri and layout slot and the cache is bounded by the byte size of the decoded bitmaps. The cache
+ * is trimmed when the system signals memory pressure through {@link
+ * ComponentCallbacks2#onTrimMemory(int)}.
+ */
+class PushImageMemoryCache {
+    private static final String SELF_TAG = "PushImageMemoryCache";
+    private static final String KEY_SEPARATOR = "|";
+    // use at most 1/16th of the available heap for decoded push images
+    private static final int MAX_HEAP_FRACTION = 16;
+
+    private static class InstanceHolder {
+        static final PushImageMemoryCache INSTANCE =
+                new PushImageMemoryCache(Runtime.getRuntime().maxMemory() / MAX_HEAP_FRACTION);
+    }
+
+    static PushImageMemoryCache getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    private final LruCache<String, Bitmap> bitmapCache;
+
+    private PushImageMemoryCache(final long maxSizeInBytes) {
+        bitmapCache =
+                new LruCache<String, Bitmap>((int) Math.min(maxSizeInBytes, Integer.MAX_VALUE)) {
+                    @Override
+                    protected int sizeOf(final String key, final Bitmap bitmap) {
+                        return bitmap.getAllocationByteCount();
+                    }
+                };
+        registerMemoryCallbacks();
+    }
+
+    /**
+     * Returns the decoded image for the given uri and layout slot.
+     *
+     * @param imageUri {@code String} containing the image uri
+     * @param slot the {@link PushImageSizePolicy.Slot} the image was decoded for
+     * @return the cached {@link Bitmap} or null if the image is not present in the cache
+     */
+    @Nullable Bitmap get(final String imageUri, final PushImageSizePolicy.Slot slot) {
+        if (StringUtils.isNullOrEmpty(imageUri)) {
+            return null;
+        }
+        return bitmapCache.get(createKey(imageUri, slot));
+    }
+
+    /**
+     * Adds a decoded image to the cache.
+     *
+     * @param imageUri {@code String} containing the image uri
+     * @param slot the {@link PushImageSizePolicy.Slot} the image was decoded for
+     * @param bitmap the decoded {@link Bitmap} to be cached
+     */
+    void put(
+            final String imageUri, final PushImageSizePolicy.Slot slot, final Bitmap bitmap) {
+        if (StringUtils.isNullOrEmpty(imageUri) || bitmap == null) {
+            return;
+        }
+        bitmapCache.put(createKey(imageUri, slot), bitmap);
+    }
+
+    /**
+     * Removes the decoded images of an image uri, for every layout slot, from the cache.
+     *
+     * @param imageUri {@code String} containing the image uri
+     */
+    void remove(final String imageUri) {
+        if (StringUtils.isNullOrEmpty(imageUri)) {
+            return;
+        }
+        for (final PushImageSizePolicy.Slot slot : PushImageSizePolicy.Slot.values()) {
+            bitmapCache.remove(createKey(imageUri, slot));
+        }
+    }
+
+    /** Removes all decoded images from the cache. */
+    void clear() {
+        bitmapCache.evictAll();
+    }
+
+    /**
+     * Trims the cache in response to a memory pressure signal from the system.
+     *
+     * @param level {@code int} containing the trim memory level received in {@link
+     *     ComponentCallbacks2#onTrimMemory(int)}
+     */
+    void trimMemory(final int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Clearing decoded push images after receiving trim memory level %d.",
+                    level);
+            bitmapCache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_BACKGROUND
+                || level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            Log.trace(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Trimming decoded push images after receiving trim memory level %d.",
+                    level);
+            bitmapCache.trimToSize(bitmapCache.maxSize() / 2);
+        }
+    }
+
+    /** @return the number of lookups which returned a cached image */
+    int getHitCount() {
+        return bitmapCache.hitCount();
+    }
+
+    /** @return the number of lookups which did not find a cached image */
+    int getMissCount() {
+        return bitmapCache.missCount();
+    }
+
+    /** @return the current size of the cached images in bytes */
+    int getSizeInBytes() {
+        return bitmapCache.size();
+    }
+
+    @NonNull private static String createKey(
+            final String imageUri, final PushImageSizePolicy.Slot slot) {
+        return imageUri + KEY_SEPARATOR + slot.name();
+    }
+
+    private void registerMemoryCallbacks() {
+        final AppContextService appContextService =
+                ServiceProvider.getInstance().getAppContextService();
+        final Application application =
+                appContextService == null ? null : appContextService.getApplication();
+        if (application == null) {
+            Log.debug(
+                    CampaignPushConstants.LOG_TAG,
+                    SELF_TAG,
+                    "Application is not available, the decoded push image cache will not be"
+                            + " trimmed on memory pressure.");
+            return;
+        }
+
+        application.registerComponentCallbacks(
+                new ComponentCallbacks2() {
+                    @Override
+                    public void onTrimMemory(final int level) {
+                        trimMemory(level);
+                    }
+
+                    @Override
+                    public void onConfigurationChanged(@NonNull final Configuration newConfig) {}
+
+                    @Override
+                    public void onLowMemory() {
+                        bitmapCache.evictAll();
+                    }
+                });
+    }
+}
@@ -0,0 +1,89 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import androidx.annotation.NonNull;
+
+/**
+ * Computes the size and pixel format of decoded push notification images.
+ *
+ * <p>Every image is decoded for the layout slot it is displayed in. The target size of a slot is
+ * its size in the notification layouts converted to pixels using the display density, which is
+ * capped at {@link #MAX_DENSITY} to bound the size of the bitmaps sent to the notification
+ * manager. Images in slots which crop their content are scaled to cover the slot then cropped to
+ * it, other images are scaled to fit the slot. Images are never scaled up. Images whose encoding
+ * can't contain transparency are decoded as {@link Bitmap.Config#RGB_565}, which uses half the
+ * memory of {@link Bitmap.Config#ARGB_8888}. The total size of the bitmaps of a notification is
+ * further bounded by the {@link NotificationBitmapBudget}.
+ */
+class PushImageSizePolicy {
+    // decoding above xhdpi makes little visible difference at notification sizes
+    private static final float MAX_DENSITY = 2.0f;
+    private static final String JPEG_MIME_TYPE = "image/jpeg";
+
+    /** The layout slots a push notification image can be displayed in. */
+    enum Slot {
+        // expanded image of the basic template, match_parent x 200dp with fitCenter
+        BASIC_EXPANDED(360, 200, false),
+        // auto and manual carousel item, 250dp x 200dp with centerCrop
+        CAROUSEL_ITEM(250, 200, true),
+        // filmstrip center image, 200dp x 200dp with centerCrop. every filmstrip image rotates
+        // through the center and the 100dp x 175dp side images are covered by this size without
+        // scaling up, so filmstrip images are decoded once for the center slot.
+        FILMSTRIP_CENTER(200, 200, true);
+
+        private final int widthDp;
+        private final int heightDp;
+        private final boolean crop;
+
+        Slot(final int widthDp, final int heightDp, final boolean crop) {
+            this.widthDp = widthDp;
+            this.heightDp = heightDp;
+            this.crop = crop;
+        }
+
+        /** @return the slot width in pixels */
+        int getTargetWidth() {
+            return toPixels(widthDp);
+        }
+
+        /** @return the slot height in pixels */
+        int getTargetHeight() {
+            return toPixels(heightDp);
+        }
+
+        /** @return true if images are cropped to the slot, false if they are fit in the slot */
+        boolean isCrop() {
+            return crop;
+        }
+    }
+
+    private PushImageSizePolicy() {}
+
+    /**
+     * Returns the pixel format to decode an image with.
+     *
+     * @param mimeType {@code String} containing the mime type of the encoded image
+     * @return {@link Bitmap.Config#RGB_565} for opaque image formats, {@link
+     *     Bitmap.Config#ARGB_8888} otherwise
+     */
+    @NonNull static Bitmap.Config getPreferredConfig(final String mimeType) {
+        return JPEG_MIME_TYPE.equals(mimeType) ? Bitmap.Config.RGB_565 : Bitmap.Config.ARGB_8888;
+    }
+
+    private static int toPixels(final int dp) {
+        final float density =
+                Math.min(Resources.getSystem().getDisplayMetrics().density, MAX_DENSITY);
+        return Math.round(dp * density);
+    }
+}
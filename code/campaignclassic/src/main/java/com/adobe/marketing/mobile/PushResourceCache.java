@@ -0,0 +1,97 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.net.Uri;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * In-memory cache of the application resources resolved when building push notifications.
+ *
+ * <p>Resolving a small icon by name uses {@code Resources#getIdentifier}, which is slow, and
+ * reading the default application icon is a {@code PackageManager} binder call. The resolved icon
+ * resource ids, the default application icon and the custom sound uris are cached, including the
+ * names which could not be resolved. Each cache keeps the {@link #MAX_ENTRIES} most recently used
+ * entries. The cache only lives in memory: the application process is restarted when its package
+ * is updated, so entries never outlive the resources they were resolved from.
+ */
+class PushResourceCache {
+    private static final int MAX_ENTRIES = 32;
+    // the default application icon has not been resolved yet
+    private static final int UNRESOLVED = Integer.MIN_VALUE;
+
+    private static final Map<String, Integer> iconIds = createLruMap();
+    private static final Map<String, Uri> soundUris = createLruMap();
+    private static int defaultAppIcon = UNRESOLVED;
+
+    private PushResourceCache() {}
+
+    /**
+     * @param iconName {@code String} containing the icon name
+     * @return the cached resource id of the icon, 0 if the icon was not found or null if the icon
+     *     was not resolved yet
+     */
+    static synchronized Integer getIconId(final String iconName) {
+        return iconIds.get(iconName);
+    }
+
+    /**
+     * @param iconName {@code String} containing the icon name
+     * @param iconId {@code int} containing the resolved resource id, 0 if the icon was not found
+     */
+    static synchronized void putIconId(final String iconName, final int iconId) {
+        iconIds.put(iconName, iconId);
+    }
+
+    /**
+     * @return the cached default application icon, -1 if it could not be read or {@link
+     *     Integer#MIN_VALUE} if it was not resolved yet
+     */
+    static synchronized int getDefaultAppIcon() {
+        return defaultAppIcon;
+    }
+
+    /** @param iconId {@code int} containing the default application icon, -1 if not found */
+    static synchronized void putDefaultAppIcon(final int iconId) {
+        defaultAppIcon = iconId;
+    }
+
+    /** @return true if the default application icon was resolved */
+    static synchronized boolean hasDefaultAppIcon() {
+        return defaultAppIcon != UNRESOLVED;
+    }
+
+    /**
+     * @param soundName {@code String} containing the sound name
+     * @return the cached {@link Uri} of the sound or null if it was not resolved yet
+     */
+    static synchronized Uri getSoundUri(final String soundName) {
+        return soundUris.get(soundName);
+    }
+
+    /**
+     * @param soundName {@code String} containing the sound name
+     * @param soundUri the resolved {@link Uri} of the sound
+     */
+    static synchronized void putSoundUri(final String soundName, final Uri soundUri) {
+        soundUris.put(soundName, soundUri);
+    }
+
+    private static <V> Map<String, V> createLruMap() {
+        return new LinkedHashMap<String, V>(MAX_ENTRIES, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, V> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+}
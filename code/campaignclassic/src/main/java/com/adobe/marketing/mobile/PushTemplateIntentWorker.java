@@ -0,0 +1,185 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.BroadcastReceiver;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handles push template broadcasts off the main thread.
+ *
+ * <p>Redrawing a carousel or displaying a scheduled notification reads the image cache, decodes
+ * bitmaps and may download images, which must not run on the main thread. The broadcast is kept
+ * alive with {@link BroadcastReceiver#goAsync()} and its handler is queued on a single worker
+ * thread, so notification updates are applied in the order they were received. The queue holds at
+ * most {@link CampaignPushConstants.DefaultValues#PUSH_TEMPLATE_INTENT_QUEUE_CAPACITY} broadcasts,
+ * broadcasts received while it is full are dropped. Each broadcast is finished at the latest after
+ * {@link CampaignPushConstants.DefaultValues#PUSH_TEMPLATE_INTENT_DEADLINE_IN_MILLISECONDS}, its
+ * handler is skipped if it did not start by then.
+ *
+ * <p>Broadcasts can be coalesced by key: a queued broadcast is discarded when a newer one with the
+ * same key is received. Carousel navigation taps are coalesced per notification, every tap
+ * received while a redraw is queued carries the same carousel state so only the latest one needs
+ * to be handled.
+ */
+class PushTemplateIntentWorker {
+    private static final String SELF_TAG = "PushTemplateIntentWorker";
+    private static final String THREAD_NAME = "CampaignClassicPushTemplateWorker";
+
+    private static class ExecutorHolder {
+        static final ThreadPoolExecutor INSTANCE =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<Runnable>(
+                                CampaignPushConstants.DefaultValues
+                                        .PUSH_TEMPLATE_INTENT_QUEUE_CAPACITY),
+                        runnable -> new Thread(runnable, THREAD_NAME));
+    }
+
+    private static class DeadlineExecutorHolder {
+        static final ScheduledExecutorService INSTANCE =
+                Executors.newSingleThreadScheduledExecutor();
+    }
+
+    // coalescing key to the queued task, guarded by the class lock
+    private static final Map<String, Task> queuedTasks = new HashMap<>();
+
+    /** A queued broadcast handler. */
+    private static class Task implements Runnable {
+        private final BroadcastReceiver.PendingResult pendingResult;
+        private final String coalescingKey;
+        private final Runnable handler;
+        private final long deadline;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile ScheduledFuture<?> deadlineTask;
+
+        Task(
+                final BroadcastReceiver.PendingResult pendingResult,
+                final String coalescingKey,
+                final Runnable handler) {
+            this.pendingResult = pendingResult;
+            this.coalescingKey = coalescingKey;
+            this.handler = handler;
+            this.deadline =
+                    System.currentTimeMillis()
+                            + CampaignPushConstants.DefaultValues
+                                    .PUSH_TEMPLATE_INTENT_DEADLINE_IN_MILLISECONDS;
+        }
+
+        @Override
+        public void run() {
+            dequeue(this);
+            if (finished.get()) {
+                return;
+            }
+
+            if (System.currentTimeMillis() > deadline) {
+                Log.debug(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Push template broadcast (%s) was not handled before its deadline.",
+                        coalescingKey);
+                finish();
+                return;
+            }
+
+            try {
+                handler.run();
+            } finally {
+                finish();
+            }
+        }
+
+        void finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+
+            if (deadlineTask != null) {
+                deadlineTask.cancel(false);
+            }
+            if (pendingResult != null) {
+                pendingResult.finish();
+            }
+        }
+    }
+
+    private PushTemplateIntentWorker() {}
+
+    /**
+     * Queues a broadcast handler on the worker thread.
+     *
+     * @param pendingResult the {@link BroadcastReceiver.PendingResult} returned by {@link
+     *     BroadcastReceiver#goAsync()}, finished once the handler completes
+     * @param coalescingKey {@code String} containing the key used to coalesce broadcasts, or null
+     *     if the broadcast must always be handled
+     * @param handler the {@link Runnable} handling the broadcast
+     */
+    static void enqueue(
+            final BroadcastReceiver.PendingResult pendingResult,
+            final String coalescingKey,
+            final Runnable handler) {
+        final Task task = new Task(pendingResult, coalescingKey, handler);
+        final ThreadPoolExecutor executor = ExecutorHolder.INSTANCE;
+        synchronized (PushTemplateIntentWorker.class) {
+            if (coalescingKey != null) {
+                final Task supersededTask = queuedTasks.put(coalescingKey, task);
+                if (supersededTask != null && executor.remove(supersededTask)) {
+                    Log.trace(
+                            CampaignPushConstants.LOG_TAG,
+                            SELF_TAG,
+                            "Coalesced push template broadcast (%s) with a newer one.",
+                            coalescingKey);
+                    supersededTask.finish();
+                }
+            }
+
+            try {
+                executor.execute(task);
+            } catch (final RejectedExecutionException exception) {
+                Log.warning(
+                        CampaignPushConstants.LOG_TAG,
+                        SELF_TAG,
+                        "Push template broadcast queue is full, dropping broadcast (%s).",
+                        coalescingKey);
+                queuedTasks.remove(coalescingKey);
+                task.finish();
+                return;
+            }
+        }
+
+        task.deadlineTask =
+                DeadlineExecutorHolder.INSTANCE.schedule(
+                        task::finish,
+                        CampaignPushConstants.DefaultValues
+                                .PUSH_TEMPLATE_INTENT_DEADLINE_IN_MILLISECONDS,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    private static synchronized void dequeue(final Task task) {
+        if (task.coalescingKey != null && queuedTasks.get(task.coalescingKey) == task) {
+            queuedTasks.remove(task.coalescingKey);
+        }
+    }
+}
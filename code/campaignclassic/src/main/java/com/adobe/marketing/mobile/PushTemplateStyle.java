@@ -0,0 +1,148 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.os.Bundle;
+import androidx.annotation.NonNull;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.StringUtils;
+
+/**
+ * Immutable custom colors of a push template notification.
+ *
+ * <p>The payload colors are six character hex strings, e.g. {@code 00FF00}. They are parsed once
+ * when the push template is created, colors which are missing or invalid are set to {@link
+ * #NO_COLOR}. Six character colors are opaque so they can never be equal to {@link #NO_COLOR}. The
+ * parsed colors are carried by the carousel navigation state so that redrawing a notification
+ * does not parse them again.
+ */
+class PushTemplateStyle {
+    private static final String SELF_TAG = "PushTemplateStyle";
+    private static final int RGB_LENGTH = 6;
+    private static final int OPAQUE_ALPHA = 0xFF000000;
+
+    /** Set for colors which are not present in the payload or are invalid. */
+    static final int NO_COLOR = 0;
+
+    private final int notificationBackgroundColor;
+    private final int titleTextColor;
+    private final int expandedBodyTextColor;
+    private final int smallIconColor;
+
+    private PushTemplateStyle(
+            final int notificationBackgroundColor,
+            final int titleTextColor,
+            final int expandedBodyTextColor,
+            final int smallIconColor) {
+        this.notificationBackgroundColor = notificationBackgroundColor;
+        this.titleTextColor = titleTextColor;
+        this.expandedBodyTextColor = expandedBodyTextColor;
+        this.smallIconColor = smallIconColor;
+    }
+
+    /**
+     * Parses the payload colors.
+     *
+     * @param notificationBackgroundColor {@code String} containing the background color hex
+     * @param titleTextColor {@code String} containing the title text color hex
+     * @param expandedBodyTextColor {@code String} containing the body text color hex
+     * @param smallIconColor {@code String} containing the small icon color hex
+     * @return the parsed {@link PushTemplateStyle}
+     */
+    @NonNull static PushTemplateStyle parse(
+            final String notificationBackgroundColor,
+            final String titleTextColor,
+            final String expandedBodyTextColor,
+            final String smallIconColor) {
+        return new PushTemplateStyle(
+                parseColor(notificationBackgroundColor),
+                parseColor(titleTextColor),
+                parseColor(expandedBodyTextColor),
+                parseColor(smallIconColor));
+    }
+
+    /**
+     * Reads the colors from intent extras. The parsed colors written by {@link #putExtras(Bundle)}
+     * are used if present, otherwise the color hex strings are parsed.
+     *
+     * @param extras the intent extras {@link Bundle}
+     * @return the {@link PushTemplateStyle} of the extras
+     */
+    @NonNull static PushTemplateStyle fromExtras(final Bundle extras) {
+        if (extras.containsKey(CampaignPushConstants.IntentKeys.STYLE_BACKGROUND_COLOR)) {
+            return new PushTemplateStyle(
+                    extras.getInt(CampaignPushConstants.IntentKeys.STYLE_BACKGROUND_COLOR),
+                    extras.getInt(CampaignPushConstants.IntentKeys.STYLE_TITLE_TEXT_COLOR),
+                    extras.getInt(CampaignPushConstants.IntentKeys.STYLE_BODY_TEXT_COLOR),
+                    extras.getInt(CampaignPushConstants.IntentKeys.STYLE_SMALL_ICON_COLOR));
+        }
+
+        return parse(
+                extras.getString(CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR),
+                extras.getString(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR),
+                extras.getString(CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR),
+                extras.getString(CampaignPushConstants.IntentKeys.SMALL_ICON_COLOR));
+    }
+
+    /**
+     * Writes the parsed colors to intent extras.
+     *
+     * @param extras the intent extras {@link Bundle}
+     */
+    void putExtras(final Bundle extras) {
+        extras.putInt(
+                CampaignPushConstants.IntentKeys.STYLE_BACKGROUND_COLOR,
+                notificationBackgroundColor);
+        extras.putInt(CampaignPushConstants.IntentKeys.STYLE_TITLE_TEXT_COLOR, titleTextColor);
+        extras.putInt(
+                CampaignPushConstants.IntentKeys.STYLE_BODY_TEXT_COLOR, expandedBodyTextColor);
+        extras.putInt(CampaignPushConstants.IntentKeys.STYLE_SMALL_ICON_COLOR, smallIconColor);
+    }
+
+    int getNotificationBackgroundColor() {
+        return notificationBackgroundColor;
+    }
+
+    int getTitleTextColor() {
+        return titleTextColor;
+    }
+
+    int getExpandedBodyTextColor() {
+        return expandedBodyTextColor;
+    }
+
+    int getSmallIconColor() {
+        return smallIconColor;
+    }
+
+    private static int parseColor(final String colorHex) {
+        if (StringUtils.isNullOrEmpty(colorHex)) {
+            return NO_COLOR;
+        }
+
+        // eight character colors are rejected, a transparent black one would equal NO_COLOR
+        final char firstChar = colorHex.charAt(0);
+        if (colorHex.length() == RGB_LENGTH && firstChar != '+' && firstChar != '-') {
+            try {
+                return Integer.parseInt(colorHex, 16) | OPAQUE_ALPHA;
+            } catch (final NumberFormatException exception) {
+                // logged below
+            }
+        }
+
+        Log.trace(
+                CampaignPushConstants.LOG_TAG,
+                SELF_TAG,
+                "Unrecognized hex string (%s), the custom color will not be applied.",
+                colorHex);
+        return NO_COLOR;
+    }
+}
@@ -30,6 +30,9 @@ final class CampaignClassicConstants {
     static final String MESSAGE_CLICKED_TAGID = "2";
 
     static final String DATASTORE_KEY = "ADOBEMOBILE_CAMPAIGNCLASSIC";
+    static final String TRACKING_HIT_QUEUE_NAME = "com.adobe.module.campaignclassic.trackinghits";
+    static final String CLICK_TRACKING_HIT_QUEUE_NAME =
+            "com.adobe.module.campaignclassic.clicktrackinghits";
 
     static final String HEX_CONVERSION_FORMAT_STRING = "%02x";
     /*
@@ -38,10 +41,53 @@ final class CampaignClassicConstants {
     static class DataStoreKeys {
         static final String TOKEN_HASH = "ADOBEMOBILE_STOREDDEFAULTS_TOKENHASH";
         static final String REGISTER_STATUS = "ADOBEMOBILE_STOREDDEFAULTS_REGISTERSTATUS";
+        static final String TRACKED_HITS = "ADOBEMOBILE_STOREDDEFAULTS_TRACKEDHITS";
 
         private DataStoreKeys() {}
     }
 
+    /*
+       TrackingHitQueue
+    */
+    static final class TrackingHitQueue {
+        static final long MAX_HIT_AGE_IN_SECONDS = 7 * 24 * 60 * 60;
+        static final int INITIAL_RETRY_INTERVAL_IN_SECONDS = 5;
+        static final int MAX_RETRY_INTERVAL_IN_SECONDS = 5 * 60;
+        static final int CLICK_INITIAL_RETRY_INTERVAL_IN_SECONDS = 1;
+        static final int CLICK_MAX_RETRY_INTERVAL_IN_SECONDS = 30;
+        static final long DEDUPLICATION_TTL_IN_SECONDS = MAX_HIT_AGE_IN_SECONDS;
+        static final int DEDUPLICATION_MAX_ENTRIES = 200;
+        static final int FLUSH_SIZE_THRESHOLD = 10;
+        static final long FLUSH_MAX_DELAY_IN_MILLISECONDS = 5 * 60 * 1000;
+        static final String HIT_KEY_URL = "url";
+        static final String HIT_KEY_TIMEOUT = "timeout";
+
+        private TrackingHitQueue() {}
+    }
+
+    /*
+       CircuitBreaker
+    */
+    static final class CircuitBreaker {
+        static final int FAILURE_THRESHOLD = 5;
+        static final long INITIAL_OPEN_INTERVAL_IN_MILLISECONDS = 30 * 1000;
+        static final long MAX_OPEN_INTERVAL_IN_MILLISECONDS = 10 * 60 * 1000;
+
+        private CircuitBreaker() {}
+    }
+
+    /*
+       EventNames
+    */
+    static final class EventNames {
+        static final String DEVICE_REGISTRATION_STATUS = "Device Registration Status";
+        static final String CIRCUIT_BREAKER_STATE_CHANGED =
+                "Campaign Classic Circuit Breaker State Changed";
+        static final String TRACKING_QUEUE_METRICS = "Campaign Classic Tracking Queue Metrics";
+
+        private EventNames() {}
+    }
+
     /*
        EventDataKeys
     */
@@ -64,9 +110,13 @@ final class CampaignClassicConstants {
         static final class CampaignClassic {
             static final String REGISTER_DEVICE = "registerdevice";
             static final String REGISTRATION_STATUS = "registrationstatus";
+            static final String CIRCUIT_BREAKER_HOST = "circuitbreakerhost";
+            static final String CIRCUIT_BREAKER_STATE = "circuitbreakerstate";
             static final String TRACK_RECEIVE = "trackreceive";
             static final String TRACK_CLICK = "trackclick";
             static final String TRACK_INFO = "trackinfo";
+            static final String GET_TRACKING_QUEUE_METRICS = "gettrackingqueuemetrics";
+            static final String TRACKING_QUEUE_METRICS = "trackingqueuemetrics";
             static final String TRACK_INFO_KEY_MESSAGE_ID = "_mId";
             static final String TRACK_INFO_KEY_DELIVERY_ID = "_dId";
             static final String DEVICE_TOKEN = "devicetoken";
@@ -80,5 +130,21 @@ final class CampaignClassicConstants {
 
             private CampaignClassic() {}
         }
+
+        static final class TrackingQueueMetrics {
+            static final String CLICK_LANE = "click";
+            static final String RECEIVE_LANE = "receive";
+            static final String QUEUE_DEPTH = "queuedepth";
+            static final String HITS_QUEUED = "hitsqueued";
+            static final String HITS_SENT = "hitssent";
+            static final String HITS_RETRIED = "hitsretried";
+            static final String HITS_DROPPED = "hitsdropped";
+            static final String HITS_SUPPRESSED = "hitssuppressed";
+            static final String HITS_PER_MINUTE = "hitsperminute";
+            static final String AVERAGE_SEND_TIME = "averagesendtimemillis";
+            static final String AVERAGE_DELIVERY_LATENCY = "averagedeliverylatencymillis";
+
+            private TrackingQueueMetrics() {}
+        }
     }
 }
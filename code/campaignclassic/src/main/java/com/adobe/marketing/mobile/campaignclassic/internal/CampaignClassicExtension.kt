@@ -35,7 +35,13 @@ import com.adobe.marketing.mobile.services.ServiceProvider
  * - [EventType.CONFIGURATION], [EventSource.RESPONSE_CONTENT]
  *
  * The Campaign Classic extension dispatches the following [Event]:
- * - [EventType.CAMPAIGN], [EventSource.RESPONSE_CONTENT]
+ * - [EventType.CAMPAIGN], [EventSource.RESPONSE_CONTENT] named
+ * [CampaignClassicConstants.EventNames.DEVICE_REGISTRATION_STATUS], with the result of a device registration request
+ * - [EventType.CAMPAIGN], [EventSource.RESPONSE_CONTENT] named
+ * [CampaignClassicConstants.EventNames.CIRCUIT_BREAKER_STATE_CHANGED], with the host and the new state when a
+ * circuit of a Campaign Classic server changes state
+ * - [EventType.CAMPAIGN], [EventSource.RESPONSE_CONTENT] named
+ * [CampaignClassicConstants.EventNames.TRACKING_QUEUE_METRICS], in response to a tracking queue metrics request
  *
  * The Campaign Classic extension has dependencies on the following services from [ServiceProvider]:
  * - [DataStoring]
@@ -49,8 +55,10 @@ class CampaignClassicExtension : Extension {
 
     constructor(extensionApi: ExtensionApi) : super(extensionApi) {
         this.extensionApi = extensionApi
-        registrationManager = RegistrationManager(api)
-        trackRequestManager = TrackRequestManager(api)
+        // the tracking and marketing servers can share hosts, both managers share the circuits
+        val circuitBreakers = CircuitBreakerRegistry(api)
+        registrationManager = RegistrationManager(api, circuitBreakers)
+        trackRequestManager = TrackRequestManager(api, circuitBreakers)
     }
 
     @VisibleForTesting
@@ -102,7 +110,8 @@ class CampaignClassicExtension : Extension {
      * Processes event with type [EventType.CONFIGURATION] and source [EventSource.RESPONSE_CONTENT].
      * <p>
      * If the configuration event data contains {@code global.privacy} key, and the new privacy status
-     * is [MobilePrivacyStatus.OPT_OUT], then the persisted identifiers for this extension are cleared.
+     * is [MobilePrivacyStatus.OPT_OUT], then the persisted identifiers and queued tracking hits for this extension
+     * are cleared.
      *
      * @param event incoming configuration response [Event]
      */
@@ -113,9 +122,11 @@ class CampaignClassicExtension : Extension {
             Log.debug(
                 CampaignClassicConstants.LOG_TAG,
                 SELF_TAG,
-                "handleConfigurationResponseEvent - Privacy status is opt out, clearing persisted registration info."
+                "handleConfigurationResponseEvent - Privacy status is opt out, clearing persisted registration info" +
+                    " and queued tracking hits."
             )
             registrationManager.clearRegistrationData()
+            trackRequestManager.clearQueuedHits()
         }
     }
 
@@ -141,6 +152,8 @@ class CampaignClassicExtension : Extension {
             handleTrackRequest(event, CampaignClassicConstants.MESSAGE_RECEIVED_TAGID)
         } else if (event.isTrackClickEvent) {
             handleTrackRequest(event, CampaignClassicConstants.MESSAGE_CLICKED_TAGID)
+        } else if (event.isGetTrackingQueueMetricsEvent) {
+            trackRequestManager.dispatchQueueMetrics(event)
         }
     }
 
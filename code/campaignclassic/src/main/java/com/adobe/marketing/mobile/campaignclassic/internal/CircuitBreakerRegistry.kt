@@ -0,0 +1,237 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import androidx.annotation.VisibleForTesting
+import com.adobe.marketing.mobile.Event
+import com.adobe.marketing.mobile.EventSource
+import com.adobe.marketing.mobile.EventType
+import com.adobe.marketing.mobile.ExtensionApi
+import com.adobe.marketing.mobile.services.Log
+import java.net.HttpURLConnection
+import java.net.URI
+import java.net.URISyntaxException
+
+/**
+ * Per-host circuit breakers shared by the [TrackRequestManager] and the [RegistrationManager].
+ * <p>
+ * A circuit is [State.CLOSED] while its host responds. After
+ * [CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD] consecutive server failures (no
+ * response, request timeout, too many requests or a server error) the circuit opens and requests to
+ * the host are not sent, the callers keep them until the circuit allows requests again. Once the
+ * open interval elapsed the circuit is [State.HALF_OPEN] and a single probe request is allowed: the
+ * circuit closes if it succeeds, otherwise it opens again for twice the previous interval, up to
+ * [CampaignClassicConstants.CircuitBreaker.MAX_OPEN_INTERVAL_IN_MILLISECONDS]. Each state transition
+ * is dispatched as a [CampaignClassicConstants.EventNames.CIRCUIT_BREAKER_STATE_CHANGED] event.
+ * <p>
+ * Every allowed request gets a [Permit] which is passed back with its response. While the circuit is
+ * not closed, only the response of the probe changes its state, responses of requests sent before the
+ * circuit opened are ignored.
+ */
+internal class CircuitBreakerRegistry {
+    private val extensionApi: ExtensionApi
+    private val clock: () -> Long
+    private val circuits = HashMap<String, Circuit>()
+    private var lastProbeId = 0L
+
+    /**
+     * States of a host circuit.
+     */
+    enum class State(val value: String) {
+        CLOSED("closed"),
+        OPEN("open"),
+        HALF_OPEN("halfopen")
+    }
+
+    /**
+     * Permission to send a request, returned by [allowRequest] and passed back to [recordResponse] with the
+     * response of the request.
+     *
+     * @property host [String] containing the host of the request
+     * @property probeId identifier of the probe request of a half open circuit, 0 if the request is not a probe
+     */
+    class Permit internal constructor(val host: String, internal val probeId: Long)
+
+    private class Circuit {
+        var state = State.CLOSED
+        var consecutiveFailures = 0
+        var openInterval = CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+        var openUntil = 0L
+
+        // identifier of the probe request in flight, 0 if there is none
+        var probeId = 0L
+    }
+
+    constructor(extensionApi: ExtensionApi) : this(extensionApi, { System.currentTimeMillis() })
+
+    @VisibleForTesting
+    constructor(extensionApi: ExtensionApi, clock: () -> Long) {
+        this.extensionApi = extensionApi
+        this.clock = clock
+    }
+
+    companion object {
+        private const val SELF_TAG = "CircuitBreakerRegistry"
+        private const val HTTP_TOO_MANY_REQUESTS = 429
+
+        /**
+         * @param url [String] containing the request url
+         * @return the host of the url, or the url itself if it can't be parsed
+         */
+        fun getHost(url: String): String {
+            return try {
+                URI(url).host ?: url
+            } catch (ex: URISyntaxException) {
+                url
+            }
+        }
+
+        /**
+         * @param responseCode `int` containing the response code of a request, -1 if there was no response
+         * @return true if the response code indicates the server could not handle the request
+         */
+        fun isServerFailure(responseCode: Int): Boolean {
+            return responseCode == -1 ||
+                responseCode == HttpURLConnection.HTTP_CLIENT_TIMEOUT ||
+                responseCode == HTTP_TOO_MANY_REQUESTS ||
+                responseCode >= HttpURLConnection.HTTP_INTERNAL_ERROR
+        }
+    }
+
+    /**
+     * Determines if a request can be sent to a host. When the circuit of the host is half open,
+     * only the first caller is allowed to send its request as a probe and must report its result
+     * with [recordResponse].
+     *
+     * @param host [String] containing the host of the request
+     * @return a [Permit] to pass to [recordResponse] with the response of the request, or null if the request
+     * can't be sent
+     */
+    @Synchronized
+    fun allowRequest(host: String): Permit? {
+        val circuit = circuits[host] ?: return Permit(host, 0)
+        return when (circuit.state) {
+            State.CLOSED -> Permit(host, 0)
+            State.OPEN -> {
+                if (clock() < circuit.openUntil) {
+                    null
+                } else {
+                    transition(host, circuit, State.HALF_OPEN)
+                    startProbe(host, circuit)
+                }
+            }
+            State.HALF_OPEN -> {
+                if (circuit.probeId != 0L) {
+                    null
+                } else {
+                    startProbe(host, circuit)
+                }
+            }
+        }
+    }
+
+    /**
+     * Records the response of a request sent to a host. While the circuit of the host is not closed, only the
+     * response of the probe request is taken into account.
+     *
+     * @param permit the [Permit] returned by [allowRequest] for the request
+     * @param responseCode `int` containing the response code, -1 if there was no response
+     */
+    @Synchronized
+    fun recordResponse(permit: Permit, responseCode: Int) {
+        val host = permit.host
+        val circuit = circuits.getOrPut(host) { Circuit() }
+        if (circuit.state != State.CLOSED) {
+            if (permit.probeId == 0L || permit.probeId != circuit.probeId) {
+                Log.trace(
+                    CampaignClassicConstants.LOG_TAG,
+                    SELF_TAG,
+                    "recordResponse - Ignoring response $responseCode for host $host, it is not the probe response."
+                )
+                return
+            }
+            circuit.probeId = 0
+        }
+
+        if (!isServerFailure(responseCode)) {
+            circuit.consecutiveFailures = 0
+            circuit.openInterval = CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+            if (circuit.state != State.CLOSED) {
+                transition(host, circuit, State.CLOSED)
+            }
+            return
+        }
+
+        circuit.consecutiveFailures++
+        if (circuit.state == State.HALF_OPEN) {
+            // the probe failed, back off further
+            circuit.openInterval = (circuit.openInterval * 2)
+                .coerceAtMost(CampaignClassicConstants.CircuitBreaker.MAX_OPEN_INTERVAL_IN_MILLISECONDS)
+            open(host, circuit)
+        } else if (circuit.state == State.CLOSED &&
+            circuit.consecutiveFailures >= CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD
+        ) {
+            open(host, circuit)
+        }
+    }
+
+    /**
+     * @param host [String] containing the host
+     * @return the time in milliseconds until the circuit of the host allows a probe request, 0 if requests are allowed
+     */
+    @Synchronized
+    fun getRetryAfterMillis(host: String): Long {
+        val circuit = circuits[host] ?: return 0
+        return if (circuit.state == State.OPEN) (circuit.openUntil - clock()).coerceAtLeast(0) else 0
+    }
+
+    /**
+     * @param host [String] containing the host
+     * @return the current [State] of the circuit of the host
+     */
+    @Synchronized
+    fun getState(host: String): State {
+        return circuits[host]?.state ?: State.CLOSED
+    }
+
+    private fun startProbe(host: String, circuit: Circuit): Permit {
+        circuit.probeId = ++lastProbeId
+        return Permit(host, circuit.probeId)
+    }
+
+    private fun open(host: String, circuit: Circuit) {
+        circuit.openUntil = clock() + circuit.openInterval
+        transition(host, circuit, State.OPEN)
+    }
+
+    private fun transition(host: String, circuit: Circuit, state: State) {
+        circuit.state = state
+        Log.debug(
+            CampaignClassicConstants.LOG_TAG,
+            SELF_TAG,
+            "transition - Circuit for host $host is now ${state.value}."
+        )
+        extensionApi.dispatch(
+            Event.Builder(
+                CampaignClassicConstants.EventNames.CIRCUIT_BREAKER_STATE_CHANGED,
+                EventType.CAMPAIGN,
+                EventSource.RESPONSE_CONTENT
+            )
+                .setEventData(
+                    mapOf(
+                        CampaignClassicConstants.EventDataKeys.CampaignClassic.CIRCUIT_BREAKER_HOST to host,
+                        CampaignClassicConstants.EventDataKeys.CampaignClassic.CIRCUIT_BREAKER_STATE to state.value
+                    )
+                )
+                .build()
+        )
+    }
+}
@@ -43,6 +43,16 @@ internal val Event.isTrackReceiveEvent: Boolean
         false
     )
 
+/**
+ * @return true if this event is a Campaign Classic tracking queue metrics request
+ */
+internal val Event.isGetTrackingQueueMetricsEvent: Boolean
+    get() = DataReader.optBoolean(
+        eventData,
+        CampaignClassicConstants.EventDataKeys.CampaignClassic.GET_TRACKING_QUEUE_METRICS,
+        false
+    )
+
 /**
  * @return messageId [String] from the event data if available and not empty, null otherwise
  */
@@ -31,18 +31,34 @@ import java.security.MessageDigest
 import java.security.NoSuchAlgorithmException
 import java.util.Locale
 import java.util.UUID
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
 
 /**
  * Handles logic related to registering device token with Campaign Classic server
+ * <p>
+ * While the [CircuitBreakerRegistry] circuit of the marketing server is open, the latest registration
+ * request is parked and sent once the circuit allows a probe request.
  */
 internal class RegistrationManager {
     private val extensionApi: ExtensionApi
     private val deviceInfoService: DeviceInforming?
     private val dataStore: NamedCollection?
     private val networkService: Networking?
+    private val circuitBreakers: CircuitBreakerRegistry
 
-    constructor(extensionApi: ExtensionApi) {
+    // latest registration request received while the circuit of the marketing server was open
+    private var parkedRegistration: (() -> Unit)? = null
+    private var parkedRegistrationFuture: ScheduledFuture<*>? = null
+    private val parkedRegistrationExecutor: ScheduledExecutorService by lazy {
+        Executors.newSingleThreadScheduledExecutor()
+    }
+
+    constructor(extensionApi: ExtensionApi, circuitBreakers: CircuitBreakerRegistry) {
         this.extensionApi = extensionApi
+        this.circuitBreakers = circuitBreakers
         deviceInfoService = ServiceProvider.getInstance().deviceInfoService
         dataStore = ServiceProvider.getInstance().dataStoreService?.getNamedCollection(
             CampaignClassicConstants.DATASTORE_KEY
@@ -56,8 +72,18 @@ internal class RegistrationManager {
         deviceInfoService: DeviceInforming?,
         dataStore: NamedCollection?,
         networkService: Networking?
+    ) : this(extensionApi, deviceInfoService, dataStore, networkService, CircuitBreakerRegistry(extensionApi))
+
+    @VisibleForTesting
+    constructor (
+        extensionApi: ExtensionApi,
+        deviceInfoService: DeviceInforming?,
+        dataStore: NamedCollection?,
+        networkService: Networking?,
+        circuitBreakers: CircuitBreakerRegistry
     ) {
         this.extensionApi = extensionApi
+        this.circuitBreakers = circuitBreakers
         this.deviceInfoService = deviceInfoService
         this.dataStore = dataStore
         this.networkService = networkService
@@ -65,6 +91,7 @@ internal class RegistrationManager {
 
     companion object {
         private const val SELF_TAG = "RegistrationManager"
+        private const val PARKED_REGISTRATION_MIN_DELAY_IN_MILLISECONDS = 1000L
     }
 
     /**
@@ -176,9 +203,14 @@ internal class RegistrationManager {
     }
 
     /**
-     * Clears the stored registration data hash from persistence.
+     * Clears the stored registration data hash from persistence and drops the parked registration request, if any.
      */
     fun clearRegistrationData() {
+        synchronized(this) {
+            parkedRegistration = null
+            parkedRegistrationFuture?.cancel(false)
+            parkedRegistrationFuture = null
+        }
         updateDataStoreWithRegistrationInfo(null)
     }
 
@@ -271,6 +303,24 @@ internal class RegistrationManager {
             return
         }
 
+        // an offline device must not count as a failure of the marketing server
+        if (deviceInfoService?.networkConnectionStatus == DeviceInforming.ConnectionStatus.DISCONNECTED) {
+            Log.debug(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "sendRegistrationRequest - Cannot send request, the device is offline."
+            )
+            dispatchRegistrationStatus(false)
+            return
+        }
+
+        val host = CircuitBreakerRegistry.getHost(requestUrl)
+        val permit = circuitBreakers.allowRequest(host)
+        if (permit == null) {
+            parkRegistration(host) { sendRegistrationRequest(requestUrl, payload, requestTimeout, registrationHash) }
+            return
+        }
+
         val headers = buildHeaders(payload)
         val postBody = payload.toByteArray(StandardCharsets.UTF_8)
         val networkRequest = NetworkRequest(
@@ -285,7 +335,8 @@ internal class RegistrationManager {
         // send registration request
         Log.trace(CampaignClassicConstants.LOG_TAG, SELF_TAG, "sendRegistrationRequest - Registration request was sent with url $requestUrl")
         networkService.connectAsync(networkRequest) {
-            if (it.responseCode == HttpURLConnection.HTTP_OK) {
+            circuitBreakers.recordResponse(permit, it?.responseCode ?: -1)
+            if (it?.responseCode == HttpURLConnection.HTTP_OK) {
                 Log.debug(CampaignClassicConstants.LOG_TAG, SELF_TAG, "sendRegistrationRequest - Registration successful.")
                 dispatchRegistrationStatus(true)
                 updateDataStoreWithRegistrationInfo(registrationHash)
@@ -293,17 +344,54 @@ internal class RegistrationManager {
                 Log.debug(
                     CampaignClassicConstants.LOG_TAG,
                     SELF_TAG,
-                    "sendRegistrationRequest - Unsuccessful Registration request with connection status ${it.responseCode}"
+                    "sendRegistrationRequest - Unsuccessful Registration request with connection status ${it?.responseCode}"
                 )
                 dispatchRegistrationStatus(false)
             }
-            it.close()
+            it?.close()
         }
     }
 
+    /**
+     * Parks a registration request until the circuit of the marketing server allows a probe request. Only the latest
+     * registration request is kept, as it supersedes the previous ones.
+     *
+     * @param host [String] containing the host of the marketing server
+     * @param registration the parked registration request
+     */
+    @Synchronized
+    private fun parkRegistration(host: String, registration: () -> Unit) {
+        parkedRegistration = registration
+        if (parkedRegistrationFuture != null) {
+            return
+        }
+
+        val retryAfterMillis = circuitBreakers.getRetryAfterMillis(host).coerceAtLeast(PARKED_REGISTRATION_MIN_DELAY_IN_MILLISECONDS)
+        Log.debug(
+            CampaignClassicConstants.LOG_TAG,
+            SELF_TAG,
+            "parkRegistration - Circuit for $host is open, registration request will be sent in $retryAfterMillis ms."
+        )
+        parkedRegistrationFuture =
+            parkedRegistrationExecutor.schedule({ sendParkedRegistration() }, retryAfterMillis, TimeUnit.MILLISECONDS)
+    }
+
+    @VisibleForTesting
+    internal fun sendParkedRegistration() {
+        val registration = synchronized(this) {
+            parkedRegistrationFuture = null
+            parkedRegistration.also { parkedRegistration = null }
+        }
+        registration?.invoke()
+    }
+
     private fun dispatchRegistrationStatus(registrationStatus: Boolean) {
         extensionApi.dispatch(
-            Event.Builder("Device Registration Status", EventType.CAMPAIGN, EventSource.RESPONSE_CONTENT)
+            Event.Builder(
+                CampaignClassicConstants.EventNames.DEVICE_REGISTRATION_STATUS,
+                EventType.CAMPAIGN,
+                EventSource.RESPONSE_CONTENT
+            )
                 .setEventData(
                     mapOf(
                         CampaignClassicConstants.EventDataKeys.CampaignClassic.REGISTRATION_STATUS to registrationStatus
@@ -10,36 +10,114 @@
 */
 package com.adobe.marketing.mobile.campaignclassic.internal
 
+import android.content.ComponentCallbacks2
+import android.content.Context
+import android.content.res.Configuration
+import android.net.ConnectivityManager
+import android.net.Network
+import android.net.NetworkCapabilities
+import android.os.Build
 import androidx.annotation.VisibleForTesting
 import com.adobe.marketing.mobile.Event
+import com.adobe.marketing.mobile.EventSource
+import com.adobe.marketing.mobile.EventType
 import com.adobe.marketing.mobile.ExtensionApi
 import com.adobe.marketing.mobile.MobilePrivacyStatus
-import com.adobe.marketing.mobile.services.HttpMethod
+import com.adobe.marketing.mobile.services.AppState
+import com.adobe.marketing.mobile.services.DeviceInforming
+import com.adobe.marketing.mobile.services.HitQueuing
 import com.adobe.marketing.mobile.services.Log
-import com.adobe.marketing.mobile.services.NetworkRequest
+import com.adobe.marketing.mobile.services.NamedCollection
 import com.adobe.marketing.mobile.services.Networking
+import com.adobe.marketing.mobile.services.PersistentHitQueue
 import com.adobe.marketing.mobile.services.ServiceProvider
-import java.net.HttpURLConnection
 import java.util.regex.Pattern
 
 /**
  * Handles logic related to notification tracking
- *
+ * <p>
+ * Tracking hits are persisted in a [HitQueuing] so that hits created while the device is offline or
+ * while the tracking server is unavailable are delivered later, in order, even after the
+ * application process was killed. The queues wait while the device is offline and are flushed as
+ * soon as connectivity is restored. Hits which were already tracked for the same message, delivery
+ * and tag id are suppressed by a [TrackingHitDeduplicator] before being queued.
+ * <p>
+ * Click and receive hits are queued in separate [TrackingLane]s. The receive lane is suspended
+ * while click hits are pending, so a burst of receive hits never delays the click hits. Hits are
+ * parked in their queue while the [CircuitBreakerRegistry] circuit of the tracking server is open.
+ * <p>
+ * Receive hits are deferred: their lane stays suspended until the [TrackingFlushScheduler] flushes
+ * them, when enough hits are pending, after a maximum delay, when the application goes to the
+ * background or on an unmetered network. Receive hits queued while no application UI is visible are
+ * flushed right away. Click hits are always sent right away.
  */
 internal class TrackRequestManager {
     private val UUID_PATTERN = Pattern.compile("^(?i)[0-9a-f]{8}-([0-9a-f]{4}-){3}[0-9a-f]{12}$")
     private val extensionApi: ExtensionApi
-    private val networkService: Networking?
+    private val clickMetrics = TrackingQueueMetrics()
+    private val receiveMetrics = TrackingQueueMetrics()
+    private val clickProcessor: TrackingHitProcessor
+    private val receiveProcessor: TrackingHitProcessor
+    private val clickQueue: HitQueuing?
+    private val receiveQueue: HitQueuing?
+    private val deduplicator: TrackingHitDeduplicator
+    private val circuitBreakers: CircuitBreakerRegistry
+    private val connectivityManager: ConnectivityManager?
+    private val isAppInForeground: () -> Boolean
+    private val flushScheduler = TrackingFlushScheduler { resumeQueues() }
 
-    constructor(extensionApi: ExtensionApi) {
+    @Volatile
+    private var connectivityMonitored = false
+
+    constructor(extensionApi: ExtensionApi, circuitBreakers: CircuitBreakerRegistry) {
         this.extensionApi = extensionApi
-        networkService = ServiceProvider.getInstance().networkService
+        this.circuitBreakers = circuitBreakers
+        val networkService = ServiceProvider.getInstance().networkService
+        val deviceInfoService = ServiceProvider.getInstance().deviceInfoService
+        clickProcessor = createHitProcessor(TrackingLane.CLICK, networkService, deviceInfoService)
+        receiveProcessor = createHitProcessor(TrackingLane.RECEIVE, networkService, deviceInfoService)
+        clickQueue = createHitQueue(TrackingLane.CLICK, clickProcessor)
+        receiveQueue = createHitQueue(TrackingLane.RECEIVE, receiveProcessor)
+        deduplicator = TrackingHitDeduplicator(
+            ServiceProvider.getInstance().dataStoreService?.getNamedCollection(
+                CampaignClassicConstants.DATASTORE_KEY
+            )
+        )
+        val context = ServiceProvider.getInstance().appContextService.applicationContext
+        connectivityManager = context?.getSystemService(Context.CONNECTIVITY_SERVICE) as? ConnectivityManager
+        isAppInForeground = { ServiceProvider.getInstance().appContextService.appState == AppState.FOREGROUND }
+        registerConnectivityCallback()
+        registerBackgroundCallback(context)
+
+        // send the hits persisted by a previous session
+        flushPendingHits(TrackingFlushScheduler.REASON_STARTUP)
+        resumeQueues()
     }
 
     @VisibleForTesting
-    constructor(extensionApi: ExtensionApi, networkService: Networking?) {
+    constructor(extensionApi: ExtensionApi, networkService: Networking?) :
+        this(extensionApi, networkService, null, null, null, null, CircuitBreakerRegistry(extensionApi))
+
+    @VisibleForTesting
+    constructor(
+        extensionApi: ExtensionApi,
+        networkService: Networking?,
+        deviceInfoService: DeviceInforming?,
+        clickQueue: HitQueuing?,
+        receiveQueue: HitQueuing?,
+        dataStore: NamedCollection?,
+        circuitBreakers: CircuitBreakerRegistry,
+        isAppInForeground: () -> Boolean = { true }
+    ) {
         this.extensionApi = extensionApi
-        this.networkService = networkService
+        this.circuitBreakers = circuitBreakers
+        clickProcessor = createHitProcessor(TrackingLane.CLICK, networkService, deviceInfoService)
+        receiveProcessor = createHitProcessor(TrackingLane.RECEIVE, networkService, deviceInfoService)
+        this.clickQueue = clickQueue
+        this.receiveQueue = receiveQueue
+        connectivityManager = null
+        this.isAppInForeground = isAppInForeground
+        deduplicator = TrackingHitDeduplicator(dataStore)
     }
 
     companion object {
@@ -118,6 +196,19 @@ internal class TrackRequestManager {
             }
         }
 
+        // drop hits which were already tracked, e.g. a receive tracked again when the notification is opened
+        val lane = TrackingLane.forTagId(tagId)
+        if (deduplicator.isDuplicate(messageId, deliveryId, tagId)) {
+            getMetrics(lane).onHitSuppressed()
+            Log.debug(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "handleTrackRequest - Suppressing duplicate TrackNotification request for messageId $messageId," +
+                    " deliveryId $deliveryId and tagId $tagId."
+            )
+            return
+        }
+
         // create URL
         val trackUrl = java.lang.String.format(
             CampaignClassicConstants.TRACKING_API_URL_BASE,
@@ -127,66 +218,252 @@ internal class TrackRequestManager {
             tagId
         )
 
-        // send network request
-        sendTrackingRequest(trackUrl, configData.timeout)
+        // queue the tracking hit
+        queueTrackingRequest(lane, trackUrl, configData.timeout)
+    }
+
+    /**
+     * Clears the tracking hits which were not sent yet and the index of the tracked hits, used when the privacy
+     * status changes to [MobilePrivacyStatus.OPT_OUT].
+     */
+    fun clearQueuedHits() {
+        clickQueue?.clear()
+        receiveQueue?.clear()
+        flushScheduler.reset()
+        deduplicator.clear()
+    }
+
+    /**
+     * Returns the delivery metrics of a tracking lane.
+     *
+     * @param lane the [TrackingLane] to read the metrics of
+     * @return a [TrackingQueueMetrics.Snapshot] containing the current metrics of the lane
+     */
+    fun getQueueMetrics(lane: TrackingLane): TrackingQueueMetrics.Snapshot {
+        return getMetrics(lane).snapshot(getQueue(lane)?.count() ?: 0)
+    }
+
+    /**
+     * Dispatches the delivery metrics of both tracking lanes in response to a tracking queue metrics request.
+     *
+     * @param event the [Event] requesting the tracking queue metrics
+     */
+    fun dispatchQueueMetrics(event: Event) {
+        extensionApi.dispatch(
+            Event.Builder(
+                CampaignClassicConstants.EventNames.TRACKING_QUEUE_METRICS,
+                EventType.CAMPAIGN,
+                EventSource.RESPONSE_CONTENT
+            )
+                .setEventData(
+                    mapOf(
+                        CampaignClassicConstants.EventDataKeys.CampaignClassic.TRACKING_QUEUE_METRICS to mapOf(
+                            CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.CLICK_LANE to
+                                getQueueMetrics(TrackingLane.CLICK).toEventData(),
+                            CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.RECEIVE_LANE to
+                                getQueueMetrics(TrackingLane.RECEIVE).toEventData()
+                        )
+                    )
+                )
+                .inResponseToEvent(event)
+                .build()
+        )
     }
 
     // ========================================================
     // private methods
     // ========================================================
     /**
-     * Sends a notification track request to the configured Campaign Classic tracking server as specified by the `trackUrl`.
+     * Queues a notification track request for the configured Campaign Classic tracking server as specified by the `trackUrl`.
+     * The request is sent right away if the hit queue of the lane is not available.
      *
+     * @param lane the [TrackingLane] of the request
      * @param trackUrl [String] containing the Campaign Classic tracking server url to connect to
      * @param requestTimeout `int` containing the request timeout to use for the connection
      */
-    private fun sendTrackingRequest(trackUrl: String, requestTimeout: Int) {
-        if (networkService == null) {
+    private fun queueTrackingRequest(lane: TrackingLane, trackUrl: String, requestTimeout: Int) {
+        val dataEntity = TrackingHitProcessor.createDataEntity(trackUrl, requestTimeout)
+        val hitQueue = getQueue(lane)
+        getMetrics(lane).onHitQueued()
+        if (hitQueue == null || !hitQueue.queue(dataEntity)) {
             Log.debug(
                 CampaignClassicConstants.LOG_TAG,
                 SELF_TAG,
-                "sendTrackingRequest - Cannot send request, Network service is not available"
+                "queueTrackingRequest - Hit queue is not available, sending the tracking request without retries."
             )
+            getProcessor(lane).processHit(dataEntity) {}
             return
         }
 
-        val networkRequest = NetworkRequest(
-            trackUrl,
-            HttpMethod.GET,
-            null,
-            null,
-            requestTimeout,
-            requestTimeout
-        )
+        if (lane == TrackingLane.CLICK) {
+            // the receive lane waits until the click hits are sent
+            receiveQueue?.suspend()
+            // resume the queues in case they are waiting for connectivity
+            resumeQueues()
+        } else {
+            flushScheduler.onHitQueued(hitQueue.count(), isUnmeteredNetwork(), isAppInForeground())
+        }
 
-        // send tracking request
         Log.trace(
             CampaignClassicConstants.LOG_TAG,
             SELF_TAG,
-            "sendTrackingRequest - TrackingNotification network call initiated with URL :  $trackUrl."
+            "queueTrackingRequest - Tracking hit queued in $lane lane, ${getQueueMetrics(lane)}."
+        )
+    }
+
+    /**
+     * Resumes the click lane, and the receive lane if it is being flushed and no click hits are pending.
+     */
+    private fun resumeQueues() {
+        clickQueue?.beginProcessing()
+        if (flushScheduler.isFlushing() && (clickQueue == null || clickQueue.count() == 0)) {
+            receiveQueue?.beginProcessing()
+        }
+    }
+
+    /**
+     * Flushes the receive lane if it has pending hits.
+     *
+     * @param reason [String] describing why the hits are flushed
+     */
+    private fun flushPendingHits(reason: String) {
+        if ((receiveQueue?.count() ?: 0) > 0) {
+            flushScheduler.flush(reason)
+        }
+    }
+
+    private fun isUnmeteredNetwork(): Boolean {
+        return connectivityManager?.isActiveNetworkMetered == false
+    }
+
+    private fun onOffline() {
+        // without a connectivity callback the hits are retried with the processor backoff
+        if (connectivityMonitored) {
+            clickQueue?.suspend()
+            receiveQueue?.suspend()
+        }
+    }
+
+    private fun onClickHitCompleted() {
+        if (clickQueue?.count() == 0 && flushScheduler.isFlushing()) {
+            receiveQueue?.beginProcessing()
+        }
+    }
+
+    private fun onReceiveHitCompleted() {
+        val hitQueue = receiveQueue ?: return
+        if (hitQueue.count() > 0) {
+            return
+        }
+
+        // the flush is over, defer the next receive hits again
+        hitQueue.suspend()
+        flushScheduler.reset()
+
+        // a hit queued while the flush was ending must not wait for the next trigger
+        val queueDepth = hitQueue.count()
+        if (queueDepth > 0) {
+            flushScheduler.onHitQueued(queueDepth, isUnmeteredNetwork(), isAppInForeground())
+        }
+    }
+
+    private fun createHitProcessor(
+        lane: TrackingLane,
+        networkService: Networking?,
+        deviceInfoService: DeviceInforming?
+    ): TrackingHitProcessor {
+        return TrackingHitProcessor(
+            lane,
+            networkService,
+            deviceInfoService,
+            circuitBreakers,
+            getMetrics(lane),
+            { onOffline() },
+            { if (lane == TrackingLane.CLICK) onClickHitCompleted() else onReceiveHitCompleted() }
         )
-        networkService.connectAsync(networkRequest) {
-            if (it != null) {
-                if (it.responseCode == HttpURLConnection.HTTP_OK) {
+    }
+
+    private fun createHitQueue(lane: TrackingLane, hitProcessor: TrackingHitProcessor): HitQueuing? {
+        return ServiceProvider.getInstance().dataQueueService
+            ?.getDataQueue(lane.queueName)
+            ?.let { PersistentHitQueue(it, hitProcessor) }
+    }
+
+    private fun getMetrics(lane: TrackingLane): TrackingQueueMetrics {
+        return if (lane == TrackingLane.CLICK) clickMetrics else receiveMetrics
+    }
+
+    private fun getProcessor(lane: TrackingLane): TrackingHitProcessor {
+        return if (lane == TrackingLane.CLICK) clickProcessor else receiveProcessor
+    }
+
+    private fun getQueue(lane: TrackingLane): HitQueuing? {
+        return if (lane == TrackingLane.CLICK) clickQueue else receiveQueue
+    }
+
+    /**
+     * Registers a network callback which flushes the hit queues when connectivity is restored, and the
+     * receive lane when the device switches to an unmetered network.
+     */
+    private fun registerConnectivityCallback() {
+        if ((clickQueue == null && receiveQueue == null) || Build.VERSION.SDK_INT < Build.VERSION_CODES.N) {
+            return
+        }
+
+        val connectivityManager = connectivityManager ?: return
+        try {
+            connectivityManager.registerDefaultNetworkCallback(object : ConnectivityManager.NetworkCallback() {
+                override fun onAvailable(network: Network) {
                     Log.trace(
                         CampaignClassicConstants.LOG_TAG,
                         SELF_TAG,
-                        "sendTrackingRequest - Connection successful ${it.responseMessage}."
-                    )
-                } else {
-                    Log.warning(
-                        CampaignClassicConstants.LOG_TAG,
-                        SELF_TAG,
-                        "sendTrackingRequest - Connection failed ${it.responseMessage}."
+                        "onAvailable - Connectivity restored, sending the queued tracking hits."
                     )
+                    clickProcessor.resetBackoff()
+                    receiveProcessor.resetBackoff()
+                    resumeQueues()
                 }
 
-                // close the connection
-                it.close()
-            }
+                override fun onCapabilitiesChanged(network: Network, networkCapabilities: NetworkCapabilities) {
+                    if (networkCapabilities.hasCapability(NetworkCapabilities.NET_CAPABILITY_NOT_METERED)) {
+                        flushPendingHits(TrackingFlushScheduler.REASON_UNMETERED)
+                    }
+                }
+            })
+            connectivityMonitored = true
+        } catch (ex: SecurityException) {
+            Log.debug(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "registerConnectivityCallback - Unable to monitor connectivity. Error ${ex.message}"
+            )
         }
     }
 
+    /**
+     * Registers a callback which flushes the receive lane when the application UI is hidden, as the
+     * process may be stopped once in the background.
+     *
+     * @param context the application [Context]
+     */
+    private fun registerBackgroundCallback(context: Context?) {
+        if (context == null || receiveQueue == null) {
+            return
+        }
+
+        context.registerComponentCallbacks(object : ComponentCallbacks2 {
+            override fun onTrimMemory(level: Int) {
+                if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+                    flushPendingHits(TrackingFlushScheduler.REASON_BACKGROUND)
+                }
+            }
+
+            override fun onConfigurationChanged(newConfig: Configuration) {}
+
+            override fun onLowMemory() {}
+        })
+    }
+
     /**
      * Match the [String] against a compiled UUID pattern
      * &#39;^(?i)[0-9a-f]{8}-([0-9a-f]{4}-){3}[0-9a-f]{12}$&#39;.
@@ -0,0 +1,136 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import androidx.annotation.VisibleForTesting
+import com.adobe.marketing.mobile.services.Log
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.ScheduledFuture
+import java.util.concurrent.TimeUnit
+
+/**
+ * Decides when the deferred receive tracking hits are flushed.
+ * <p>
+ * Receive hits don't need to be delivered right away, sending each of them wakes up the cellular
+ * radio for a single small request. The receive lane is kept suspended and pending hits are
+ * flushed together when:
+ * - [CampaignClassicConstants.TrackingHitQueue.FLUSH_SIZE_THRESHOLD] hits are pending
+ * - the oldest pending hit waited [CampaignClassicConstants.TrackingHitQueue.FLUSH_MAX_DELAY_IN_MILLISECONDS]
+ * - the application goes to the background
+ * - the device is on an unmetered network
+ * <p>
+ * A hit queued while the application is in the background, e.g. a receive tracked when a push message
+ * starts the process, is flushed right away: the process may be stopped before the maximum delay elapses.
+ * <p>
+ * A flush lasts until the lane is drained, hits queued meanwhile are sent as part of it.
+ */
+internal class TrackingFlushScheduler {
+    private val maxDelayMillis: Long
+    private val onFlush: (reason: String) -> Unit
+    private var flushing = false
+    private var delayedFlush: ScheduledFuture<*>? = null
+    private val executor: ScheduledExecutorService by lazy {
+        Executors.newSingleThreadScheduledExecutor()
+    }
+
+    /**
+     * @param onFlush invoked when a flush starts, with the reason of the flush
+     */
+    constructor(onFlush: (reason: String) -> Unit) :
+        this(CampaignClassicConstants.TrackingHitQueue.FLUSH_MAX_DELAY_IN_MILLISECONDS, onFlush)
+
+    @VisibleForTesting
+    constructor(maxDelayMillis: Long, onFlush: (reason: String) -> Unit) {
+        this.maxDelayMillis = maxDelayMillis
+        this.onFlush = onFlush
+    }
+
+    companion object {
+        private const val SELF_TAG = "TrackingFlushScheduler"
+        const val REASON_SIZE = "size"
+        const val REASON_DELAY = "delay"
+        const val REASON_BACKGROUND = "background"
+        const val REASON_UNMETERED = "unmetered"
+        const val REASON_STARTUP = "startup"
+    }
+
+    /**
+     * Called when a receive hit was queued.
+     *
+     * @param queueDepth number of receive hits pending, including the queued hit
+     * @param unmetered true if the device is on an unmetered network
+     * @param foreground true if the application UI is visible
+     */
+    fun onHitQueued(queueDepth: Int, unmetered: Boolean, foreground: Boolean) {
+        when {
+            queueDepth >= CampaignClassicConstants.TrackingHitQueue.FLUSH_SIZE_THRESHOLD -> flush(REASON_SIZE)
+            unmetered -> flush(REASON_UNMETERED)
+            !foreground -> flush(REASON_BACKGROUND)
+            else -> scheduleDelayedFlush()
+        }
+    }
+
+    /**
+     * Starts a flush of the pending receive hits, if one is not already in progress.
+     *
+     * @param reason [String] describing why the hits are flushed
+     */
+    fun flush(reason: String) {
+        synchronized(this) {
+            delayedFlush?.cancel(false)
+            delayedFlush = null
+            if (flushing) {
+                return
+            }
+            flushing = true
+        }
+
+        Log.trace(
+            CampaignClassicConstants.LOG_TAG,
+            SELF_TAG,
+            "flush - Flushing the receive tracking hits ($reason)."
+        )
+        onFlush(reason)
+    }
+
+    /**
+     * @return true if a flush is in progress
+     */
+    @Synchronized
+    fun isFlushing(): Boolean {
+        return flushing
+    }
+
+    /**
+     * Ends the flush in progress and cancels the delayed flush, called once the receive lane is
+     * drained or cleared.
+     */
+    @Synchronized
+    fun reset() {
+        flushing = false
+        delayedFlush?.cancel(false)
+        delayedFlush = null
+    }
+
+    @Synchronized
+    private fun scheduleDelayedFlush() {
+        if (flushing || delayedFlush != null) {
+            return
+        }
+
+        delayedFlush = executor.schedule(
+            { flush(REASON_DELAY) },
+            maxDelayMillis,
+            TimeUnit.MILLISECONDS
+        )
+    }
+}
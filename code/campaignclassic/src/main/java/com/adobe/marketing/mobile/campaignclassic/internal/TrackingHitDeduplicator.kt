@@ -0,0 +1,81 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import com.adobe.marketing.mobile.services.NamedCollection
+import java.util.concurrent.TimeUnit
+
+/**
+ * Persisted index of the tracking hits which were already queued.
+ * <p>
+ * A notification receive can be tracked more than once for the same message, when the payload is
+ * redelivered or when the receive is tracked again as the notification is opened. Each hit is
+ * identified by its message id, delivery id and tag id, and a hit already present in the index is
+ * suppressed before it reaches the network. Entries expire after
+ * [CampaignClassicConstants.TrackingHitQueue.DEDUPLICATION_TTL_IN_SECONDS] and only the
+ * [CampaignClassicConstants.TrackingHitQueue.DEDUPLICATION_MAX_ENTRIES] most recent hits are kept.
+ *
+ * @param dataStore the [NamedCollection] where the index is persisted, if null the index is only kept in memory
+ */
+internal class TrackingHitDeduplicator(private val dataStore: NamedCollection?) {
+    // hit key to the time the hit was queued
+    private var trackedHits: MutableMap<String, String>? = null
+
+    /**
+     * Records a tracking hit and determines if it was already tracked.
+     *
+     * @param messageId [String] containing the message id of the hit
+     * @param deliveryId [String] containing the delivery id of the hit
+     * @param tagId [String] indicating whether it is a notification receive or notification click hit
+     * @return true if the hit was already tracked and must be suppressed
+     */
+    @Synchronized
+    fun isDuplicate(messageId: String, deliveryId: String, tagId: String): Boolean {
+        val hits = getTrackedHits()
+        val now = System.currentTimeMillis()
+        val pruned = pruneExpiredHits(hits, now)
+        val hitKey = "$messageId,$deliveryId,$tagId"
+        if (hits.containsKey(hitKey)) {
+            if (pruned) {
+                dataStore?.setMap(CampaignClassicConstants.DataStoreKeys.TRACKED_HITS, hits)
+            }
+            return true
+        }
+
+        hits[hitKey] = now.toString()
+        while (hits.size > CampaignClassicConstants.TrackingHitQueue.DEDUPLICATION_MAX_ENTRIES) {
+            val oldestHitKey = hits.minByOrNull { it.value.toLongOrNull() ?: 0 }?.key ?: break
+            hits.remove(oldestHitKey)
+        }
+        dataStore?.setMap(CampaignClassicConstants.DataStoreKeys.TRACKED_HITS, hits)
+        return false
+    }
+
+    /**
+     * Clears the index, used when the privacy status changes to opt out.
+     */
+    @Synchronized
+    fun clear() {
+        trackedHits = null
+        dataStore?.remove(CampaignClassicConstants.DataStoreKeys.TRACKED_HITS)
+    }
+
+    private fun getTrackedHits(): MutableMap<String, String> {
+        return trackedHits ?: HashMap(
+            dataStore?.getMap(CampaignClassicConstants.DataStoreKeys.TRACKED_HITS) ?: emptyMap()
+        ).also { trackedHits = it }
+    }
+
+    private fun pruneExpiredHits(hits: MutableMap<String, String>, now: Long): Boolean {
+        val ttlMillis = TimeUnit.SECONDS.toMillis(CampaignClassicConstants.TrackingHitQueue.DEDUPLICATION_TTL_IN_SECONDS)
+        return hits.entries.removeAll { now - (it.value.toLongOrNull() ?: 0) > ttlMillis }
+    }
+}
@@ -0,0 +1,231 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import com.adobe.marketing.mobile.services.DataEntity
+import com.adobe.marketing.mobile.services.DeviceInforming
+import com.adobe.marketing.mobile.services.HitProcessing
+import com.adobe.marketing.mobile.services.HitProcessingResult
+import com.adobe.marketing.mobile.services.HttpMethod
+import com.adobe.marketing.mobile.services.Log
+import com.adobe.marketing.mobile.services.NetworkRequest
+import com.adobe.marketing.mobile.services.Networking
+import org.json.JSONException
+import org.json.JSONObject
+import java.net.HttpURLConnection
+import java.util.concurrent.TimeUnit
+
+/**
+ * Sends the tracking hits of a [TrackingLane], queued by [TrackRequestManager], to the Campaign Classic
+ * tracking server.
+ * <p>
+ * Hits are delivered one at a time in the order they were queued. A hit which failed with a
+ * recoverable error (no response, request timeout, too many requests or a server error) is retried
+ * with an exponential backoff starting at the [TrackingLane.initialRetryInterval] and capped at the
+ * [TrackingLane.maxRetryInterval] of the lane. Hits rejected by the
+ * server or older than [CampaignClassicConstants.TrackingHitQueue.MAX_HIT_AGE_IN_SECONDS] are
+ * dropped. When the device is offline the hit is not attempted and [onOffline] is invoked so the
+ * queue can wait for connectivity instead of backing off. While the circuit of the tracking server
+ * is open the hit is parked in the queue until the circuit allows a probe request.
+ *
+ * @param lane the [TrackingLane] of the processed hits
+ * @param networkService the [Networking] service used to send the hits
+ * @param deviceInfoService the [DeviceInforming] service used to read the connection status
+ * @param circuitBreakers the [CircuitBreakerRegistry] of the tracking servers
+ * @param metrics the [TrackingQueueMetrics] updated with the delivery results
+ * @param onOffline invoked when a hit could not be sent because the device is offline
+ * @param onHitCompleted invoked once a hit was sent or dropped and removed from the queue
+ */
+internal class TrackingHitProcessor(
+    private val lane: TrackingLane,
+    private val networkService: Networking?,
+    private val deviceInfoService: DeviceInforming?,
+    private val circuitBreakers: CircuitBreakerRegistry,
+    private val metrics: TrackingQueueMetrics,
+    private val onOffline: () -> Unit,
+    private val onHitCompleted: () -> Unit
+) : HitProcessing {
+
+    @Volatile
+    private var consecutiveFailures = 0
+
+    // retry interval of a hit parked while the circuit of its host is open, 0 if not parked
+    @Volatile
+    private var parkedRetryInterval = 0
+
+    companion object {
+        private const val SELF_TAG = "TrackingHitProcessor"
+
+        /**
+         * Creates the [DataEntity] persisted in the hit queue for a tracking request.
+         *
+         * @param trackUrl [String] containing the tracking url
+         * @param requestTimeout `int` containing the request timeout in seconds
+         * @return the [DataEntity] of the tracking hit
+         */
+        fun createDataEntity(trackUrl: String, requestTimeout: Int): DataEntity {
+            val hit = JSONObject()
+            hit.put(CampaignClassicConstants.TrackingHitQueue.HIT_KEY_URL, trackUrl)
+            hit.put(CampaignClassicConstants.TrackingHitQueue.HIT_KEY_TIMEOUT, requestTimeout)
+            return DataEntity(hit.toString())
+        }
+    }
+
+    override fun retryInterval(entity: DataEntity): Int {
+        val parkedInterval = parkedRetryInterval
+        if (parkedInterval > 0) {
+            parkedRetryInterval = 0
+            return parkedInterval
+        }
+
+        val exponent = (consecutiveFailures - 1).coerceIn(0, 16)
+        return (lane.initialRetryInterval shl exponent).coerceAtMost(lane.maxRetryInterval)
+    }
+
+    override fun processHit(entity: DataEntity, processingResult: HitProcessingResult) {
+        val hit = try {
+            JSONObject(entity.data ?: "")
+        } catch (ex: JSONException) {
+            Log.debug(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "processHit - Dropping tracking hit ${entity.uniqueIdentifier}, it could not be read. Error ${ex.message}"
+            )
+            drop(processingResult)
+            return
+        }
+
+        val hitAgeMillis = System.currentTimeMillis() - entity.timestamp.time
+        if (hitAgeMillis > TimeUnit.SECONDS.toMillis(CampaignClassicConstants.TrackingHitQueue.MAX_HIT_AGE_IN_SECONDS)) {
+            Log.debug(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "processHit - Dropping tracking hit ${entity.uniqueIdentifier}, it expired before it could be sent."
+            )
+            drop(processingResult)
+            return
+        }
+
+        if (networkService == null) {
+            Log.debug(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "processHit - Cannot send request, Network service is not available"
+            )
+            retry(processingResult)
+            return
+        }
+
+        if (deviceInfoService?.networkConnectionStatus == DeviceInforming.ConnectionStatus.DISCONNECTED) {
+            Log.trace(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "processHit - Device is offline, waiting for connectivity to send the tracking hits."
+            )
+            onOffline()
+            consecutiveFailures++
+            processingResult.complete(false)
+            return
+        }
+
+        val trackUrl = hit.optString(CampaignClassicConstants.TrackingHitQueue.HIT_KEY_URL)
+        val host = CircuitBreakerRegistry.getHost(trackUrl)
+        val permit = circuitBreakers.allowRequest(host)
+        if (permit == null) {
+            val retryAfterMillis = circuitBreakers.getRetryAfterMillis(host)
+            Log.trace(
+                CampaignClassicConstants.LOG_TAG,
+                SELF_TAG,
+                "processHit - Circuit for $host is open, parking the tracking hit for $retryAfterMillis ms."
+            )
+            parkedRetryInterval = TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999).toInt().coerceAtLeast(1)
+            processingResult.complete(false)
+            return
+        }
+
+        val requestTimeout = hit.optInt(
+            CampaignClassicConstants.TrackingHitQueue.HIT_KEY_TIMEOUT,
+            CampaignClassicConstants.DEFAULT_TIMEOUT
+        )
+        val networkRequest = NetworkRequest(
+            trackUrl,
+            HttpMethod.GET,
+            null,
+            null,
+            requestTimeout,
+            requestTimeout
+        )
+
+        // send tracking request
+        Log.trace(
+            CampaignClassicConstants.LOG_TAG,
+            SELF_TAG,
+            "processHit - TrackingNotification network call initiated with URL :  $trackUrl."
+        )
+        val sendTime = System.currentTimeMillis()
+        networkService.connectAsync(networkRequest) {
+            val responseCode = it?.responseCode ?: -1
+            circuitBreakers.recordResponse(permit, responseCode)
+            when {
+                responseCode == HttpURLConnection.HTTP_OK -> {
+                    Log.trace(
+                        CampaignClassicConstants.LOG_TAG,
+                        SELF_TAG,
+                        "processHit - Connection successful ${it?.responseMessage}."
+                    )
+                    consecutiveFailures = 0
+                    val now = System.currentTimeMillis()
+                    metrics.onHitSent(now - sendTime, now - entity.timestamp.time)
+                    processingResult.complete(true)
+                    onHitCompleted()
+                }
+                CircuitBreakerRegistry.isServerFailure(responseCode) -> {
+                    Log.warning(
+                        CampaignClassicConstants.LOG_TAG,
+                        SELF_TAG,
+                        "processHit - Connection failed ($responseCode), the tracking hit will be retried."
+                    )
+                    retry(processingResult)
+                }
+                else -> {
+                    Log.warning(
+                        CampaignClassicConstants.LOG_TAG,
+                        SELF_TAG,
+                        "processHit - Connection failed ${it?.responseMessage}, dropping the tracking hit."
+                    )
+                    drop(processingResult)
+                }
+            }
+
+            // close the connection
+            it?.close()
+        }
+    }
+
+    /**
+     * Restarts the exponential backoff, used once connectivity is restored.
+     */
+    fun resetBackoff() {
+        consecutiveFailures = 0
+    }
+
+    private fun retry(processingResult: HitProcessingResult) {
+        consecutiveFailures++
+        metrics.onHitRetried()
+        processingResult.complete(false)
+    }
+
+    private fun drop(processingResult: HitProcessingResult) {
+        metrics.onHitDropped()
+        processingResult.complete(true)
+        onHitCompleted()
+    }
+}
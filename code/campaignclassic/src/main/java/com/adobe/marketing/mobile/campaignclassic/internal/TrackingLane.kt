@@ -0,0 +1,51 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+/**
+ * Delivery lanes of the tracking hits. Each lane has its own persisted hit queue which sends one
+ * hit at a time, in order.
+ * <p>
+ * Click hits drive the attribution and are retried at a short interval so they are delivered soon
+ * after a failure. Receive hits are deferrable: their lane waits while click hits are pending.
+ *
+ * @property queueName [String] containing the name of the data queue of the lane
+ * @property initialRetryInterval retry interval in seconds after the first failure
+ * @property maxRetryInterval maximum retry interval in seconds
+ */
+internal enum class TrackingLane(
+    val queueName: String,
+    val initialRetryInterval: Int,
+    val maxRetryInterval: Int
+) {
+    CLICK(
+        CampaignClassicConstants.CLICK_TRACKING_HIT_QUEUE_NAME,
+        CampaignClassicConstants.TrackingHitQueue.CLICK_INITIAL_RETRY_INTERVAL_IN_SECONDS,
+        CampaignClassicConstants.TrackingHitQueue.CLICK_MAX_RETRY_INTERVAL_IN_SECONDS
+    ),
+
+    // keeps the original tracking hit queue, which holds the hits queued before the lanes existed
+    RECEIVE(
+        CampaignClassicConstants.TRACKING_HIT_QUEUE_NAME,
+        CampaignClassicConstants.TrackingHitQueue.INITIAL_RETRY_INTERVAL_IN_SECONDS,
+        CampaignClassicConstants.TrackingHitQueue.MAX_RETRY_INTERVAL_IN_SECONDS
+    );
+
+    companion object {
+        /**
+         * @param tagId [String] indicating whether it is a notification receive or notification click request
+         * @return the [TrackingLane] of the tracking hits with the given tag id
+         */
+        fun forTagId(tagId: String): TrackingLane {
+            return if (tagId == CampaignClassicConstants.MESSAGE_CLICKED_TAGID) CLICK else RECEIVE
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Counters describing the delivery of the hits of a [TrackingLane] since the extension was registered.
+ */
+internal class TrackingQueueMetrics {
+    private val startTime = System.currentTimeMillis()
+    private val hitsQueued = AtomicLong()
+    private val hitsSent = AtomicLong()
+    private val hitsRetried = AtomicLong()
+    private val hitsDropped = AtomicLong()
+    private val hitsSuppressed = AtomicLong()
+    private val sendTimeMillis = AtomicLong()
+    private val deliveryLatencyMillis = AtomicLong()
+
+    /**
+     * Immutable view of the metrics.
+     *
+     * @property queueDepth number of hits waiting to be sent
+     * @property hitsQueued number of hits added to the queue
+     * @property hitsSent number of hits accepted by the tracking server
+     * @property hitsRetried number of failed attempts which will be retried
+     * @property hitsDropped number of hits discarded because they expired or were rejected
+     * @property hitsSuppressed number of duplicate hits which were not queued
+     * @property hitsPerMinute average number of hits sent per minute
+     * @property averageSendTimeMillis average duration of a successful tracking request
+     * @property averageDeliveryLatencyMillis average time between queueing a hit and its successful delivery
+     */
+    data class Snapshot(
+        val queueDepth: Int,
+        val hitsQueued: Long,
+        val hitsSent: Long,
+        val hitsRetried: Long,
+        val hitsDropped: Long,
+        val hitsSuppressed: Long,
+        val hitsPerMinute: Double,
+        val averageSendTimeMillis: Long,
+        val averageDeliveryLatencyMillis: Long
+    ) {
+        /**
+         * @return a [Map] containing the metrics, used as the event data of the tracking queue metrics response
+         */
+        fun toEventData(): Map<String, Any> {
+            return mapOf(
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.QUEUE_DEPTH to queueDepth,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.HITS_QUEUED to hitsQueued,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.HITS_SENT to hitsSent,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.HITS_RETRIED to hitsRetried,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.HITS_DROPPED to hitsDropped,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.HITS_SUPPRESSED to hitsSuppressed,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.HITS_PER_MINUTE to hitsPerMinute,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.AVERAGE_SEND_TIME to averageSendTimeMillis,
+                CampaignClassicConstants.EventDataKeys.TrackingQueueMetrics.AVERAGE_DELIVERY_LATENCY to
+                    averageDeliveryLatencyMillis
+            )
+        }
+    }
+
+    fun onHitQueued() {
+        hitsQueued.incrementAndGet()
+    }
+
+    fun onHitSent(sendTimeMillis: Long, deliveryLatencyMillis: Long) {
+        hitsSent.incrementAndGet()
+        this.sendTimeMillis.addAndGet(sendTimeMillis)
+        this.deliveryLatencyMillis.addAndGet(deliveryLatencyMillis)
+    }
+
+    fun onHitRetried() {
+        hitsRetried.incrementAndGet()
+    }
+
+    fun onHitDropped() {
+        hitsDropped.incrementAndGet()
+    }
+
+    fun onHitSuppressed() {
+        hitsSuppressed.incrementAndGet()
+    }
+
+    /**
+     * @param queueDepth number of hits currently waiting in the queue
+     * @return a [Snapshot] of the current metrics
+     */
+    fun snapshot(queueDepth: Int): Snapshot {
+        val sent = hitsSent.get()
+        val elapsedMillis = (System.currentTimeMillis() - startTime).coerceAtLeast(1)
+        return Snapshot(
+            queueDepth,
+            hitsQueued.get(),
+            sent,
+            hitsRetried.get(),
+            hitsDropped.get(),
+            hitsSuppressed.get(),
+            sent * TimeUnit.MINUTES.toMillis(1).toDouble() / elapsedMillis,
+            if (sent == 0L) 0 else sendTimeMillis.get() / sent,
+            if (sent == 0L) 0 else deliveryLatencyMillis.get() / sent
+        )
+    }
+}
@@ -13,8 +13,10 @@ package com.adobe.marketing.mobile;
 import androidx.annotation.NonNull;
 import com.adobe.marketing.mobile.campaignclassic.internal.CampaignClassicExtension;
 import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.util.DataReader;
 import com.adobe.marketing.mobile.util.StringUtils;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class CampaignClassic {
@@ -31,10 +33,15 @@ public class CampaignClassic {
     static final String DEVICE_TOKEN = "devicetoken";
     static final String USER_KEY = "userkey";
     static final String ADDITIONAL_PARAMETERS = "additionalparameters";
+    static final String GET_TRACKING_QUEUE_METRICS = "gettrackingqueuemetrics";
+    static final String TRACKING_QUEUE_METRICS = "trackingqueuemetrics";
+    static final long TRACKING_QUEUE_METRICS_TIMEOUT_IN_MILLISECONDS = 5000;
 
     private static final String NULL_TOKEN_MESSAGE = "The provided token is null or empty";
     private static final String NULL_TRACK_INFO_MESSAGE =
             "The provided trackInfo map is null or empty";
+    private static final String NULL_ASSETS_MESSAGE = "No image urls were provided to prefetch";
+    private static final String NULL_CALLBACK_MESSAGE = "The provided callback is null";
 
     private CampaignClassic() {}
 
@@ -171,4 +178,150 @@ public class CampaignClassic {
                         .build();
         MobileCore.dispatchEvent(event);
     }
+
+    /**
+     * Retrieves the delivery metrics of the notification tracking hits queued by the extension.
+     *
+     * <p>The metrics are returned for the {@code click} and {@code receive} tracking lanes. Each
+     * lane reports its queue depth, the number of queued, sent, retried, dropped and suppressed
+     * hits, the number of hits sent per minute, and the average send time and delivery latency in
+     * milliseconds. Counts cover the lifetime of the current process.
+     *
+     * <p>If the metrics can't be retrieved, the callback is called with null. If the callback is an
+     * {@link AdobeCallbackWithError}, its {@code fail} method is called instead.
+     *
+     * @param callback {@code AdobeCallback<Map<String, Object>>} called with the metrics of each
+     *     tracking lane, keyed by lane name
+     */
+    public static void getTrackingQueueMetrics(
+            @NonNull final AdobeCallback<Map<String, Object>> callback) {
+        if (callback == null) {
+            Log.debug(
+                    LOG_TAG,
+                    SELF_TAG,
+                    "Failed to retrieve the tracking queue metrics for CampaignClassic (%s)",
+                    NULL_CALLBACK_MESSAGE);
+            return;
+        }
+
+        final Map<String, Object> eventData = new HashMap<>();
+        eventData.put(GET_TRACKING_QUEUE_METRICS, true);
+        final Event event =
+                new Event.Builder(
+                                "CampaignClassic Get Tracking Queue Metrics",
+                                EventType.CAMPAIGN,
+                                EventSource.REQUEST_CONTENT)
+                        .setEventData(eventData)
+                        .build();
+
+        MobileCore.dispatchEventWithResponseCallback(
+                event,
+                TRACKING_QUEUE_METRICS_TIMEOUT_IN_MILLISECONDS,
+                new AdobeCallbackWithError<Event>() {
+                    @Override
+                    public void fail(final AdobeError error) {
+                        if (callback instanceof AdobeCallbackWithError) {
+                            ((AdobeCallbackWithError<Map<String, Object>>) callback).fail(error);
+                        } else {
+                            callback.call(null);
+                        }
+                    }
+
+                    @Override
+                    public void call(final Event responseEvent) {
+                        callback.call(
+                                DataReader.optTypedMap(
+                                        Object.class,
+                                        responseEvent.getEventData(),
+                                        TRACKING_QUEUE_METRICS,
+                                        null));
+                    }
+                });
+    }
+
+    /**
+     * Downloads the provided push notification images into the extension's image cache ahead of
+     * time.
+     *
+     * <p>Images are downloaded at low priority in the background, images which are already cached
+     * are not downloaded again. Notifications referencing prefetched images are rendered from the
+     * cache without downloading them while the push message is being handled.
+     *
+     * @param urls {@code List<String>} containing the image urls to prefetch
+     */
+    public static void prefetchAssets(@NonNull final List<String> urls) {
+        if (urls == null || urls.isEmpty()) {
+            Log.debug(
+                    LOG_TAG,
+                    SELF_TAG,
+                    "Failed to prefetch assets for CampaignClassic (%s)",
+                    NULL_ASSETS_MESSAGE);
+            return;
+        }
+
+        PushAssetPrefetcher.prefetch(urls);
+    }
+
+    /**
+     * Downloads the images referenced by a push notification payload into the extension's image
+     * cache ahead of time.
+     *
+     * <p>Image urls are read from the {@code adb_image} and {@code adb_items} payload keys as well
+     * as from the {@code adb_prefetch} key, which may contain a JSON array of image urls. This API
+     * may be used with a silent push message carrying the asset list of an upcoming campaign.
+     *
+     * @param messageData {@code Map<String, String>} containing the push notification payload
+     */
+    public static void prefetchAssets(@NonNull final Map<String, String> messageData) {
+        final List<String> urls = PushAssetPrefetcher.getImageUrls(messageData);
+        if (urls.isEmpty()) {
+            Log.debug(
+                    LOG_TAG,
+                    SELF_TAG,
+                    "Failed to prefetch assets for CampaignClassic (%s)",
+                    NULL_ASSETS_MESSAGE);
+            return;
+        }
+
+        PushAssetPrefetcher.prefetch(urls);
+    }
+
+    /** Cancels all pending and in-progress asset prefetch requests. */
+    public static void cancelAssetPrefetch() {
+        PushAssetPrefetcher.cancel();
+    }
+
+    /**
+     * Sets the maximum total size of the push notification images kept in the extension's image
+     * cache. When the cache grows beyond this size, the least recently used images are removed in
+     * the background. The default limit is 50 MB.
+     *
+     * @param maxSizeInBytes {@code long} containing the maximum size of the image cache in bytes
+     */
+    public static void setImageCacheSizeLimit(final long maxSizeInBytes) {
+        PushImageCacheManager.getInstance().setMaxSizeInBytes(maxSizeInBytes);
+    }
+
+    /**
+     * Returns the current statistics of the extension's push image cache, such as its size, its
+     * hit ratio and the number of evicted images.
+     *
+     * @return a {@link PushImageCacheStats} snapshot of the push image cache
+     */
+    @NonNull public static PushImageCacheStats getImageCacheStats() {
+        return PushImageCacheManager.getInstance().getStats();
+    }
+
+    /**
+     * Sets the maximum total size of the images attached to a single push notification. Images
+     * larger than this limit are scaled down and, for carousel notifications, trailing carousel
+     * items are removed so that the notification can be delivered to the system. The default
+     * limit is 768 KB.
+     *
+     * @param maxSizeInBytes {@code long} containing the maximum size of the notification images
+     *     in bytes
+     */
+    public static void setNotificationImageSizeLimit(final long maxSizeInBytes) {
+        NotificationBitmapBudget.setBudgetInBytes(maxSizeInBytes);
+    }
 }
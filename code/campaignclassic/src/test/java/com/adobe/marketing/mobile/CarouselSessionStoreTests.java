@@ -0,0 +1,313 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.content.Intent;
+import android.os.Bundle;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockedConstruction;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class CarouselSessionStoreTests {
+    private static final String SESSIONS_KEY = "carouselsessions";
+    private static final String SESSION_PREFIX = "carouselsession.";
+    private static final int MAX_SESSIONS = 20;
+    private static final String TAG = "carouseltag";
+    private static final String MESSAGE_ID = "messageid";
+    private static final String TITLE = "title";
+    private static final ArrayList<String> IMAGE_URLS =
+            new ArrayList<>(
+                    Arrays.asList(
+                            "https://images.example.com/1.png",
+                            "https://images.example.com/2.png",
+                            "https://images.example.com/3.png"));
+
+    @Mock private ServiceProvider mockServiceProvider;
+    @Mock private DataStoring mockDataStoreService;
+    @Mock private NamedCollection mockDataStore;
+    @Mock private Intent mockIntent;
+
+    private final BundleAnswer bundleAnswer = new BundleAnswer();
+    private MockedStatic<ServiceProvider> serviceProviderMockedStatic;
+    private MockedStatic<Log> logMockedStatic;
+    private MockedConstruction<Bundle> bundleMockedConstruction;
+
+    @Before
+    public void setup() {
+        serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class);
+        logMockedStatic = Mockito.mockStatic(Log.class);
+        bundleMockedConstruction =
+                Mockito.mockConstruction(
+                        Bundle.class, Mockito.withSettings().defaultAnswer(bundleAnswer));
+        serviceProviderMockedStatic
+                .when(ServiceProvider::getInstance)
+                .thenReturn(mockServiceProvider);
+        Mockito.when(mockServiceProvider.getDataStoreService()).thenReturn(mockDataStoreService);
+        Mockito.when(
+                        mockDataStoreService.getNamedCollection(
+                                CampaignPushConstants.PUSH_DATASTORE_NAME))
+                .thenReturn(mockDataStore);
+        CarouselSessionStore.reset();
+    }
+
+    @After
+    public void teardown() {
+        CarouselSessionStore.reset();
+        serviceProviderMockedStatic.close();
+        logMockedStatic.close();
+        bundleMockedConstruction.close();
+    }
+
+    @Test
+    public void getSessionKey() {
+        // test and verify
+        Assert.assertEquals(TAG, CarouselSessionStore.getSessionKey(TAG, MESSAGE_ID));
+        Assert.assertEquals(MESSAGE_ID, CarouselSessionStore.getSessionKey(null, MESSAGE_ID));
+        Assert.assertEquals(MESSAGE_ID, CarouselSessionStore.getSessionKey("", MESSAGE_ID));
+    }
+
+    @Test
+    public void putNavigationExtras_ThenOnlySessionKeyAndIndexAddedToIntent() {
+        // test
+        CarouselSessionStore.putNavigationExtras(mockIntent, createCarouselState(), 1);
+
+        // verify
+        Mockito.verify(mockIntent).putExtra(CampaignPushConstants.IntentKeys.SESSION_KEY, TAG);
+        Mockito.verify(mockIntent).putExtra(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, 1);
+        Mockito.verify(mockIntent, Mockito.never()).putExtras(ArgumentMatchers.any(Bundle.class));
+        Mockito.verify(mockDataStore)
+                .setString(ArgumentMatchers.eq(SESSION_PREFIX + TAG), ArgumentMatchers.anyString());
+        Assert.assertTrue(getPersistedSessions().containsKey(TAG));
+    }
+
+    @Test
+    public void putNavigationExtras_SameStateSavedAgain_ThenNotWrittenAgain() {
+        // test
+        CarouselSessionStore.putNavigationExtras(mockIntent, createCarouselState(), 0);
+        CarouselSessionStore.putNavigationExtras(mockIntent, createCarouselState(), 1);
+
+        // verify
+        Mockito.verify(mockDataStore, Mockito.times(1))
+                .setString(ArgumentMatchers.eq(SESSION_PREFIX + TAG), ArgumentMatchers.anyString());
+        Mockito.verify(mockIntent, Mockito.times(2))
+                .putExtra(CampaignPushConstants.IntentKeys.SESSION_KEY, TAG);
+    }
+
+    @Test
+    public void putNavigationExtras_NoDataStore_ThenCarouselStateAddedToIntent() {
+        // setup
+        Mockito.when(mockServiceProvider.getDataStoreService()).thenReturn(null);
+        final Bundle carouselState = createCarouselState();
+
+        // test
+        CarouselSessionStore.putNavigationExtras(mockIntent, carouselState, 1);
+
+        // verify
+        Mockito.verify(mockIntent).putExtras(carouselState);
+        Mockito.verify(mockIntent).putExtra(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, 1);
+        Mockito.verify(mockIntent, Mockito.never())
+                .putExtra(
+                        ArgumentMatchers.eq(CampaignPushConstants.IntentKeys.SESSION_KEY),
+                        ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void putNavigationExtras_MaxSessionsStored_ThenOldestSessionEvicted() {
+        // setup
+        final Map<String, String> persistedSessions = new HashMap<>();
+        for (int i = 0; i < MAX_SESSIONS; i++) {
+            persistedSessions.put("session" + i, String.valueOf(1000 + i));
+        }
+        Mockito.when(mockDataStore.getMap(SESSIONS_KEY)).thenReturn(persistedSessions);
+
+        // test
+        CarouselSessionStore.putNavigationExtras(mockIntent, createCarouselState(), 0);
+
+        // verify
+        final Map<String, String> sessions = getPersistedSessions();
+        Assert.assertEquals(MAX_SESSIONS, sessions.size());
+        Assert.assertTrue(sessions.containsKey(TAG));
+        Assert.assertFalse(sessions.containsKey("session0"));
+        Mockito.verify(mockDataStore).remove(SESSION_PREFIX + "session0");
+        Mockito.verify(mockDataStore, Mockito.never()).remove(SESSION_PREFIX + "session1");
+    }
+
+    @Test
+    public void restore_SavedSession_ThenCarouselStateRestoredWithIntentIndex() {
+        // setup
+        CarouselSessionStore.putNavigationExtras(mockIntent, createCarouselState(), 0);
+        final Intent navigationIntent = createNavigationIntent(TAG, 2);
+
+        // test
+        final Bundle carouselState = CarouselSessionStore.restore(navigationIntent);
+
+        // verify
+        assertCarouselState(carouselState, 2);
+    }
+
+    @Test
+    public void restore_AfterProcessRestart_ThenSessionLoadedFromDataStore() {
+        // setup
+        CarouselSessionStore.putNavigationExtras(mockIntent, createCarouselState(), 0);
+        final ArgumentCaptor<String> stateCaptor = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(mockDataStore)
+                .setString(ArgumentMatchers.eq(SESSION_PREFIX + TAG), stateCaptor.capture());
+        final Map<String, String> persistedSessions = new HashMap<>(getPersistedSessions());
+        Mockito.when(mockDataStore.getMap(SESSIONS_KEY)).thenReturn(persistedSessions);
+        Mockito.when(mockDataStore.getString(SESSION_PREFIX + TAG, null))
+                .thenReturn(stateCaptor.getValue());
+        CarouselSessionStore.reset();
+
+        // test
+        final Bundle carouselState = CarouselSessionStore.restore(createNavigationIntent(TAG, 1));
+
+        // verify
+        assertCarouselState(carouselState, 1);
+    }
+
+    @Test
+    public void restore_SessionNoLongerStored_ThenReturnsNull() {
+        // test
+        final Bundle carouselState =
+                CarouselSessionStore.restore(createNavigationIntent("evictedsession", 1));
+
+        // verify
+        Assert.assertNull(carouselState);
+    }
+
+    @Test
+    public void restore_LegacyIntent_ThenIntentExtrasReturned() {
+        // setup
+        final Bundle intentExtras = createCarouselState();
+        intentExtras.putInt(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, 2);
+        Mockito.when(mockIntent.getExtras()).thenReturn(intentExtras);
+
+        // test
+        final Bundle carouselState = CarouselSessionStore.restore(mockIntent);
+
+        // verify
+        Assert.assertSame(intentExtras, carouselState);
+    }
+
+    @Test
+    public void restore_NoIntentExtras_ThenReturnsNull() {
+        // test
+        final Bundle carouselState = CarouselSessionStore.restore(mockIntent);
+
+        // verify
+        Assert.assertNull(carouselState);
+    }
+
+    private Bundle createCarouselState() {
+        final Bundle carouselState = Mockito.mock(Bundle.class, bundleAnswer);
+        carouselState.putString(CampaignPushConstants.IntentKeys.TAG, TAG);
+        carouselState.putString(CampaignPushConstants.IntentKeys.MESSAGE_ID, MESSAGE_ID);
+        carouselState.putString(CampaignPushConstants.IntentKeys.TITLE_TEXT, TITLE);
+        carouselState.putStringArrayList(CampaignPushConstants.IntentKeys.IMAGE_URLS, IMAGE_URLS);
+        carouselState.putInt(CampaignPushConstants.IntentKeys.BADGE_COUNT, 3);
+        carouselState.putBoolean(CampaignPushConstants.IntentKeys.STICKY, true);
+        return carouselState;
+    }
+
+    private Intent createNavigationIntent(final String sessionKey, final int centerImageIndex) {
+        final Bundle intentExtras = Mockito.mock(Bundle.class, bundleAnswer);
+        intentExtras.putString(CampaignPushConstants.IntentKeys.SESSION_KEY, sessionKey);
+        intentExtras.putInt(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX, centerImageIndex);
+        final Intent navigationIntent = Mockito.mock(Intent.class);
+        Mockito.when(navigationIntent.getExtras()).thenReturn(intentExtras);
+        return navigationIntent;
+    }
+
+    private Map<String, String> getPersistedSessions() {
+        final ArgumentCaptor<Map> mapCaptor = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(mockDataStore, Mockito.atLeastOnce())
+                .setMap(ArgumentMatchers.eq(SESSIONS_KEY), mapCaptor.capture());
+        return mapCaptor.getValue();
+    }
+
+    private static void assertCarouselState(
+            final Bundle carouselState, final int centerImageIndex) {
+        Assert.assertNotNull(carouselState);
+        Assert.assertEquals(TAG, carouselState.getString(CampaignPushConstants.IntentKeys.TAG));
+        Assert.assertEquals(
+                MESSAGE_ID, carouselState.getString(CampaignPushConstants.IntentKeys.MESSAGE_ID));
+        Assert.assertEquals(
+                TITLE, carouselState.getString(CampaignPushConstants.IntentKeys.TITLE_TEXT));
+        Assert.assertEquals(
+                IMAGE_URLS,
+                carouselState.getStringArrayList(CampaignPushConstants.IntentKeys.IMAGE_URLS));
+        Assert.assertEquals(3, carouselState.getInt(CampaignPushConstants.IntentKeys.BADGE_COUNT));
+        Assert.assertTrue(carouselState.getBoolean(CampaignPushConstants.IntentKeys.STICKY));
+        Assert.assertEquals(
+                centerImageIndex,
+                carouselState.getInt(CampaignPushConstants.IntentKeys.CENTER_IMAGE_INDEX));
+    }
+
+    /** Backs the {@link Bundle} mocks with a map, the android stubs don't store any value. */
+    private static class BundleAnswer implements Answer<Object> {
+        private final Map<Object, Map<String, Object>> bundles = new IdentityHashMap<>();
+
+        @Override
+        public Object answer(final InvocationOnMock invocation) throws Throwable {
+            Map<String, Object> values = bundles.get(invocation.getMock());
+            if (values == null) {
+                values = new HashMap<>();
+                bundles.put(invocation.getMock(), values);
+            }
+
+            final String methodName = invocation.getMethod().getName();
+            final Object[] arguments = invocation.getArguments();
+            if (methodName.startsWith("put") && arguments.length == 2) {
+                values.put((String) arguments[0], arguments[1]);
+                return null;
+            }
+
+            switch (methodName) {
+                case "keySet":
+                    return values.keySet();
+                case "containsKey":
+                    return values.containsKey(arguments[0]);
+                case "get":
+                case "getString":
+                case "getStringArrayList":
+                    return values.get(arguments[0]);
+                case "getInt":
+                    return values.containsKey(arguments[0]) ? values.get(arguments[0]) : 0;
+                case "getBoolean":
+                    return values.containsKey(arguments[0]) ? values.get(arguments[0]) : false;
+                default:
+                    return Mockito.RETURNS_DEFAULTS.answer(invocation);
+            }
+        }
+    }
+}
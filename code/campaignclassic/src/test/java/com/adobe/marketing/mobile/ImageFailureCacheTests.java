@@ -0,0 +1,249 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.net.Uri;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class ImageFailureCacheTests {
+    private static final String FAILURES_KEY = "imagefailures";
+    private static final String IMAGE_URL = "https://images.example.com/image.png";
+    private static final String OTHER_IMAGE_URL = "https://images.example.com/other.png";
+    private static final String OTHER_HOST_IMAGE_URL = "https://cdn.example.com/image.png";
+
+    @Mock private ServiceProvider mockServiceProvider;
+    @Mock private DataStoring mockDataStoreService;
+    @Mock private NamedCollection mockDataStore;
+    @Mock private Uri mockImagesUri;
+    @Mock private Uri mockCdnUri;
+
+    private MockedStatic<ServiceProvider> serviceProviderMockedStatic;
+    private MockedStatic<Log> logMockedStatic;
+    private MockedStatic<Uri> uriMockedStatic;
+
+    @Before
+    public void setup() {
+        serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class);
+        logMockedStatic = Mockito.mockStatic(Log.class);
+        uriMockedStatic = Mockito.mockStatic(Uri.class);
+        Mockito.when(mockImagesUri.getHost()).thenReturn("images.example.com");
+        Mockito.when(mockCdnUri.getHost()).thenReturn("cdn.example.com");
+        serviceProviderMockedStatic
+                .when(ServiceProvider::getInstance)
+                .thenReturn(mockServiceProvider);
+        Mockito.when(mockServiceProvider.getDataStoreService()).thenReturn(mockDataStoreService);
+        Mockito.when(
+                        mockDataStoreService.getNamedCollection(
+                                CampaignPushConstants.PUSH_DATASTORE_NAME))
+                .thenReturn(mockDataStore);
+        uriMockedStatic
+                .when(() -> Uri.parse(ArgumentMatchers.anyString()))
+                .thenAnswer(
+                        invocation ->
+                                invocation.getArgument(0, String.class).contains("cdn.")
+                                        ? mockCdnUri
+                                        : mockImagesUri);
+        ImageFailureCache.reset();
+    }
+
+    @After
+    public void teardown() {
+        ImageFailureCache.reset();
+        serviceProviderMockedStatic.close();
+        logMockedStatic.close();
+        uriMockedStatic.close();
+    }
+
+    @Test
+    public void recordFailure_PermanentFailure_ThenUrlSkippedForFailureTtl() {
+        // test
+        final long before = System.currentTimeMillis();
+        ImageFailureCache.recordFailure(IMAGE_URL, 404);
+        final long after = System.currentTimeMillis();
+
+        // verify
+        Assert.assertTrue(ImageFailureCache.isUnavailable(IMAGE_URL));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(OTHER_IMAGE_URL));
+        assertExpiry(
+                "url:" + IMAGE_URL,
+                before,
+                after,
+                CampaignPushConstants.DefaultValues.IMAGE_FAILURE_TTL_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void recordFailure_TooLarge_ThenUrlSkippedForFailureTtl() {
+        // test
+        final long before = System.currentTimeMillis();
+        ImageFailureCache.recordFailure(IMAGE_URL, ImageFailureCache.TOO_LARGE);
+        final long after = System.currentTimeMillis();
+
+        // verify
+        Assert.assertTrue(ImageFailureCache.isUnavailable(IMAGE_URL));
+        assertExpiry(
+                "url:" + IMAGE_URL,
+                before,
+                after,
+                CampaignPushConstants.DefaultValues.IMAGE_FAILURE_TTL_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void recordFailure_TransientFailure_ThenUrlSkippedForTransientFailureTtl() {
+        // test
+        final long before = System.currentTimeMillis();
+        ImageFailureCache.recordFailure(IMAGE_URL, 503);
+        final long after = System.currentTimeMillis();
+
+        // verify
+        Assert.assertTrue(ImageFailureCache.isUnavailable(IMAGE_URL));
+        assertExpiry(
+                "url:" + IMAGE_URL,
+                before,
+                after,
+                CampaignPushConstants.DefaultValues.IMAGE_TRANSIENT_FAILURE_TTL_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void recordFailure_NetworkError_ThenHostSkippedForHostFailureTtl() {
+        // test
+        final long before = System.currentTimeMillis();
+        ImageFailureCache.recordFailure(IMAGE_URL, ImageFailureCache.NETWORK_ERROR);
+        final long after = System.currentTimeMillis();
+
+        // verify
+        Assert.assertTrue(ImageFailureCache.isUnavailable(IMAGE_URL));
+        Assert.assertTrue(ImageFailureCache.isUnavailable(OTHER_IMAGE_URL));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(OTHER_HOST_IMAGE_URL));
+        assertExpiry(
+                "host:images.example.com",
+                before,
+                after,
+                CampaignPushConstants.DefaultValues.IMAGE_HOST_FAILURE_TTL_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void recordFailure_Cancelled_ThenNotRecorded() {
+        // test
+        ImageFailureCache.recordFailure(IMAGE_URL, ImageFailureCache.CANCELLED);
+
+        // verify
+        Assert.assertFalse(ImageFailureCache.isUnavailable(IMAGE_URL));
+        Mockito.verify(mockDataStore, Mockito.never())
+                .setMap(ArgumentMatchers.anyString(), ArgumentMatchers.anyMap());
+    }
+
+    @Test
+    public void isUnavailable_PersistedEntries_ThenOnlyLiveEntriesSkipped() {
+        // setup
+        final long now = System.currentTimeMillis();
+        final Map<String, String> persistedFailures = new HashMap<>();
+        persistedFailures.put("url:" + IMAGE_URL, String.valueOf(now + 60000));
+        persistedFailures.put("url:" + OTHER_IMAGE_URL, String.valueOf(now - 1));
+        persistedFailures.put("host:cdn.example.com", "invalid");
+        Mockito.when(mockDataStore.getMap(FAILURES_KEY)).thenReturn(persistedFailures);
+
+        // test and verify
+        Assert.assertTrue(ImageFailureCache.isUnavailable(IMAGE_URL));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(OTHER_IMAGE_URL));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(OTHER_HOST_IMAGE_URL));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(null));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(""));
+    }
+
+    @Test
+    public void recordFailure_ExpiredEntries_ThenExpiredEntriesPruned() {
+        // setup
+        final Map<String, String> persistedFailures = new HashMap<>();
+        persistedFailures.put(
+                "url:" + OTHER_IMAGE_URL, String.valueOf(System.currentTimeMillis() - 1));
+        Mockito.when(mockDataStore.getMap(FAILURES_KEY)).thenReturn(persistedFailures);
+
+        // test
+        ImageFailureCache.recordFailure(IMAGE_URL, 404);
+
+        // verify
+        final Map<String, String> entries = getPersistedFailures();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertTrue(entries.containsKey("url:" + IMAGE_URL));
+    }
+
+    @Test
+    public void clearFailure_RecordedUrlAndHost_ThenBothCleared() {
+        // setup
+        ImageFailureCache.recordFailure(IMAGE_URL, 404);
+        ImageFailureCache.recordFailure(OTHER_IMAGE_URL, ImageFailureCache.NETWORK_ERROR);
+
+        // test
+        ImageFailureCache.clearFailure(IMAGE_URL);
+
+        // verify
+        Assert.assertFalse(ImageFailureCache.isUnavailable(IMAGE_URL));
+        Assert.assertFalse(ImageFailureCache.isUnavailable(OTHER_IMAGE_URL));
+        Mockito.verify(mockDataStore).remove(FAILURES_KEY);
+    }
+
+    @Test
+    public void clearFailure_NoRecordedFailure_ThenNotPersisted() {
+        // test
+        ImageFailureCache.clearFailure(IMAGE_URL);
+
+        // verify
+        Mockito.verify(mockDataStore, Mockito.never()).remove(ArgumentMatchers.anyString());
+        Mockito.verify(mockDataStore, Mockito.never())
+                .setMap(ArgumentMatchers.anyString(), ArgumentMatchers.anyMap());
+    }
+
+    @Test
+    public void isTransient() {
+        // test and verify
+        Assert.assertTrue(ImageFailureCache.isTransient(ImageFailureCache.NETWORK_ERROR));
+        Assert.assertTrue(ImageFailureCache.isTransient(ImageFailureCache.TRANSFER_ERROR));
+        Assert.assertTrue(ImageFailureCache.isTransient(408));
+        Assert.assertTrue(ImageFailureCache.isTransient(429));
+        Assert.assertTrue(ImageFailureCache.isTransient(500));
+        Assert.assertTrue(ImageFailureCache.isTransient(503));
+        Assert.assertFalse(ImageFailureCache.isTransient(ImageFailureCache.TOO_LARGE));
+        Assert.assertFalse(ImageFailureCache.isTransient(403));
+        Assert.assertFalse(ImageFailureCache.isTransient(404));
+    }
+
+    private Map<String, String> getPersistedFailures() {
+        final ArgumentCaptor<Map> mapCaptor = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(mockDataStore, Mockito.atLeastOnce())
+                .setMap(ArgumentMatchers.eq(FAILURES_KEY), mapCaptor.capture());
+        return mapCaptor.getValue();
+    }
+
+    private void assertExpiry(
+            final String key, final long before, final long after, final long ttl) {
+        final long expiry = Long.parseLong(getPersistedFailures().get(key));
+        Assert.assertTrue(expiry >= before + ttl);
+        Assert.assertTrue(expiry <= after + ttl);
+    }
+}
@@ -0,0 +1,278 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.graphics.Bitmap;
+import com.adobe.marketing.mobile.services.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class NotificationBitmapBudgetTests {
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private MockedStatic<Log> logMockedStatic;
+    private MockedStatic<Bitmap> bitmapMockedStatic;
+
+    @Before
+    public void setup() {
+        logMockedStatic = Mockito.mockStatic(Log.class);
+        bitmapMockedStatic = Mockito.mockStatic(Bitmap.class);
+        bitmapMockedStatic
+                .when(
+                        () ->
+                                Bitmap.createScaledBitmap(
+                                        ArgumentMatchers.any(Bitmap.class),
+                                        ArgumentMatchers.anyInt(),
+                                        ArgumentMatchers.anyInt(),
+                                        ArgumentMatchers.anyBoolean()))
+                .thenAnswer(
+                        invocation ->
+                                mockBitmap(
+                                        invocation.getArgument(1, Integer.class),
+                                        invocation.getArgument(2, Integer.class)));
+    }
+
+    @After
+    public void teardown() {
+        NotificationBitmapBudget.setBudgetInBytes(
+                CampaignPushConstants.DefaultValues.NOTIFICATION_BITMAP_BUDGET_IN_BYTES);
+        logMockedStatic.close();
+        bitmapMockedStatic.close();
+    }
+
+    @Test
+    public void fit_UnderBudget_ThenBitmapsReturnedAsIs() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(80000);
+        final List<Bitmap> bitmaps = Arrays.asList(mockBitmap(100, 100), mockBitmap(100, 100));
+        final long downscaledCount = NotificationBitmapBudget.getDownscaledCount();
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 1);
+
+        // verify
+        Assert.assertSame(bitmaps, fittedBitmaps);
+        Assert.assertEquals(80000, NotificationBitmapBudget.getLastSizeInBytes());
+        Assert.assertEquals(downscaledCount, NotificationBitmapBudget.getDownscaledCount());
+        bitmapMockedStatic.verify(
+                () ->
+                        Bitmap.createScaledBitmap(
+                                ArgumentMatchers.any(Bitmap.class),
+                                ArgumentMatchers.anyInt(),
+                                ArgumentMatchers.anyInt(),
+                                ArgumentMatchers.anyBoolean()),
+                Mockito.never());
+    }
+
+    @Test
+    public void fit_OverBudget_ThenBitmapsScaledDownToFit() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(40000);
+        final List<Bitmap> bitmaps = Arrays.asList(mockBitmap(100, 100), mockBitmap(100, 100));
+        final long downscaledCount = NotificationBitmapBudget.getDownscaledCount();
+        final long droppedCount = NotificationBitmapBudget.getDroppedCount();
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 1);
+
+        // verify: scaled by sqrt(40000 / 80000) with a 5% margin
+        Assert.assertEquals(2, fittedBitmaps.size());
+        for (final Bitmap bitmap : fittedBitmaps) {
+            Assert.assertEquals(67, bitmap.getWidth());
+            Assert.assertEquals(67, bitmap.getHeight());
+        }
+        Assert.assertEquals(
+                2 * 67 * 67 * BYTES_PER_PIXEL, NotificationBitmapBudget.getLastSizeInBytes());
+        Assert.assertEquals(downscaledCount + 1, NotificationBitmapBudget.getDownscaledCount());
+        Assert.assertEquals(droppedCount, NotificationBitmapBudget.getDroppedCount());
+    }
+
+    @Test
+    public void fit_OverBudgetAtMinimumScale_ThenTrailingBitmapsDropped() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(20000);
+        final Bitmap first = mockBitmap(100, 100);
+        final Bitmap second = mockBitmap(100, 100);
+        final List<Bitmap> bitmaps =
+                Arrays.asList(first, second, mockBitmap(100, 100), mockBitmap(100, 100));
+        final long droppedCount = NotificationBitmapBudget.getDroppedCount();
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 1);
+
+        // verify: scaled by no more than half, then the last two bitmaps are dropped
+        Assert.assertEquals(2, fittedBitmaps.size());
+        for (final Bitmap bitmap : fittedBitmaps) {
+            Assert.assertEquals(50, bitmap.getWidth());
+            Assert.assertEquals(50, bitmap.getHeight());
+        }
+        Assert.assertEquals(20000, NotificationBitmapBudget.getLastSizeInBytes());
+        Assert.assertEquals(droppedCount + 2, NotificationBitmapBudget.getDroppedCount());
+        bitmapMockedStatic.verify(() -> Bitmap.createScaledBitmap(first, 50, 50, true));
+        bitmapMockedStatic.verify(() -> Bitmap.createScaledBitmap(second, 50, 50, true));
+        logMockedStatic.verify(
+                () ->
+                        Log.warning(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.any()),
+                Mockito.never());
+    }
+
+    @Test
+    public void fit_MinimumCountExceedsBudget_ThenRequiredBitmapsKept() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(5000);
+        final List<Bitmap> bitmaps =
+                Arrays.asList(mockBitmap(100, 100), mockBitmap(100, 100), mockBitmap(100, 100));
+        final long droppedCount = NotificationBitmapBudget.getDroppedCount();
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 2);
+
+        // verify
+        Assert.assertEquals(2, fittedBitmaps.size());
+        Assert.assertEquals(20000, NotificationBitmapBudget.getLastSizeInBytes());
+        Assert.assertEquals(droppedCount + 1, NotificationBitmapBudget.getDroppedCount());
+        logMockedStatic.verify(
+                () ->
+                        Log.warning(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.any()));
+    }
+
+    @Test
+    public void fit_NullBitmaps_ThenKeptAndNotCounted() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(20000);
+        final List<Bitmap> bitmaps = Arrays.asList(null, mockBitmap(100, 100), null);
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 1);
+
+        // verify
+        Assert.assertEquals(3, fittedBitmaps.size());
+        Assert.assertNull(fittedBitmaps.get(0));
+        Assert.assertEquals(67, fittedBitmaps.get(1).getWidth());
+        Assert.assertNull(fittedBitmaps.get(2));
+        Assert.assertEquals(
+                67 * 67 * BYTES_PER_PIXEL, NotificationBitmapBudget.getLastSizeInBytes());
+    }
+
+    @Test
+    public void fit_TrailingNullBitmaps_ThenRemovedWithoutCountingAsDropped() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(10000);
+        final List<Bitmap> bitmaps =
+                Arrays.asList(mockBitmap(100, 100), mockBitmap(100, 100), null);
+        final long droppedCount = NotificationBitmapBudget.getDroppedCount();
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 1);
+
+        // verify
+        Assert.assertEquals(1, fittedBitmaps.size());
+        Assert.assertNotNull(fittedBitmaps.get(0));
+        Assert.assertEquals(10000, NotificationBitmapBudget.getLastSizeInBytes());
+        Assert.assertEquals(droppedCount + 1, NotificationBitmapBudget.getDroppedCount());
+    }
+
+    @Test
+    public void fit_OnlyNullBitmaps_ThenBitmapsReturnedAsIs() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(1);
+        final List<Bitmap> bitmaps = Arrays.asList(null, null);
+
+        // test
+        final List<Bitmap> fittedBitmaps = NotificationBitmapBudget.fit(bitmaps, 0);
+
+        // verify
+        Assert.assertSame(bitmaps, fittedBitmaps);
+        Assert.assertEquals(0, NotificationBitmapBudget.getLastSizeInBytes());
+    }
+
+    @Test
+    public void fit_CarouselResult_ThenDroppedImagesReportedMissing() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(20000);
+        final List<CarouselPushTemplate.CarouselItem> items = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            items.add(new CarouselPushTemplate.CarouselItem("image" + i, "caption" + i, null));
+        }
+        final CarouselImageFetcher.Result result =
+                new CarouselImageFetcher.Result(
+                        items,
+                        Arrays.asList(
+                                mockBitmap(100, 100),
+                                null,
+                                mockBitmap(100, 100),
+                                mockBitmap(100, 100)));
+
+        // test
+        final CarouselImageFetcher.Result fittedResult = NotificationBitmapBudget.fit(result, 1);
+
+        // verify: the missing image keeps its index, the last available image is dropped
+        Assert.assertSame(items, fittedResult.getItems());
+        Assert.assertEquals(2, fittedResult.getAvailableCount());
+        Assert.assertTrue(fittedResult.isAvailable(0));
+        Assert.assertFalse(fittedResult.isAvailable(1));
+        Assert.assertTrue(fittedResult.isAvailable(2));
+        Assert.assertFalse(fittedResult.isAvailable(3));
+        Assert.assertEquals(50, fittedResult.getImage(0).getWidth());
+        Assert.assertEquals(50, fittedResult.getImage(2).getWidth());
+    }
+
+    @Test
+    public void setBudgetInBytes_InvalidBudget_ThenIgnored() {
+        // setup
+        NotificationBitmapBudget.setBudgetInBytes(20000);
+
+        // test
+        NotificationBitmapBudget.setBudgetInBytes(0);
+        NotificationBitmapBudget.setBudgetInBytes(-1);
+
+        // verify: the bitmap is scaled to the last valid budget
+        final List<Bitmap> fittedBitmaps =
+                NotificationBitmapBudget.fit(Arrays.asList(mockBitmap(100, 100)), 1);
+        Assert.assertEquals(67, fittedBitmaps.get(0).getWidth());
+    }
+
+    private static Bitmap mockBitmap(final int width, final int height) {
+        return Mockito.mock(
+                Bitmap.class,
+                invocation -> {
+                    switch (invocation.getMethod().getName()) {
+                        case "getWidth":
+                            return width;
+                        case "getHeight":
+                            return height;
+                        case "getByteCount":
+                            return width * height * BYTES_PER_PIXEL;
+                        default:
+                            return Mockito.RETURNS_DEFAULTS.answer(invocation);
+                    }
+                });
+    }
+}
@@ -0,0 +1,308 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import com.adobe.marketing.mobile.services.AppContextService;
+import com.adobe.marketing.mobile.services.DataStoring;
+import com.adobe.marketing.mobile.services.DeviceInforming;
+import com.adobe.marketing.mobile.services.Log;
+import com.adobe.marketing.mobile.services.NamedCollection;
+import com.adobe.marketing.mobile.services.ServiceProvider;
+import com.adobe.marketing.mobile.services.caching.CacheEntry;
+import com.adobe.marketing.mobile.services.caching.CacheResult;
+import com.adobe.marketing.mobile.services.caching.CacheService;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class PushImageCacheManagerTests {
+    private static final String INDEX_KEY = "imagecacheindex";
+    private static final String INDEX_SEEDED_KEY = "imagecacheindexseeded";
+    private static final long SWEEP_DELAY_IN_MILLISECONDS = 5000;
+    private static final long WRITE_PERSIST_DELAY_IN_MILLISECONDS = 1000;
+    private static final long ACCESS_PERSIST_DELAY_IN_MILLISECONDS = 30000;
+    private static final long EXPIRY_IN_MILLISECONDS = 60000;
+    private static final String IMAGE_A = "https://images.example.com/a.png";
+    private static final String IMAGE_B = "https://images.example.com/b.png";
+    private static final String IMAGE_C = "https://images.example.com/c.png";
+
+    @Mock private ServiceProvider mockServiceProvider;
+    @Mock private DataStoring mockDataStoreService;
+    @Mock private NamedCollection mockDataStore;
+    @Mock private DeviceInforming mockDeviceInfoService;
+    @Mock private AppContextService mockAppContextService;
+    @Mock private CacheService mockCacheService;
+    @Mock private CacheResult mockCacheResult;
+    @Mock private ScheduledExecutorService mockExecutor;
+
+    private MockedStatic<ServiceProvider> serviceProviderMockedStatic;
+    private MockedStatic<Log> logMockedStatic;
+    private PushImageCacheManager cacheManager;
+    private String cacheLocation;
+
+    @Before
+    public void setup() {
+        serviceProviderMockedStatic = Mockito.mockStatic(ServiceProvider.class);
+        logMockedStatic = Mockito.mockStatic(Log.class);
+        serviceProviderMockedStatic
+                .when(ServiceProvider::getInstance)
+                .thenReturn(mockServiceProvider);
+        Mockito.when(mockServiceProvider.getDataStoreService()).thenReturn(mockDataStoreService);
+        Mockito.when(mockServiceProvider.getDeviceInfoService()).thenReturn(mockDeviceInfoService);
+        Mockito.when(mockServiceProvider.getAppContextService()).thenReturn(mockAppContextService);
+        Mockito.when(mockServiceProvider.getCacheService()).thenReturn(mockCacheService);
+        Mockito.when(
+                        mockDataStoreService.getNamedCollection(
+                                CampaignPushConstants.PUSH_DATASTORE_NAME))
+                .thenReturn(mockDataStore);
+        Mockito.when(mockDataStore.getBoolean(INDEX_SEEDED_KEY, false)).thenReturn(true);
+        Mockito.when(mockDeviceInfoService.getApplicationCacheDir()).thenReturn(new File("cache"));
+        Mockito.when(
+                        mockCacheService.set(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.any(CacheEntry.class)))
+                .thenReturn(true);
+        cacheLocation = CampaignPushUtils.getAssetCacheLocation();
+        cacheManager = new PushImageCacheManager(mockExecutor);
+    }
+
+    @After
+    public void teardown() {
+        serviceProviderMockedStatic.close();
+        logMockedStatic.close();
+    }
+
+    @Test
+    public void set_UnderBudget_ThenImagesCountedAndIndexPersisted() {
+        // test
+        Assert.assertTrue(cacheImage(IMAGE_A, 100));
+        Assert.assertTrue(cacheImage(IMAGE_B, 200));
+
+        // verify
+        final PushImageCacheStats stats = cacheManager.getStats();
+        Assert.assertEquals(2, stats.getEntryCount());
+        Assert.assertEquals(300, stats.getSizeInBytes());
+        Assert.assertEquals(
+                CampaignPushConstants.DefaultValues.PUSH_IMAGE_CACHE_MAX_SIZE_IN_BYTES,
+                stats.getMaxSizeInBytes());
+        verifyNothingScheduled(SWEEP_DELAY_IN_MILLISECONDS);
+
+        runScheduledTask(WRITE_PERSIST_DELAY_IN_MILLISECONDS);
+        final Map<String, String> persistedIndex = getPersistedIndex();
+        Assert.assertEquals(2, persistedIndex.size());
+        Assert.assertTrue(persistedIndex.get(IMAGE_A).startsWith("100,"));
+        Assert.assertTrue(persistedIndex.get(IMAGE_B).startsWith("200,"));
+    }
+
+    @Test
+    public void set_SameKeyTwice_ThenSizeOfPreviousImageReplaced() {
+        // test
+        cacheImage(IMAGE_A, 100);
+        cacheImage(IMAGE_A, 150);
+
+        // verify
+        final PushImageCacheStats stats = cacheManager.getStats();
+        Assert.assertEquals(1, stats.getEntryCount());
+        Assert.assertEquals(150, stats.getSizeInBytes());
+    }
+
+    @Test
+    public void set_CacheServiceFails_ThenImageNotCounted() {
+        // setup
+        Mockito.when(
+                        mockCacheService.set(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.any(CacheEntry.class)))
+                .thenReturn(false);
+
+        // test
+        Assert.assertFalse(cacheImage(IMAGE_A, 100));
+
+        // verify
+        Assert.assertEquals(0, cacheManager.getStats().getEntryCount());
+        Assert.assertEquals(0, cacheManager.getStats().getSizeInBytes());
+        verifyNothingScheduled(WRITE_PERSIST_DELAY_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void set_OverBudget_ThenLeastRecentlyAccessedImagesEvicted() {
+        // setup
+        final long now = System.currentTimeMillis();
+        final Map<String, String> persistedIndex = new HashMap<>();
+        persistedIndex.put(IMAGE_A, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now - 3000));
+        persistedIndex.put(IMAGE_B, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now - 2000));
+        Mockito.when(mockDataStore.getMap(INDEX_KEY)).thenReturn(persistedIndex);
+        cacheManager.setMaxSizeInBytes(1000);
+        runScheduledTask(SWEEP_DELAY_IN_MILLISECONDS);
+
+        // test
+        cacheImage(IMAGE_C, 400);
+        runScheduledTask(SWEEP_DELAY_IN_MILLISECONDS);
+
+        // verify: evicted down to 90% of the budget
+        final PushImageCacheStats stats = cacheManager.getStats();
+        Assert.assertEquals(2, stats.getEntryCount());
+        Assert.assertEquals(800, stats.getSizeInBytes());
+        Assert.assertEquals(1, stats.getEvictionCount());
+        Mockito.verify(mockCacheService).remove(cacheLocation, IMAGE_A);
+        Mockito.verify(mockCacheService, Mockito.never()).remove(cacheLocation, IMAGE_B);
+        Mockito.verify(mockCacheService, Mockito.never()).remove(cacheLocation, IMAGE_C);
+        Assert.assertFalse(getPersistedIndex().containsKey(IMAGE_A));
+    }
+
+    @Test
+    public void get_CacheHit_ThenImageBecomesMostRecentlyAccessed() {
+        // setup
+        final long now = System.currentTimeMillis();
+        final Map<String, String> persistedIndex = new HashMap<>();
+        persistedIndex.put(IMAGE_A, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now - 3000));
+        persistedIndex.put(IMAGE_B, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now - 2000));
+        persistedIndex.put(IMAGE_C, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now - 1000));
+        Mockito.when(mockDataStore.getMap(INDEX_KEY)).thenReturn(persistedIndex);
+        Mockito.when(mockCacheService.get(cacheLocation, IMAGE_A)).thenReturn(mockCacheResult);
+
+        // test
+        Assert.assertEquals(mockCacheResult, cacheManager.get(mockCacheService, IMAGE_A));
+        cacheManager.setMaxSizeInBytes(1000);
+        runScheduledTask(SWEEP_DELAY_IN_MILLISECONDS);
+
+        // verify
+        final PushImageCacheStats stats = cacheManager.getStats();
+        Assert.assertEquals(1, stats.getHitCount());
+        Assert.assertEquals(800, stats.getSizeInBytes());
+        Mockito.verify(mockCacheService).remove(cacheLocation, IMAGE_B);
+        Mockito.verify(mockCacheService, Mockito.never()).remove(cacheLocation, IMAGE_A);
+        verifyScheduled(ACCESS_PERSIST_DELAY_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void get_CacheMiss_ThenIndexEntryOfExpiredImageRemoved() {
+        // setup
+        final long now = System.currentTimeMillis();
+        final Map<String, String> persistedIndex = new HashMap<>();
+        persistedIndex.put(IMAGE_A, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now));
+        Mockito.when(mockDataStore.getMap(INDEX_KEY)).thenReturn(persistedIndex);
+
+        // test
+        Assert.assertNull(cacheManager.get(mockCacheService, IMAGE_A));
+
+        // verify
+        final PushImageCacheStats stats = cacheManager.getStats();
+        Assert.assertEquals(1, stats.getMissCount());
+        Assert.assertEquals(0, stats.getEntryCount());
+        Assert.assertEquals(0, stats.getSizeInBytes());
+        verifyNothingScheduled(ACCESS_PERSIST_DELAY_IN_MILLISECONDS);
+    }
+
+    @Test
+    public void sweep_ExpiredImages_ThenRemovedFromIndexWithoutEviction() {
+        // setup
+        final long now = System.currentTimeMillis();
+        final Map<String, String> persistedIndex = new HashMap<>();
+        persistedIndex.put(IMAGE_A, indexValue(400, now - 1, now - 3000));
+        persistedIndex.put(IMAGE_B, indexValue(400, now + EXPIRY_IN_MILLISECONDS, now));
+        persistedIndex.put(IMAGE_C, "invalid");
+        Mockito.when(mockDataStore.getMap(INDEX_KEY)).thenReturn(persistedIndex);
+
+        // test
+        cacheManager.setMaxSizeInBytes(1000);
+        runScheduledTask(SWEEP_DELAY_IN_MILLISECONDS);
+
+        // verify
+        final PushImageCacheStats stats = cacheManager.getStats();
+        Assert.assertEquals(1, stats.getEntryCount());
+        Assert.assertEquals(400, stats.getSizeInBytes());
+        Assert.assertEquals(0, stats.getEvictionCount());
+        Mockito.verify(mockCacheService, Mockito.never())
+                .remove(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+        final Map<String, String> persisted = getPersistedIndex();
+        Assert.assertEquals(1, persisted.size());
+        Assert.assertTrue(persisted.containsKey(IMAGE_B));
+    }
+
+    @Test
+    public void setMaxSizeInBytes_InvalidSize_ThenIgnored() {
+        // test
+        cacheManager.setMaxSizeInBytes(0);
+        cacheManager.setMaxSizeInBytes(-1);
+
+        // verify
+        Assert.assertEquals(
+                CampaignPushConstants.DefaultValues.PUSH_IMAGE_CACHE_MAX_SIZE_IN_BYTES,
+                cacheManager.getStats().getMaxSizeInBytes());
+        verifyNothingScheduled(SWEEP_DELAY_IN_MILLISECONDS);
+    }
+
+    private boolean cacheImage(final String key, final int sizeInBytes) {
+        return cacheManager.set(
+                mockCacheService,
+                key,
+                new byte[sizeInBytes],
+                EXPIRY_IN_MILLISECONDS,
+                new HashMap<String, String>());
+    }
+
+    private static String indexValue(
+            final long sizeInBytes, final long expiresAt, final long lastAccess) {
+        return sizeInBytes + "," + expiresAt + "," + lastAccess;
+    }
+
+    private Map<String, String> getPersistedIndex() {
+        final ArgumentCaptor<Map> mapCaptor = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(mockDataStore, Mockito.atLeastOnce())
+                .setMap(ArgumentMatchers.eq(INDEX_KEY), mapCaptor.capture());
+        return mapCaptor.getValue();
+    }
+
+    private void verifyScheduled(final long delayInMillis) {
+        Mockito.verify(mockExecutor, Mockito.atLeastOnce())
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        ArgumentMatchers.eq(delayInMillis),
+                        ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+    }
+
+    private void verifyNothingScheduled(final long delayInMillis) {
+        Mockito.verify(mockExecutor, Mockito.never())
+                .schedule(
+                        ArgumentMatchers.any(Runnable.class),
+                        ArgumentMatchers.eq(delayInMillis),
+                        ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+    }
+
+    /** Runs the last task scheduled with the given delay on the test thread. */
+    private void runScheduledTask(final long delayInMillis) {
+        final ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+        Mockito.verify(mockExecutor, Mockito.atLeastOnce())
+                .schedule(
+                        taskCaptor.capture(),
+                        ArgumentMatchers.eq(delayInMillis),
+                        ArgumentMatchers.eq(TimeUnit.MILLISECONDS));
+        taskCaptor.getValue().run();
+    }
+}
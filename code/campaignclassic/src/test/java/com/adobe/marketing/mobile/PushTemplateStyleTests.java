@@ -0,0 +1,172 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile;
+
+import android.os.Bundle;
+import com.adobe.marketing.mobile.services.Log;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class PushTemplateStyleTests {
+    @Mock private Bundle mockExtras;
+
+    private MockedStatic<Log> logMockedStatic;
+
+    @Before
+    public void setup() {
+        logMockedStatic = Mockito.mockStatic(Log.class);
+    }
+
+    @After
+    public void teardown() {
+        logMockedStatic.close();
+    }
+
+    @Test
+    public void parse_ValidHexColors_ThenOpaqueColors() {
+        // test
+        final PushTemplateStyle style =
+                PushTemplateStyle.parse("00FF00", "000000", "ffffff", "1a2B3c");
+
+        // verify
+        Assert.assertEquals(0xFF00FF00, style.getNotificationBackgroundColor());
+        Assert.assertEquals(0xFF000000, style.getTitleTextColor());
+        Assert.assertEquals(0xFFFFFFFF, style.getExpandedBodyTextColor());
+        Assert.assertEquals(0xFF1A2B3C, style.getSmallIconColor());
+    }
+
+    @Test
+    public void parse_MissingColors_ThenNoColor() {
+        // test
+        final PushTemplateStyle style = PushTemplateStyle.parse(null, "", null, "");
+
+        // verify
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getNotificationBackgroundColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getTitleTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getExpandedBodyTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getSmallIconColor());
+        logMockedStatic.verify(
+                () ->
+                        Log.trace(
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.anyString(),
+                                ArgumentMatchers.any()),
+                Mockito.never());
+    }
+
+    @Test
+    public void parse_InvalidColors_ThenNoColor() {
+        // test
+        final PushTemplateStyle style =
+                PushTemplateStyle.parse("00000000", "+12345", "GGGGGG", "FFF");
+
+        // verify
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getNotificationBackgroundColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getTitleTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getExpandedBodyTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getSmallIconColor());
+    }
+
+    @Test
+    public void parse_SignedOrPrefixedColors_ThenNoColor() {
+        // test
+        final PushTemplateStyle style =
+                PushTemplateStyle.parse("-12345", "#12345", "0x1234", "FF00FF00");
+
+        // verify
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getNotificationBackgroundColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getTitleTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getExpandedBodyTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getSmallIconColor());
+    }
+
+    @Test
+    public void putExtras_ThenParsedColorsWritten() {
+        // setup
+        final PushTemplateStyle style = PushTemplateStyle.parse("00FF00", "000000", null, "FF0000");
+
+        // test
+        style.putExtras(mockExtras);
+
+        // verify
+        Mockito.verify(mockExtras)
+                .putInt(CampaignPushConstants.IntentKeys.STYLE_BACKGROUND_COLOR, 0xFF00FF00);
+        Mockito.verify(mockExtras)
+                .putInt(CampaignPushConstants.IntentKeys.STYLE_TITLE_TEXT_COLOR, 0xFF000000);
+        Mockito.verify(mockExtras)
+                .putInt(
+                        CampaignPushConstants.IntentKeys.STYLE_BODY_TEXT_COLOR,
+                        PushTemplateStyle.NO_COLOR);
+        Mockito.verify(mockExtras)
+                .putInt(CampaignPushConstants.IntentKeys.STYLE_SMALL_ICON_COLOR, 0xFFFF0000);
+    }
+
+    @Test
+    public void fromExtras_ParsedColors_ThenColorsNotParsedAgain() {
+        // setup
+        Mockito.when(
+                        mockExtras.containsKey(
+                                CampaignPushConstants.IntentKeys.STYLE_BACKGROUND_COLOR))
+                .thenReturn(true);
+        Mockito.when(mockExtras.getInt(CampaignPushConstants.IntentKeys.STYLE_BACKGROUND_COLOR))
+                .thenReturn(0xFF00FF00);
+        Mockito.when(mockExtras.getInt(CampaignPushConstants.IntentKeys.STYLE_TITLE_TEXT_COLOR))
+                .thenReturn(0xFF000000);
+        Mockito.when(mockExtras.getInt(CampaignPushConstants.IntentKeys.STYLE_BODY_TEXT_COLOR))
+                .thenReturn(PushTemplateStyle.NO_COLOR);
+        Mockito.when(mockExtras.getInt(CampaignPushConstants.IntentKeys.STYLE_SMALL_ICON_COLOR))
+                .thenReturn(0xFFFF0000);
+
+        // test
+        final PushTemplateStyle style = PushTemplateStyle.fromExtras(mockExtras);
+
+        // verify
+        Assert.assertEquals(0xFF00FF00, style.getNotificationBackgroundColor());
+        Assert.assertEquals(0xFF000000, style.getTitleTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getExpandedBodyTextColor());
+        Assert.assertEquals(0xFFFF0000, style.getSmallIconColor());
+        Mockito.verify(mockExtras, Mockito.never()).getString(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    public void fromExtras_HexColors_ThenColorsParsed() {
+        // setup
+        Mockito.when(
+                        mockExtras.getString(
+                                CampaignPushConstants.IntentKeys.NOTIFICATION_BACKGROUND_COLOR))
+                .thenReturn("00FF00");
+        Mockito.when(mockExtras.getString(CampaignPushConstants.IntentKeys.TITLE_TEXT_COLOR))
+                .thenReturn("invalid");
+        Mockito.when(
+                        mockExtras.getString(
+                                CampaignPushConstants.IntentKeys.EXPANDED_BODY_TEXT_COLOR))
+                .thenReturn("0000FF");
+
+        // test
+        final PushTemplateStyle style = PushTemplateStyle.fromExtras(mockExtras);
+
+        // verify
+        Assert.assertEquals(0xFF00FF00, style.getNotificationBackgroundColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getTitleTextColor());
+        Assert.assertEquals(0xFF0000FF, style.getExpandedBodyTextColor());
+        Assert.assertEquals(PushTemplateStyle.NO_COLOR, style.getSmallIconColor());
+    }
+}
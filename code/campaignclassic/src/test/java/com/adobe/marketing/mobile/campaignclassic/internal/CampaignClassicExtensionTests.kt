@@ -98,6 +98,7 @@ class CampaignClassicExtensionTests {
 
         // verify
         Mockito.verify(registrationManager, Mockito.times(1)).clearRegistrationData()
+        Mockito.verify(trackRequestManager, Mockito.times(1)).clearQueuedHits()
     }
 
     @Test
@@ -110,6 +111,7 @@ class CampaignClassicExtensionTests {
 
         // verify
         Mockito.verifyNoInteractions(registrationManager)
+        Mockito.verifyNoInteractions(trackRequestManager)
     }
 
     // =================================================================================================================
@@ -158,6 +160,24 @@ class CampaignClassicExtensionTests {
         Assert.assertEquals("2", tagIdCaptor.value)
     }
 
+    @Test
+    fun handleCampaignRequestEvent_getTrackingQueueMetricsEvent() {
+        // setup
+        setConfigurationSharedState()
+        val metricsRequestEvent = Event.Builder("Campaign Request", EventType.CAMPAIGN, EventSource.REQUEST_CONTENT)
+            .setEventData(
+                mapOf(CampaignClassicTestConstants.EventDataKeys.CampaignClassic.GET_TRACKING_QUEUE_METRICS to true)
+            )
+            .build()
+
+        // test
+        campaignClassicExtension.handleCampaignRequestEvent(metricsRequestEvent)
+
+        // verify
+        Mockito.verify(trackRequestManager, Mockito.times(1)).dispatchQueueMetrics(metricsRequestEvent)
+        Mockito.verify(trackRequestManager, Mockito.never()).handleTrackRequest(any(), any())
+    }
+
     @Test
     fun handleCampaignRequestEvent_NullEventData() {
         // setup
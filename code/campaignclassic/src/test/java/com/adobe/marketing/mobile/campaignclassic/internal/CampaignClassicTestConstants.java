@@ -34,10 +34,23 @@ final class CampaignClassicTestConstants {
     */
     static class DataStoreKeys {
         static final String TOKEN_HASH = "ADOBEMOBILE_STOREDDEFAULTS_TOKENHASH";
+        static final String TRACKED_HITS = "ADOBEMOBILE_STOREDDEFAULTS_TRACKEDHITS";
 
         private DataStoreKeys() {}
     }
 
+    /*
+       EventNames
+    */
+    static final class EventNames {
+        static final String DEVICE_REGISTRATION_STATUS = "Device Registration Status";
+        static final String CIRCUIT_BREAKER_STATE_CHANGED =
+                "Campaign Classic Circuit Breaker State Changed";
+        static final String TRACKING_QUEUE_METRICS = "Campaign Classic Tracking Queue Metrics";
+
+        private EventNames() {}
+    }
+
     /*
        EventDataKeys
     */
@@ -61,6 +74,7 @@ final class CampaignClassicTestConstants {
             static final String EXTENSION_NAME = "com.adobe.module.campaignclassic";
 
             static final String REGISTER_DEVICE = "registerdevice";
+            static final String REGISTRATION_STATUS = "registrationstatus";
             static final String TRACK_RECEIVE = "trackreceive";
             static final String TRACK_CLICK = "trackclick";
             static final String TRACK_INFO = "trackinfo";
@@ -69,8 +83,21 @@ final class CampaignClassicTestConstants {
             static final String DEVICE_TOKEN = "devicetoken";
             static final String USER_KEY = "userkey";
             static final String ADDITIONAL_PARAMETERS = "additionalparameters";
+            static final String CIRCUIT_BREAKER_HOST = "circuitbreakerhost";
+            static final String CIRCUIT_BREAKER_STATE = "circuitbreakerstate";
+            static final String GET_TRACKING_QUEUE_METRICS = "gettrackingqueuemetrics";
+            static final String TRACKING_QUEUE_METRICS = "trackingqueuemetrics";
 
             private CampaignClassic() {}
         }
+
+        static final class TrackingQueueMetrics {
+            static final String CLICK_LANE = "click";
+            static final String RECEIVE_LANE = "receive";
+            static final String QUEUE_DEPTH = "queuedepth";
+            static final String HITS_SUPPRESSED = "hitssuppressed";
+
+            private TrackingQueueMetrics() {}
+        }
     }
 }
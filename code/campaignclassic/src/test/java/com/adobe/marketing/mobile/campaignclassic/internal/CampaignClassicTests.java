@@ -10,6 +10,8 @@
 */
 package com.adobe.marketing.mobile.campaignclassic.internal;
 
+import com.adobe.marketing.mobile.AdobeCallbackWithError;
+import com.adobe.marketing.mobile.AdobeError;
 import com.adobe.marketing.mobile.CampaignClassic;
 import com.adobe.marketing.mobile.Event;
 import com.adobe.marketing.mobile.ExtensionError;
@@ -364,4 +366,82 @@ public class CampaignClassicTests {
                                     ArgumentMatchers.any()));
         }
     }
+
+    @Test
+    public void test_getTrackingQueueMetrics() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // setup
+            final Map<String, Object> metrics = new HashMap<>();
+            metrics.put(
+                    CampaignClassicTestConstants.EventDataKeys.TrackingQueueMetrics.CLICK_LANE,
+                    new HashMap<String, Object>());
+            final Map<String, Object> responseEventData = new HashMap<>();
+            responseEventData.put(
+                    CampaignClassicTestConstants.EventDataKeys.CampaignClassic
+                            .TRACKING_QUEUE_METRICS,
+                    metrics);
+            final Map<String, Object>[] retrievedMetrics = new Map[1];
+
+            // test
+            CampaignClassic.getTrackingQueueMetrics(result -> retrievedMetrics[0] = result);
+
+            // verify
+            final ArgumentCaptor<Event> eventCaptor = ArgumentCaptor.forClass(Event.class);
+            final ArgumentCaptor<AdobeCallbackWithError> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    eventCaptor.capture(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()));
+            final Event event = eventCaptor.getValue();
+            Assert.assertEquals("com.adobe.eventType.campaign", event.getType());
+            Assert.assertEquals("com.adobe.eventSource.requestContent", event.getSource());
+            Assert.assertTrue(
+                    (Boolean)
+                            event.getEventData()
+                                    .get(
+                                            CampaignClassicTestConstants.EventDataKeys
+                                                    .CampaignClassic.GET_TRACKING_QUEUE_METRICS));
+
+            callbackCaptor
+                    .getValue()
+                    .call(
+                            new Event.Builder(
+                                            "Campaign Classic Tracking Queue Metrics",
+                                            "com.adobe.eventType.campaign",
+                                            "com.adobe.eventSource.responseContent")
+                                    .setEventData(responseEventData)
+                                    .build());
+            Assert.assertEquals(metrics, retrievedMetrics[0]);
+        }
+    }
+
+    @Test
+    public void test_getTrackingQueueMetrics_Timeout() {
+        try (MockedStatic<MobileCore> mobileCoreMockedStatic =
+                Mockito.mockStatic(MobileCore.class)) {
+            // setup
+            final AdobeCallbackWithError<Map<String, Object>> callback =
+                    Mockito.mock(AdobeCallbackWithError.class);
+
+            // test
+            CampaignClassic.getTrackingQueueMetrics(callback);
+
+            // verify
+            final ArgumentCaptor<AdobeCallbackWithError> callbackCaptor =
+                    ArgumentCaptor.forClass(AdobeCallbackWithError.class);
+            mobileCoreMockedStatic.verify(
+                    () ->
+                            MobileCore.dispatchEventWithResponseCallback(
+                                    ArgumentMatchers.any(),
+                                    ArgumentMatchers.anyLong(),
+                                    callbackCaptor.capture()));
+            callbackCaptor.getValue().fail(AdobeError.CALLBACK_TIMEOUT);
+            Mockito.verify(callback, Mockito.times(1)).fail(AdobeError.CALLBACK_TIMEOUT);
+            Mockito.verify(callback, Mockito.never()).call(ArgumentMatchers.any());
+        }
+    }
 }
@@ -0,0 +1,235 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import com.adobe.marketing.mobile.Event
+import com.adobe.marketing.mobile.EventSource
+import com.adobe.marketing.mobile.EventType
+import com.adobe.marketing.mobile.ExtensionApi
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
+import org.mockito.Mockito
+import org.mockito.junit.MockitoJUnitRunner
+import java.net.HttpURLConnection
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class CircuitBreakerRegistryTests {
+
+    private lateinit var extensionApi: ExtensionApi
+    private lateinit var circuitBreakers: CircuitBreakerRegistry
+    private var now = 1000L
+
+    @Before
+    fun setup() {
+        extensionApi = Mockito.mock(ExtensionApi::class.java)
+        now = 1000L
+        circuitBreakers = CircuitBreakerRegistry(extensionApi) { now }
+    }
+
+    @Test
+    fun allowRequest_UnknownHost() {
+        Assert.assertNotNull(circuitBreakers.allowRequest(HOST))
+        Assert.assertEquals(CircuitBreakerRegistry.State.CLOSED, circuitBreakers.getState(HOST))
+    }
+
+    @Test
+    fun recordResponse_FailuresBelowThreshold_StaysClosed() {
+        // test
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD - 1)
+
+        // verify
+        Assert.assertNotNull(circuitBreakers.allowRequest(HOST))
+        Mockito.verify(extensionApi, Mockito.never()).dispatch(Mockito.any())
+    }
+
+    @Test
+    fun recordResponse_SuccessResetsFailures() {
+        // test
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD - 1)
+        recordResponse(HttpURLConnection.HTTP_OK)
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD - 1)
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.CLOSED, circuitBreakers.getState(HOST))
+    }
+
+    @Test
+    fun recordResponse_ClientErrorIsNotAFailure() {
+        // test
+        repeat(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD) {
+            recordResponse(HttpURLConnection.HTTP_BAD_REQUEST)
+        }
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.CLOSED, circuitBreakers.getState(HOST))
+    }
+
+    @Test
+    fun recordResponse_ConsecutiveFailures_OpensCircuit() {
+        // test
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakers.getState(HOST))
+        Assert.assertNull(circuitBreakers.allowRequest(HOST))
+        Assert.assertNotNull(circuitBreakers.allowRequest(OTHER_HOST))
+        Assert.assertEquals(
+            CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS,
+            circuitBreakers.getRetryAfterMillis(HOST)
+        )
+        verifyStateEvents(CircuitBreakerRegistry.State.OPEN)
+    }
+
+    @Test
+    fun allowRequest_OpenIntervalElapsed_AllowsSingleProbe() {
+        // setup
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+        now += CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+
+        // test and verify
+        Assert.assertNotNull(circuitBreakers.allowRequest(HOST))
+        Assert.assertEquals(CircuitBreakerRegistry.State.HALF_OPEN, circuitBreakers.getState(HOST))
+        Assert.assertNull(circuitBreakers.allowRequest(HOST))
+    }
+
+    @Test
+    fun recordResponse_ProbeSucceeds_ClosesCircuit() {
+        // setup
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+        now += CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+        val probe = circuitBreakers.allowRequest(HOST)!!
+
+        // test
+        circuitBreakers.recordResponse(probe, HttpURLConnection.HTTP_OK)
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.CLOSED, circuitBreakers.getState(HOST))
+        Assert.assertNotNull(circuitBreakers.allowRequest(HOST))
+        verifyStateEvents(
+            CircuitBreakerRegistry.State.OPEN,
+            CircuitBreakerRegistry.State.HALF_OPEN,
+            CircuitBreakerRegistry.State.CLOSED
+        )
+    }
+
+    @Test
+    fun recordResponse_ProbeFails_ReopensWithLongerInterval() {
+        // setup
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+        now += CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+        val probe = circuitBreakers.allowRequest(HOST)!!
+
+        // test
+        circuitBreakers.recordResponse(probe, HttpURLConnection.HTTP_UNAVAILABLE)
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakers.getState(HOST))
+        Assert.assertEquals(
+            CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS * 2,
+            circuitBreakers.getRetryAfterMillis(HOST)
+        )
+    }
+
+    @Test
+    fun recordResponse_ProbeFailures_IntervalCapped() {
+        // setup
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+
+        // test
+        repeat(20) {
+            now += CampaignClassicConstants.CircuitBreaker.MAX_OPEN_INTERVAL_IN_MILLISECONDS
+            circuitBreakers.recordResponse(circuitBreakers.allowRequest(HOST)!!, -1)
+        }
+
+        // verify
+        Assert.assertEquals(
+            CampaignClassicConstants.CircuitBreaker.MAX_OPEN_INTERVAL_IN_MILLISECONDS,
+            circuitBreakers.getRetryAfterMillis(HOST)
+        )
+    }
+
+    @Test
+    fun recordResponse_HalfOpen_IgnoresResponsesOfRequestsSentBeforeOpening() {
+        // setup
+        val earlierPermit = circuitBreakers.allowRequest(HOST)!!
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+        now += CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+        val probe = circuitBreakers.allowRequest(HOST)!!
+
+        // test
+        circuitBreakers.recordResponse(earlierPermit, HttpURLConnection.HTTP_OK)
+
+        // verify the circuit still waits for the probe
+        Assert.assertEquals(CircuitBreakerRegistry.State.HALF_OPEN, circuitBreakers.getState(HOST))
+        Assert.assertNull(circuitBreakers.allowRequest(HOST))
+
+        // test
+        circuitBreakers.recordResponse(probe, HttpURLConnection.HTTP_UNAVAILABLE)
+
+        // verify the probe decides the outcome
+        Assert.assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakers.getState(HOST))
+    }
+
+    @Test
+    fun recordResponse_Open_IgnoresResponsesOfRequestsSentBeforeOpening() {
+        // setup
+        val earlierPermit = circuitBreakers.allowRequest(HOST)!!
+        recordFailures(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD)
+
+        // test
+        circuitBreakers.recordResponse(earlierPermit, HttpURLConnection.HTTP_OK)
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakers.getState(HOST))
+        verifyStateEvents(CircuitBreakerRegistry.State.OPEN)
+    }
+
+    @Test
+    fun getHost_ParsesUrl() {
+        Assert.assertEquals(HOST, CircuitBreakerRegistry.getHost("https://$HOST/r/?id=h3039,testDeliveryId,1"))
+        Assert.assertEquals("not a url", CircuitBreakerRegistry.getHost("not a url"))
+    }
+
+    // =================================================================================================================
+    // private methods
+    // =================================================================================================================
+
+    private fun recordFailures(count: Int) {
+        repeat(count) { recordResponse(HttpURLConnection.HTTP_UNAVAILABLE) }
+    }
+
+    private fun recordResponse(responseCode: Int) {
+        circuitBreakers.recordResponse(circuitBreakers.allowRequest(HOST)!!, responseCode)
+    }
+
+    private fun verifyStateEvents(vararg states: CircuitBreakerRegistry.State) {
+        val eventCaptor = ArgumentCaptor.forClass(Event::class.java)
+        Mockito.verify(extensionApi, Mockito.times(states.size)).dispatch(eventCaptor.capture())
+        eventCaptor.allValues.forEachIndexed { index, event ->
+            Assert.assertEquals(CampaignClassicTestConstants.EventNames.CIRCUIT_BREAKER_STATE_CHANGED, event.name)
+            Assert.assertEquals(EventType.CAMPAIGN, event.type)
+            Assert.assertEquals(EventSource.RESPONSE_CONTENT, event.source)
+            Assert.assertEquals(HOST, event.eventData[CampaignClassicTestConstants.EventDataKeys.CampaignClassic.CIRCUIT_BREAKER_HOST])
+            Assert.assertEquals(
+                states[index].value,
+                event.eventData[CampaignClassicTestConstants.EventDataKeys.CampaignClassic.CIRCUIT_BREAKER_STATE]
+            )
+        }
+    }
+
+    companion object {
+        private const val HOST = "testTrackingServer"
+        private const val OTHER_HOST = "testMarketingServer"
+    }
+}
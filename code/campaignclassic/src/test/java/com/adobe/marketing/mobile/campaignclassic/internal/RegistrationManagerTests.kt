@@ -162,6 +162,69 @@ class RegistrationManagerTests {
         )
     }
 
+    @Test
+    fun registerDevice_WhenCircuitOpen_ThenParksRequest() {
+        // setup
+        setConfigurationSharedState()
+        val circuitBreakers = CircuitBreakerRegistry(extensionApi)
+        openCircuit(circuitBreakers)
+
+        // test
+        RegistrationManager(extensionApi, deviceInfoService, dataStore, networkService, circuitBreakers)
+            .registerDevice(getRegisterDeviceEvent())
+
+        // verify no network call while the circuit is open
+        Mockito.verifyNoInteractions(networkService)
+    }
+
+    @Test
+    fun registerDevice_WhenServerError_ThenRecordsFailure() {
+        // setup
+        setConfigurationSharedState()
+        val circuitBreakers = CircuitBreakerRegistry(extensionApi)
+        val connection = Mockito.mock(HttpConnecting::class.java)
+        Mockito.`when`(connection.responseCode).thenReturn(HttpURLConnection.HTTP_UNAVAILABLE)
+        Mockito.`when`(networkService.connectAsync(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer { invocation ->
+            (invocation.arguments[1] as NetworkCallback).call(connection)
+            null
+        }
+        val manager = RegistrationManager(extensionApi, deviceInfoService, dataStore, networkService, circuitBreakers)
+
+        // test
+        repeat(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD) {
+            manager.registerDevice(getRegisterDeviceEvent())
+        }
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakers.getState("testMarketingServer"))
+    }
+
+    @Test
+    fun registerDevice_WhenOffline_ThenNotSentAndNoFailureRecorded() {
+        // setup
+        setConfigurationSharedState()
+        Mockito.`when`(deviceInfoService.networkConnectionStatus).thenReturn(DeviceInforming.ConnectionStatus.DISCONNECTED)
+        val circuitBreakers = CircuitBreakerRegistry(extensionApi)
+        val manager = RegistrationManager(extensionApi, deviceInfoService, dataStore, networkService, circuitBreakers)
+
+        // test
+        repeat(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD) {
+            manager.registerDevice(getRegisterDeviceEvent())
+        }
+
+        // verify
+        Mockito.verifyNoInteractions(networkService)
+        Assert.assertEquals(CircuitBreakerRegistry.State.CLOSED, circuitBreakers.getState("testMarketingServer"))
+        val eventCaptor = ArgumentCaptor.forClass(Event::class.java)
+        Mockito.verify(extensionApi, Mockito.times(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD))
+            .dispatch(eventCaptor.capture())
+        Assert.assertEquals(CampaignClassicTestConstants.EventNames.DEVICE_REGISTRATION_STATUS, eventCaptor.value.name)
+        Assert.assertEquals(
+            false,
+            eventCaptor.value.eventData[CampaignClassicTestConstants.EventDataKeys.CampaignClassic.REGISTRATION_STATUS]
+        )
+    }
+
     @Test
     fun registerDevice_ConfigurationNotSet() {
         // test
@@ -414,10 +477,38 @@ class RegistrationManagerTests {
         )
     }
 
+    @Test
+    fun clearRegistrationData_WhenRegistrationParked_ThenDropsParkedRequest() {
+        // setup
+        setConfigurationSharedState()
+        var now = 1000L
+        val circuitBreakers = CircuitBreakerRegistry(extensionApi) { now }
+        openCircuit(circuitBreakers)
+        val manager = RegistrationManager(extensionApi, deviceInfoService, dataStore, networkService, circuitBreakers)
+        manager.registerDevice(getRegisterDeviceEvent())
+
+        // test
+        manager.clearRegistrationData()
+        now += CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS
+        manager.sendParkedRegistration()
+
+        // verify the parked registration is not sent after the opt out
+        Mockito.verifyNoInteractions(networkService)
+    }
+
     // =================================================================================================================
     // private methods
     // =================================================================================================================
 
+    private fun openCircuit(circuitBreakers: CircuitBreakerRegistry) {
+        repeat(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD) {
+            circuitBreakers.recordResponse(
+                circuitBreakers.allowRequest("testMarketingServer")!!,
+                HttpURLConnection.HTTP_UNAVAILABLE
+            )
+        }
+    }
+
     private fun setConfigurationSharedState(
         marketingServer: String? = "testMarketingServer",
         integrationKey: String? = "testIntegrationKey",
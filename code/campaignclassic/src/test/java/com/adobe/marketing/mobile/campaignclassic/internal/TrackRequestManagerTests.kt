@@ -17,10 +17,13 @@ import com.adobe.marketing.mobile.ExtensionApi
 import com.adobe.marketing.mobile.MobilePrivacyStatus
 import com.adobe.marketing.mobile.SharedStateResult
 import com.adobe.marketing.mobile.SharedStateStatus
+import com.adobe.marketing.mobile.services.DataEntity
+import com.adobe.marketing.mobile.services.HitQueuing
 import com.adobe.marketing.mobile.services.HttpConnecting
 import com.adobe.marketing.mobile.services.NetworkCallback
 import com.adobe.marketing.mobile.services.NetworkRequest
 import com.adobe.marketing.mobile.services.Networking
+import org.json.JSONObject
 import org.junit.Assert
 import org.junit.Before
 import org.junit.Test
@@ -410,6 +413,305 @@ class TrackRequestManagerTests {
         Assert.assertEquals(20, networkRequestCaptor.value.readTimeout)
     }
 
+    @Test
+    fun handleTrackRequest_HitQueueAvailable_QueuesHit() {
+        // setup
+        setConfigurationSharedState()
+        val hitQueue = Mockito.mock(HitQueuing::class.java)
+        Mockito.`when`(hitQueue.queue(ArgumentMatchers.any())).thenReturn(true)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            null,
+            hitQueue,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        )
+
+        // test
+        queueingTrackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+
+        // verify hit is queued and deferred instead of sent
+        val dataEntityCaptor = ArgumentCaptor.forClass(DataEntity::class.java)
+        Mockito.verify(hitQueue, Mockito.times(1)).queue(dataEntityCaptor.capture())
+        Mockito.verify(hitQueue, Mockito.never()).beginProcessing()
+        Mockito.verifyNoInteractions(networkService)
+        val hit = JSONObject(dataEntityCaptor.value.data)
+        val expectedUrl = "https://testTrackingServer/r/?id=h${java.lang.String.format("%x",12345)},testDeliveryId,1"
+        Assert.assertEquals(expectedUrl, hit.getString("url"))
+        Assert.assertEquals(CampaignClassicTestConstants.DEFAULT_TIMEOUT, hit.getInt("timeout"))
+        Assert.assertEquals(1L, queueingTrackManager.getQueueMetrics(TrackingLane.RECEIVE).hitsQueued)
+    }
+
+    @Test
+    fun handleTrackRequest_ReceiveHitsReachFlushThreshold_FlushesLane() {
+        // setup
+        setConfigurationSharedState()
+        val hitQueue = Mockito.mock(HitQueuing::class.java)
+        Mockito.`when`(hitQueue.queue(ArgumentMatchers.any())).thenReturn(true)
+        Mockito.`when`(hitQueue.count()).thenReturn(CampaignClassicConstants.TrackingHitQueue.FLUSH_SIZE_THRESHOLD)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            null,
+            hitQueue,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        )
+
+        // test
+        queueingTrackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+
+        // verify the receive lane is resumed
+        Mockito.verify(hitQueue, Mockito.times(1)).queue(ArgumentMatchers.any())
+        Mockito.verify(hitQueue, Mockito.times(1)).beginProcessing()
+    }
+
+    @Test
+    fun handleTrackRequest_ReceiveHitQueuedInBackground_FlushesLane() {
+        // setup
+        setConfigurationSharedState()
+        val hitQueue = Mockito.mock(HitQueuing::class.java)
+        Mockito.`when`(hitQueue.queue(ArgumentMatchers.any())).thenReturn(true)
+        Mockito.`when`(hitQueue.count()).thenReturn(1)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            null,
+            hitQueue,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        ) { false }
+
+        // test
+        queueingTrackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+
+        // verify the receive lane is resumed without waiting for the maximum delay
+        Mockito.verify(hitQueue, Mockito.times(1)).queue(ArgumentMatchers.any())
+        Mockito.verify(hitQueue, Mockito.times(1)).beginProcessing()
+    }
+
+    @Test
+    fun handleTrackRequest_HitQueueRejectsHit_SendsHit() {
+        // setup
+        setConfigurationSharedState()
+        val hitQueue = Mockito.mock(HitQueuing::class.java)
+        Mockito.`when`(hitQueue.queue(ArgumentMatchers.any())).thenReturn(false)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            hitQueue,
+            null,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        )
+
+        // test
+        queueingTrackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_CLICKED_TAGID
+        )
+
+        // verify hit is sent right away
+        Mockito.verify(networkService, Mockito.times(1)).connectAsync(ArgumentMatchers.any(), ArgumentMatchers.any())
+    }
+
+    @Test
+    fun handleTrackRequest_ClickHit_QueuedInClickLane() {
+        // setup
+        setConfigurationSharedState()
+        val clickQueue = Mockito.mock(HitQueuing::class.java)
+        val receiveQueue = Mockito.mock(HitQueuing::class.java)
+        Mockito.`when`(clickQueue.queue(ArgumentMatchers.any())).thenReturn(true)
+        Mockito.`when`(clickQueue.count()).thenReturn(1)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            clickQueue,
+            receiveQueue,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        )
+
+        // test
+        queueingTrackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_CLICKED_TAGID
+        )
+
+        // verify the receive lane waits for the click hit
+        Mockito.verify(clickQueue, Mockito.times(1)).queue(ArgumentMatchers.any())
+        Mockito.verify(clickQueue, Mockito.times(1)).beginProcessing()
+        Mockito.verify(receiveQueue, Mockito.times(1)).suspend()
+        Mockito.verify(receiveQueue, Mockito.never()).queue(ArgumentMatchers.any())
+        Mockito.verify(receiveQueue, Mockito.never()).beginProcessing()
+        Assert.assertEquals(1L, queueingTrackManager.getQueueMetrics(TrackingLane.CLICK).hitsQueued)
+        Assert.assertEquals(1, queueingTrackManager.getQueueMetrics(TrackingLane.CLICK).queueDepth)
+    }
+
+    @Test
+    fun handleTrackRequest_ReceiveHit_WaitsForPendingClickHits() {
+        // setup
+        setConfigurationSharedState()
+        val clickQueue = Mockito.mock(HitQueuing::class.java)
+        val receiveQueue = Mockito.mock(HitQueuing::class.java)
+        Mockito.`when`(receiveQueue.queue(ArgumentMatchers.any())).thenReturn(true)
+        Mockito.`when`(clickQueue.count()).thenReturn(2)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            clickQueue,
+            receiveQueue,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        )
+
+        // test
+        queueingTrackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+
+        // verify the receive hit is queued but its lane is not resumed
+        Mockito.verify(receiveQueue, Mockito.times(1)).queue(ArgumentMatchers.any())
+        Mockito.verify(receiveQueue, Mockito.never()).beginProcessing()
+        Mockito.verify(clickQueue, Mockito.never()).queue(ArgumentMatchers.any())
+    }
+
+    @Test
+    fun handleTrackRequest_DuplicateHit_Suppressed() {
+        // setup
+        setConfigurationSharedState()
+
+        // test
+        trackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+        trackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+
+        // verify only the first hit is sent
+        Mockito.verify(networkService, Mockito.times(1)).connectAsync(ArgumentMatchers.any(), ArgumentMatchers.any())
+        Assert.assertEquals(1L, trackManager.getQueueMetrics(TrackingLane.RECEIVE).hitsSuppressed)
+    }
+
+    @Test
+    fun handleTrackRequest_ReceiveAndClickForSameMessage_NotSuppressed() {
+        // setup
+        setConfigurationSharedState()
+
+        // test
+        trackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+        trackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_CLICKED_TAGID
+        )
+
+        // verify both hits are sent
+        Mockito.verify(networkService, Mockito.times(2)).connectAsync(ArgumentMatchers.any(), ArgumentMatchers.any())
+        Assert.assertEquals(0L, trackManager.getQueueMetrics(TrackingLane.RECEIVE).hitsSuppressed)
+        Assert.assertEquals(0L, trackManager.getQueueMetrics(TrackingLane.CLICK).hitsSuppressed)
+    }
+
+    // =================================================================================================================
+    // fun dispatchQueueMetrics(event: Event)
+    // =================================================================================================================
+
+    @Test
+    fun dispatchQueueMetrics_DispatchesMetricsOfBothLanes() {
+        // setup
+        setConfigurationSharedState()
+        trackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+        trackManager.handleTrackRequest(
+            getTrackRequestEvent(),
+            CampaignClassicTestConstants.MESSAGE_RECEIVED_TAGID
+        )
+        val metricsRequestEvent = Event.Builder("Campaign Request", EventType.CAMPAIGN, EventSource.REQUEST_CONTENT)
+            .setEventData(
+                mapOf(CampaignClassicTestConstants.EventDataKeys.CampaignClassic.GET_TRACKING_QUEUE_METRICS to true)
+            )
+            .build()
+
+        // test
+        trackManager.dispatchQueueMetrics(metricsRequestEvent)
+
+        // verify
+        val eventCaptor = ArgumentCaptor.forClass(Event::class.java)
+        Mockito.verify(extensionApi, Mockito.times(1)).dispatch(eventCaptor.capture())
+        val responseEvent = eventCaptor.value
+        Assert.assertEquals(CampaignClassicTestConstants.EventNames.TRACKING_QUEUE_METRICS, responseEvent.name)
+        Assert.assertEquals(EventType.CAMPAIGN, responseEvent.type)
+        Assert.assertEquals(EventSource.RESPONSE_CONTENT, responseEvent.source)
+        Assert.assertEquals(metricsRequestEvent.uniqueIdentifier, responseEvent.responseID)
+
+        val metrics = responseEvent.eventData[
+            CampaignClassicTestConstants.EventDataKeys.CampaignClassic.TRACKING_QUEUE_METRICS
+        ] as Map<*, *>
+        val receiveMetrics =
+            metrics[CampaignClassicTestConstants.EventDataKeys.TrackingQueueMetrics.RECEIVE_LANE] as Map<*, *>
+        val clickMetrics =
+            metrics[CampaignClassicTestConstants.EventDataKeys.TrackingQueueMetrics.CLICK_LANE] as Map<*, *>
+        Assert.assertEquals(
+            1L,
+            receiveMetrics[CampaignClassicTestConstants.EventDataKeys.TrackingQueueMetrics.HITS_SUPPRESSED]
+        )
+        Assert.assertEquals(
+            0L,
+            clickMetrics[CampaignClassicTestConstants.EventDataKeys.TrackingQueueMetrics.HITS_SUPPRESSED]
+        )
+        Assert.assertEquals(
+            0,
+            clickMetrics[CampaignClassicTestConstants.EventDataKeys.TrackingQueueMetrics.QUEUE_DEPTH]
+        )
+    }
+
+    @Test
+    fun clearQueuedHits_ClearsHitQueue() {
+        // setup
+        val clickQueue = Mockito.mock(HitQueuing::class.java)
+        val receiveQueue = Mockito.mock(HitQueuing::class.java)
+        val queueingTrackManager = TrackRequestManager(
+            extensionApi,
+            networkService,
+            null,
+            clickQueue,
+            receiveQueue,
+            null,
+            CircuitBreakerRegistry(extensionApi)
+        )
+
+        // test
+        queueingTrackManager.clearQueuedHits()
+
+        // verify
+        Mockito.verify(clickQueue, Mockito.times(1)).clear()
+        Mockito.verify(receiveQueue, Mockito.times(1)).clear()
+    }
+
     // =================================================================================================================
     // private methods
     // =================================================================================================================
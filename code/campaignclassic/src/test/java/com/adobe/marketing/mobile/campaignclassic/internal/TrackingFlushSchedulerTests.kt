@@ -0,0 +1,136 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.junit.MockitoJUnitRunner
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class TrackingFlushSchedulerTests {
+
+    private lateinit var flushScheduler: TrackingFlushScheduler
+    private val flushReasons = ArrayList<String>()
+
+    @Before
+    fun setup() {
+        flushReasons.clear()
+        flushScheduler = TrackingFlushScheduler { flushReasons.add(it) }
+    }
+
+    @Test
+    fun onHitQueued_BelowThreshold_Deferred() {
+        // test
+        flushScheduler.onHitQueued(CampaignClassicConstants.TrackingHitQueue.FLUSH_SIZE_THRESHOLD - 1, false, true)
+
+        // verify
+        Assert.assertFalse(flushScheduler.isFlushing())
+        Assert.assertTrue(flushReasons.isEmpty())
+    }
+
+    @Test
+    fun onHitQueued_ThresholdReached_Flushes() {
+        // test
+        flushScheduler.onHitQueued(CampaignClassicConstants.TrackingHitQueue.FLUSH_SIZE_THRESHOLD, false, true)
+
+        // verify
+        Assert.assertTrue(flushScheduler.isFlushing())
+        Assert.assertEquals(listOf(TrackingFlushScheduler.REASON_SIZE), flushReasons)
+    }
+
+    @Test
+    fun onHitQueued_UnmeteredNetwork_Flushes() {
+        // test
+        flushScheduler.onHitQueued(1, true, true)
+
+        // verify
+        Assert.assertTrue(flushScheduler.isFlushing())
+        Assert.assertEquals(listOf(TrackingFlushScheduler.REASON_UNMETERED), flushReasons)
+    }
+
+    @Test
+    fun onHitQueued_InBackground_Flushes() {
+        // test
+        flushScheduler.onHitQueued(1, false, false)
+
+        // verify
+        Assert.assertTrue(flushScheduler.isFlushing())
+        Assert.assertEquals(listOf(TrackingFlushScheduler.REASON_BACKGROUND), flushReasons)
+    }
+
+    @Test
+    fun onHitQueued_MaxDelayElapsed_Flushes() {
+        // setup
+        val flushLatch = CountDownLatch(1)
+        var flushReason: String? = null
+        val delayedFlushScheduler = TrackingFlushScheduler(MAX_DELAY_IN_MILLISECONDS) {
+            flushReason = it
+            flushLatch.countDown()
+        }
+
+        // test
+        delayedFlushScheduler.onHitQueued(1, false, true)
+
+        // verify
+        Assert.assertTrue(flushLatch.await(1, TimeUnit.SECONDS))
+        Assert.assertTrue(delayedFlushScheduler.isFlushing())
+        Assert.assertEquals(TrackingFlushScheduler.REASON_DELAY, flushReason)
+    }
+
+    @Test
+    fun reset_CancelsDelayedFlush() {
+        // setup
+        val flushLatch = CountDownLatch(1)
+        val delayedFlushScheduler = TrackingFlushScheduler(MAX_DELAY_IN_MILLISECONDS) { flushLatch.countDown() }
+        delayedFlushScheduler.onHitQueued(1, false, true)
+
+        // test
+        delayedFlushScheduler.reset()
+
+        // verify
+        Assert.assertFalse(flushLatch.await(MAX_DELAY_IN_MILLISECONDS * 5, TimeUnit.MILLISECONDS))
+        Assert.assertFalse(delayedFlushScheduler.isFlushing())
+    }
+
+    @Test
+    fun flush_AlreadyFlushing_NotRestarted() {
+        // test
+        flushScheduler.flush(TrackingFlushScheduler.REASON_BACKGROUND)
+        flushScheduler.onHitQueued(CampaignClassicConstants.TrackingHitQueue.FLUSH_SIZE_THRESHOLD, false, true)
+
+        // verify
+        Assert.assertEquals(listOf(TrackingFlushScheduler.REASON_BACKGROUND), flushReasons)
+    }
+
+    @Test
+    fun reset_EndsFlush() {
+        // setup
+        flushScheduler.flush(TrackingFlushScheduler.REASON_STARTUP)
+
+        // test
+        flushScheduler.reset()
+        flushScheduler.flush(TrackingFlushScheduler.REASON_BACKGROUND)
+
+        // verify
+        Assert.assertEquals(
+            listOf(TrackingFlushScheduler.REASON_STARTUP, TrackingFlushScheduler.REASON_BACKGROUND),
+            flushReasons
+        )
+    }
+
+    companion object {
+        private const val MAX_DELAY_IN_MILLISECONDS = 50L
+    }
+}
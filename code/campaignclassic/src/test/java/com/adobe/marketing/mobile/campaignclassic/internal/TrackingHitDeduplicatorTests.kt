@@ -0,0 +1,118 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import com.adobe.marketing.mobile.services.NamedCollection
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers
+import org.mockito.Mockito
+import org.mockito.junit.MockitoJUnitRunner
+import java.util.concurrent.TimeUnit
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class TrackingHitDeduplicatorTests {
+
+    private lateinit var dataStore: NamedCollection
+    private lateinit var deduplicator: TrackingHitDeduplicator
+
+    @Before
+    fun setup() {
+        dataStore = Mockito.mock(NamedCollection::class.java)
+        deduplicator = TrackingHitDeduplicator(dataStore)
+    }
+
+    @Test
+    fun isDuplicate_NewHit() {
+        // test
+        val duplicate = deduplicator.isDuplicate("messageId", "deliveryId", "1")
+
+        // verify hit is recorded in the data store
+        Assert.assertFalse(duplicate)
+        val mapCaptor = ArgumentCaptor.forClass(Map::class.java)
+        Mockito.verify(dataStore, Mockito.times(1)).setMap(
+            ArgumentMatchers.eq(CampaignClassicTestConstants.DataStoreKeys.TRACKED_HITS),
+            mapCaptor.capture() as Map<String, String>?
+        )
+        Assert.assertTrue(mapCaptor.value.containsKey("messageId,deliveryId,1"))
+    }
+
+    @Test
+    fun isDuplicate_RepeatedHit() {
+        // test
+        deduplicator.isDuplicate("messageId", "deliveryId", "1")
+        val duplicate = deduplicator.isDuplicate("messageId", "deliveryId", "1")
+
+        // verify
+        Assert.assertTrue(duplicate)
+    }
+
+    @Test
+    fun isDuplicate_HitPersistedByPreviousSession() {
+        // setup
+        Mockito.`when`(dataStore.getMap(CampaignClassicTestConstants.DataStoreKeys.TRACKED_HITS))
+            .thenReturn(mapOf("messageId,deliveryId,1" to System.currentTimeMillis().toString()))
+
+        // test
+        val duplicate = deduplicator.isDuplicate("messageId", "deliveryId", "1")
+
+        // verify
+        Assert.assertTrue(duplicate)
+    }
+
+    @Test
+    fun isDuplicate_ExpiredHit() {
+        // setup
+        val expiredTime = System.currentTimeMillis() -
+            TimeUnit.SECONDS.toMillis(CampaignClassicConstants.TrackingHitQueue.DEDUPLICATION_TTL_IN_SECONDS) - 1000
+        Mockito.`when`(dataStore.getMap(CampaignClassicTestConstants.DataStoreKeys.TRACKED_HITS))
+            .thenReturn(mapOf("messageId,deliveryId,1" to expiredTime.toString()))
+
+        // test
+        val duplicate = deduplicator.isDuplicate("messageId", "deliveryId", "1")
+
+        // verify
+        Assert.assertFalse(duplicate)
+    }
+
+    @Test
+    fun isDuplicate_OldestHitEvicted() {
+        // setup
+        val maxEntries = CampaignClassicConstants.TrackingHitQueue.DEDUPLICATION_MAX_ENTRIES
+        val now = System.currentTimeMillis()
+        val persistedHits = (0 until maxEntries).associate { "messageId$it,deliveryId,1" to (now - maxEntries + it).toString() }
+        Mockito.`when`(dataStore.getMap(CampaignClassicTestConstants.DataStoreKeys.TRACKED_HITS))
+            .thenReturn(persistedHits)
+
+        // test
+        deduplicator.isDuplicate("newMessageId", "deliveryId", "1")
+
+        // verify the oldest hit is no longer a duplicate while the most recent one still is
+        Assert.assertFalse(deduplicator.isDuplicate("messageId0", "deliveryId", "1"))
+        Assert.assertTrue(deduplicator.isDuplicate("messageId${maxEntries - 1}", "deliveryId", "1"))
+    }
+
+    @Test
+    fun clear_RemovesIndex() {
+        // setup
+        deduplicator.isDuplicate("messageId", "deliveryId", "1")
+
+        // test
+        deduplicator.clear()
+
+        // verify
+        Mockito.verify(dataStore, Mockito.times(1)).remove(CampaignClassicTestConstants.DataStoreKeys.TRACKED_HITS)
+        Assert.assertFalse(deduplicator.isDuplicate("messageId", "deliveryId", "1"))
+    }
+}
@@ -0,0 +1,341 @@
+/*
+  Copyright 2024 Adobe. All rights reserved.
+  This file is licensed to you under the Apache License, Version 2.0 (the "License");
+  you may not use this file except in compliance with the License. You may obtain a copy
+  of the License at http://www.apache.org/licenses/LICENSE-2.0
+  Unless required by applicable law or agreed to in writing, software distributed under
+  the License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR REPRESENTATIONS
+  OF ANY KIND, either express or implied. See the License for the specific language
+  governing permissions and limitations under the License.
+*/
+package com.adobe.marketing.mobile.campaignclassic.internal
+
+import com.adobe.marketing.mobile.ExtensionApi
+import com.adobe.marketing.mobile.services.DataEntity
+import com.adobe.marketing.mobile.services.DeviceInforming
+import com.adobe.marketing.mobile.services.HttpConnecting
+import com.adobe.marketing.mobile.services.NetworkCallback
+import com.adobe.marketing.mobile.services.NetworkRequest
+import com.adobe.marketing.mobile.services.Networking
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.mockito.ArgumentCaptor
+import org.mockito.ArgumentMatchers
+import org.mockito.Mockito
+import org.mockito.junit.MockitoJUnitRunner
+import java.net.HttpURLConnection
+import java.util.Date
+import java.util.concurrent.TimeUnit
+
+@RunWith(MockitoJUnitRunner.Silent::class)
+class TrackingHitProcessorTests {
+
+    private lateinit var networkService: Networking
+    private lateinit var deviceInfoService: DeviceInforming
+    private lateinit var extensionApi: ExtensionApi
+    private lateinit var circuitBreakers: CircuitBreakerRegistry
+    private lateinit var metrics: TrackingQueueMetrics
+    private lateinit var hitProcessor: TrackingHitProcessor
+    private var offlineCount = 0
+    private var completedCount = 0
+    private var now = 1000L
+
+    @Before
+    fun setup() {
+        networkService = Mockito.mock(Networking::class.java)
+        deviceInfoService = Mockito.mock(DeviceInforming::class.java)
+        Mockito.`when`(deviceInfoService.networkConnectionStatus).thenReturn(DeviceInforming.ConnectionStatus.CONNECTED)
+        extensionApi = Mockito.mock(ExtensionApi::class.java)
+        now = 1000L
+        circuitBreakers = CircuitBreakerRegistry(extensionApi) { now }
+        metrics = TrackingQueueMetrics()
+        offlineCount = 0
+        completedCount = 0
+        hitProcessor = TrackingHitProcessor(
+            TrackingLane.RECEIVE,
+            networkService,
+            deviceInfoService,
+            circuitBreakers,
+            metrics,
+            { offlineCount++ },
+            { completedCount++ }
+        )
+    }
+
+    // =================================================================================================================
+    // fun processHit(entity: DataEntity, processingResult: HitProcessingResult)
+    // =================================================================================================================
+
+    @Test
+    fun processHit_Success() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_OK)
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity()) { result = it }
+
+        // verify
+        val networkRequestCaptor = ArgumentCaptor.forClass(NetworkRequest::class.java)
+        Mockito.verify(networkService, Mockito.times(1))
+            .connectAsync(networkRequestCaptor.capture(), ArgumentMatchers.any())
+        Assert.assertEquals(TRACK_URL, networkRequestCaptor.value.url)
+        Assert.assertEquals(20, networkRequestCaptor.value.connectTimeout)
+        Assert.assertEquals(20, networkRequestCaptor.value.readTimeout)
+        Assert.assertEquals(true, result)
+        Assert.assertEquals(1L, metrics.snapshot(0).hitsSent)
+        Assert.assertEquals(1, completedCount)
+    }
+
+    @Test
+    fun processHit_ServerError_Retries() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity()) { result = it }
+
+        // verify
+        Assert.assertEquals(false, result)
+        Assert.assertEquals(1L, metrics.snapshot(0).hitsRetried)
+        Assert.assertEquals(0, completedCount)
+    }
+
+    @Test
+    fun processHit_NoResponse_Retries() {
+        // setup
+        Mockito.`when`(networkService.connectAsync(ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer { invocation ->
+                (invocation.arguments[1] as NetworkCallback).call(null)
+                null
+            }
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity()) { result = it }
+
+        // verify
+        Assert.assertEquals(false, result)
+    }
+
+    @Test
+    fun processHit_ClientError_Drops() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_BAD_REQUEST)
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity()) { result = it }
+
+        // verify
+        Assert.assertEquals(true, result)
+        Assert.assertEquals(1L, metrics.snapshot(0).hitsDropped)
+        Assert.assertEquals(0L, metrics.snapshot(0).hitsSent)
+        Assert.assertEquals(1, completedCount)
+    }
+
+    @Test
+    fun processHit_ExpiredHit_Drops() {
+        // setup
+        val expiredTimestamp = Date(
+            System.currentTimeMillis() -
+                TimeUnit.SECONDS.toMillis(CampaignClassicConstants.TrackingHitQueue.MAX_HIT_AGE_IN_SECONDS) - 1000
+        )
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity(timestamp = expiredTimestamp)) { result = it }
+
+        // verify
+        Mockito.verifyNoInteractions(networkService)
+        Assert.assertEquals(true, result)
+        Assert.assertEquals(1L, metrics.snapshot(0).hitsDropped)
+    }
+
+    @Test
+    fun processHit_InvalidHit_Drops() {
+        // setup
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(DataEntity("id", Date(), "not a hit")) { result = it }
+
+        // verify
+        Mockito.verifyNoInteractions(networkService)
+        Assert.assertEquals(true, result)
+    }
+
+    @Test
+    fun processHit_Offline_WaitsForConnectivity() {
+        // setup
+        Mockito.`when`(deviceInfoService.networkConnectionStatus).thenReturn(DeviceInforming.ConnectionStatus.DISCONNECTED)
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity()) { result = it }
+
+        // verify
+        Mockito.verifyNoInteractions(networkService)
+        Assert.assertEquals(false, result)
+        Assert.assertEquals(1, offlineCount)
+    }
+
+    @Test
+    fun processHit_CircuitOpen_ParksHit() {
+        // setup
+        repeat(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD) {
+            circuitBreakers.recordResponse(
+                circuitBreakers.allowRequest("testTrackingServer")!!,
+                HttpURLConnection.HTTP_UNAVAILABLE
+            )
+        }
+        var result: Boolean? = null
+
+        // test
+        hitProcessor.processHit(getDataEntity()) { result = it }
+
+        // verify hit is kept in the queue until the circuit allows a probe
+        Mockito.verifyNoInteractions(networkService)
+        Assert.assertEquals(false, result)
+        Assert.assertEquals(
+            TimeUnit.MILLISECONDS.toSeconds(CampaignClassicConstants.CircuitBreaker.INITIAL_OPEN_INTERVAL_IN_MILLISECONDS).toInt(),
+            hitProcessor.retryInterval(getDataEntity())
+        )
+        Assert.assertEquals(0L, metrics.snapshot(0).hitsRetried)
+    }
+
+    @Test
+    fun processHit_RecordsResponseInCircuitBreaker() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+
+        // test
+        repeat(CampaignClassicConstants.CircuitBreaker.FAILURE_THRESHOLD) {
+            hitProcessor.processHit(getDataEntity()) {}
+        }
+
+        // verify
+        Assert.assertEquals(CircuitBreakerRegistry.State.OPEN, circuitBreakers.getState("testTrackingServer"))
+    }
+
+    // =================================================================================================================
+    // fun retryInterval(entity: DataEntity)
+    // =================================================================================================================
+
+    @Test
+    fun retryInterval_ExponentialBackoff() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+        val initialInterval = TrackingLane.RECEIVE.initialRetryInterval
+
+        // test and verify
+        hitProcessor.processHit(getDataEntity()) {}
+        Assert.assertEquals(initialInterval, hitProcessor.retryInterval(getDataEntity()))
+        hitProcessor.processHit(getDataEntity()) {}
+        Assert.assertEquals(initialInterval * 2, hitProcessor.retryInterval(getDataEntity()))
+        hitProcessor.processHit(getDataEntity()) {}
+        Assert.assertEquals(initialInterval * 4, hitProcessor.retryInterval(getDataEntity()))
+    }
+
+    @Test
+    fun retryInterval_CappedAtMaxInterval() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+
+        // test
+        repeat(40) {
+            hitProcessor.processHit(getDataEntity()) {}
+            closeCircuit()
+        }
+
+        // verify
+        Assert.assertEquals(
+            TrackingLane.RECEIVE.maxRetryInterval,
+            hitProcessor.retryInterval(getDataEntity())
+        )
+    }
+
+    @Test
+    fun retryInterval_ResetBackoff() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+        repeat(3) { hitProcessor.processHit(getDataEntity()) {} }
+
+        // test
+        hitProcessor.resetBackoff()
+
+        // verify
+        Assert.assertEquals(
+            TrackingLane.RECEIVE.initialRetryInterval,
+            hitProcessor.retryInterval(getDataEntity())
+        )
+    }
+
+    @Test
+    fun retryInterval_ClickLane() {
+        // setup
+        setResponseCode(HttpURLConnection.HTTP_UNAVAILABLE)
+        val clickProcessor = TrackingHitProcessor(
+            TrackingLane.CLICK,
+            networkService,
+            deviceInfoService,
+            circuitBreakers,
+            metrics,
+            {},
+            {}
+        )
+
+        // test
+        clickProcessor.processHit(getDataEntity()) {}
+        val firstRetryInterval = clickProcessor.retryInterval(getDataEntity())
+        repeat(40) {
+            clickProcessor.processHit(getDataEntity()) {}
+            closeCircuit()
+        }
+
+        // verify
+        Assert.assertEquals(
+            CampaignClassicConstants.TrackingHitQueue.CLICK_INITIAL_RETRY_INTERVAL_IN_SECONDS,
+            firstRetryInterval
+        )
+        Assert.assertEquals(
+            CampaignClassicConstants.TrackingHitQueue.CLICK_MAX_RETRY_INTERVAL_IN_SECONDS,
+            clickProcessor.retryInterval(getDataEntity())
+        )
+    }
+
+    // =================================================================================================================
+    // private methods
+    // =================================================================================================================
+
+    // keeps the circuit closed so that only the processor backoff is exercised
+    private fun closeCircuit() {
+        now += CampaignClassicConstants.CircuitBreaker.MAX_OPEN_INTERVAL_IN_MILLISECONDS
+        circuitBreakers.recordResponse(
+            circuitBreakers.allowRequest("testTrackingServer")!!,
+            HttpURLConnection.HTTP_OK
+        )
+    }
+
+    private fun setResponseCode(responseCode: Int) {
+        val connection = Mockito.mock(HttpConnecting::class.java)
+        Mockito.`when`(connection.responseCode).thenReturn(responseCode)
+        Mockito.`when`(networkService.connectAsync(ArgumentMatchers.any(), ArgumentMatchers.any()))
+            .thenAnswer { invocation ->
+                (invocation.arguments[1] as NetworkCallback).call(connection)
+                null
+            }
+    }
+
+    private fun getDataEntity(timestamp: Date = Date()): DataEntity {
+        val hit = TrackingHitProcessor.createDataEntity(TRACK_URL, 20)
+        return DataEntity(hit.uniqueIdentifier, timestamp, hit.data)
+    }
+
+    companion object {
+        private const val TRACK_URL = "https://testTrackingServer/r/?id=h3039,testDeliveryId,1"
+    }
+}